@@ -1,9 +1,17 @@
 package com.example.activity_service;
 
+import com.example.service_commons.admission.IngestAdmission;
+import com.example.service_commons.admission.IngestAdmissionFilter;
+import com.example.service_commons.diagnostics.PinnedThreadMonitor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+// service-commons is outside the component scan, so its beans are imported one by one
+@Import({IngestAdmission.class, IngestAdmissionFilter.class, PinnedThreadMonitor.class})
+@ImportRuntimeHints(ActivityServiceRuntimeHints.class)
 public class ActivityServiceApplication {
 
 	public static void main(String[] args) {
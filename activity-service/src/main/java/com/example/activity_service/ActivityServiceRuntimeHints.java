@@ -0,0 +1,25 @@
+package com.example.activity_service;
+
+import com.example.activity_service.model.Activity;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection hints for types bound by the service's own ObjectMappers, which AOT
+ * processing cannot see.
+ */
+class ActivityServiceRuntimeHints implements RuntimeHintsRegistrar {
+    // Package-private, so resolved by name.
+    static final String ROLLUP_ENTRY = "com.example.activity_service.rollup.ActivityRollups$Entry";
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindings.registerReflectionHints(hints.reflection(),
+                Activity.class,
+                ClassUtils.resolveClassName(ROLLUP_ENTRY, classLoader));
+    }
+}
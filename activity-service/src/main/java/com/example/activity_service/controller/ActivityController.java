@@ -1,58 +1,130 @@
 package com.example.activity_service.controller;
 
 import com.example.activity_service.model.Activity;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.example.activity_service.model.ActivityQuery;
+import com.example.activity_service.store.ActivityStore;
+import com.example.activity_service.stream.ActivityStreams;
+import com.example.service_commons.admission.IngestAdmission;
+import com.example.service_commons.admission.RateLimitedException;
+import com.example.service_commons.persistence.RecentEventIds;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/activities")
 public class ActivityController {
     private static final Logger logger = LoggerFactory.getLogger(ActivityController.class);
-    private static final String ACTIVITY_FILE = "activities.json";
+    private static final String NDJSON = "application/x-ndjson";
+    private final ActivityStore activityStore;
+    private final RecentEventIds recentEventIds;
+    private final ActivityStreams activityStreams;
+    private final IngestAdmission ingestAdmission;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    public ActivityController(ActivityStore activityStore, RecentEventIds recentEventIds, ActivityStreams activityStreams,
+                              IngestAdmission ingestAdmission) {
+        this.activityStore = activityStore;
+        this.recentEventIds = recentEventIds;
+        this.activityStreams = activityStreams;
+        this.ingestAdmission = ingestAdmission;
+    }
+
     @PostMapping
-    public void createActivity(@RequestBody Activity activity) {
+    public void createActivity(@RequestBody Activity activity,
+                               @RequestHeader(name = IngestAdmission.CALLER_HEADER, required = false) String caller) {
         logger.info("Recording activity: {} from {}", activity.getType(), activity.getService());
-        List<Activity> activities = readActivities();
-        activities.add(activity);
-        writeActivities(activities);
+        ingestAdmission.checkRate(IngestAdmission.caller(caller, activity.getService()), 1);
+        record(List.of(activity));
     }
 
-    @GetMapping
-    public List<Activity> getAllActivities() {
-        logger.info("Fetching all activities");
-        return readActivities();
+    /** Callers without the caller header are rate-limited by the {@code service} of the batch's first activity. */
+    @PostMapping("/batch")
+    public void createActivities(@RequestBody List<Activity> activities,
+                                 @RequestHeader(name = IngestAdmission.CALLER_HEADER, required = false) String caller) {
+        logger.info("Recording batch of {} activities", activities.size());
+        String service = activities.isEmpty() ? null : activities.get(0).getService();
+        ingestAdmission.checkRate(IngestAdmission.caller(caller, service), activities.size());
+        record(activities);
     }
 
-    private List<Activity> readActivities() {
-        try {
-            File file = new File(ACTIVITY_FILE);
-            if (!file.exists()) return new ArrayList<>();
-            List<Activity> activities = objectMapper.readValue(file, new TypeReference<List<Activity>>() {});
-            logger.debug("Read {} activities from file", activities.size());
-            return activities;
-        } catch (IOException e) {
-            logger.error("Failed to read activities from file", e);
-            throw new RuntimeException(e);
-        }
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<ProblemDetail> rateLimited(RateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.retryAfterSeconds()))
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage()));
     }
 
-    private void writeActivities(List<Activity> activities) {
+    private void record(List<Activity> activities) {
+        List<Activity> fresh = new ArrayList<>(activities.size());
+        for (Activity activity : activities) {
+            if (activity.getEventId() == null || recentEventIds.add(activity.getEventId())) {
+                fresh.add(activity);
+            } else {
+                logger.info("Ignoring duplicate activity {}", activity.getEventId());
+            }
+        }
+        if (fresh.isEmpty()) return;
         try {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(ACTIVITY_FILE), activities);
-            logger.debug("Wrote {} activities to file", activities.size());
-        } catch (IOException e) {
-            logger.error("Failed to write activities to file", e);
-            throw new RuntimeException(e);
+            activityStore.appendAll(fresh);
+        } catch (RuntimeException e) {
+            fresh.stream().map(Activity::getEventId).filter(Objects::nonNull).forEach(recentEventIds::remove);
+            throw e;
         }
     }
-} 
\ No newline at end of file
+
+    @GetMapping
+    public List<Activity> getActivities(ActivityQuery query) throws IOException {
+        logger.info("Fetching activities after id {} (limit {})", query.getAfterId(), query.getLimit());
+        int limit = query.limitOrDefault();
+        List<Activity> page = new ArrayList<>();
+        activityStore.scan(query.afterIdOrDefault(), query.getFrom(), query.getTo(), activity -> {
+            if (query.matches(activity)) {
+                page.add(activity);
+            }
+            return page.size() < limit;
+        });
+        return page;
+    }
+
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamActivities(ActivityQuery query) {
+        logger.info("Streaming activities after id {} (limit {})", query.getAfterId(), query.getLimit());
+        int limit = query.limitOrDefault();
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(out -> {
+            int[] written = {0};
+            activityStore.scan(query.afterIdOrDefault(), query.getFrom(), query.getTo(), activity -> {
+                if (query.matches(activity)) {
+                    out.write(objectMapper.writeValueAsBytes(activity));
+                    out.write('\n');
+                    written[0]++;
+                }
+                return written[0] < limit;
+            });
+        });
+    }
+
+    // Event ids are activity ids, so Last-Event-ID resumes a reconnecting client.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void subscribe(ActivityQuery query,
+                          @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long afterId = lastEventId != null ? lastEventId : query.afterIdOrDefault();
+        logger.info("Subscribing to activities after id {} (service {}, type {})", afterId, query.getService(), query.getType());
+        activityStreams.subscribe(query, afterId, request, response);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.activity_service.controller;
+
+import com.example.activity_service.model.ActivityCounts;
+import com.example.activity_service.model.ActivitySeriesPoint;
+import com.example.activity_service.model.ActivityStatsQuery;
+import com.example.activity_service.model.ActivityTypeCount;
+import com.example.activity_service.rollup.ActivityRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/** Activity analytics served from {@link ActivityRollups} rather than the raw log. */
+@RestController
+@RequestMapping("/api/activities/stats")
+public class ActivityStatsController {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityStatsController.class);
+    private static final long MAX_SERIES_POINTS = 10_080;
+    private final ActivityRollups rollups;
+
+    public ActivityStatsController(ActivityRollups rollups) {
+        this.rollups = rollups;
+    }
+
+    @GetMapping("/counts")
+    public ActivityCounts counts(ActivityStatsQuery query) {
+        Instant now = Instant.now();
+        Instant from = query.fromOrDefault(now);
+        Instant to = checkWindow(from, query.toOrDefault(now));
+        logger.info("Counting activities from {} to {}", from, to);
+        return rollups.counts(from, to, query.getService(), query.getType());
+    }
+
+    @GetMapping("/series")
+    public List<ActivitySeriesPoint> series(ActivityStatsQuery query) {
+        Instant now = Instant.now();
+        Instant from = query.fromOrDefault(now);
+        Instant to = checkWindow(from, query.toOrDefault(now));
+        int step = query.stepOrDefault();
+        if (step < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "step must be at least 1 minute");
+        }
+        if (Duration.between(from, to).toMinutes() / step > MAX_SERIES_POINTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Window too long for step; use a larger step");
+        }
+        logger.info("Building activity series from {} to {} in steps of {} minute(s)", from, to, step);
+        return rollups.series(from, to, query.getService(), query.getType(), step);
+    }
+
+    @GetMapping("/top-types")
+    public List<ActivityTypeCount> topTypes(ActivityStatsQuery query) {
+        Instant now = Instant.now();
+        Instant from = query.fromOrDefault(now);
+        Instant to = checkWindow(from, query.toOrDefault(now));
+        logger.info("Ranking activity types from {} to {}", from, to);
+        return rollups.topTypes(from, to, query.getService(), query.limitOrDefault());
+    }
+
+    private static Instant checkWindow(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        return to;
+    }
+}
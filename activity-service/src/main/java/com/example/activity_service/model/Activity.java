@@ -1,18 +1,28 @@
 package com.example.activity_service.model;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 public class Activity {
+    private Long id;
+    // Idempotency key set by the sender; an activity whose key was already stored is dropped.
+    private String eventId;
     private String timestamp;
     private String service;
     private String type;
-    private Object details;
+    // Snapshot of the object the event is about, kept as a tree: its shape depends on the sending service.
+    private JsonNode details;
 
     // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
     public String getTimestamp() { return timestamp; }
     public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
     public String getService() { return service; }
     public void setService(String service) { this.service = service; }
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
-    public Object getDetails() { return details; }
-    public void setDetails(Object details) { this.details = details; }
+    public JsonNode getDetails() { return details; }
+    public void setDetails(JsonNode details) { this.details = details; }
 } 
\ No newline at end of file
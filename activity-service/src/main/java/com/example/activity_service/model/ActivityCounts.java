@@ -0,0 +1,8 @@
+package com.example.activity_service.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+/** Activity counts over the minute-aligned window {@code [from, to)}, in total and per service and type. */
+public record ActivityCounts(Instant from, Instant to, long count, double ratePerSecond,
+                             Map<String, Long> byService, Map<String, Long> byType) {}
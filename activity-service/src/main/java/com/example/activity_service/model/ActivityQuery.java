@@ -0,0 +1,55 @@
+package com.example.activity_service.model;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Query parameters for listing activities: a keyset cursor ({@code afterId}),
+ * a page size and optional filters. Bound from request parameters.
+ */
+public class ActivityQuery {
+    private Long afterId;
+    private Integer limit;
+    private String service;
+    private String type;
+    private Instant from;
+    private Instant to;
+
+    public boolean matches(Activity activity) {
+        if (service != null && !service.equals(activity.getService())) return false;
+        if (type != null && !type.equals(activity.getType())) return false;
+        if (from != null || to != null) {
+            Instant timestamp = parseTimestamp(activity.getTimestamp());
+            if (timestamp == null) return false;
+            if (from != null && timestamp.isBefore(from)) return false;
+            if (to != null && !timestamp.isBefore(to)) return false;
+        }
+        return true;
+    }
+
+    public long afterIdOrDefault() { return afterId != null ? afterId : -1; }
+    public int limitOrDefault() { return limit != null && limit > 0 ? limit : Integer.MAX_VALUE; }
+
+    public static Instant parseTimestamp(String timestamp) {
+        if (timestamp == null) return null;
+        try {
+            return Instant.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Getters and setters
+    public Long getAfterId() { return afterId; }
+    public void setAfterId(Long afterId) { this.afterId = afterId; }
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+    public String getService() { return service; }
+    public void setService(String service) { this.service = service; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Instant getFrom() { return from; }
+    public void setFrom(Instant from) { this.from = from; }
+    public Instant getTo() { return to; }
+    public void setTo(Instant to) { this.to = to; }
+}
@@ -0,0 +1,6 @@
+package com.example.activity_service.model;
+
+import java.time.Instant;
+
+/** Activities in one step of a time series, starting at {@code start}. */
+public record ActivitySeriesPoint(Instant start, long count, double ratePerSecond) {}
@@ -0,0 +1,34 @@
+package com.example.activity_service.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public class ActivityStatsQuery {
+    private static final Duration DEFAULT_WINDOW = Duration.ofHours(1);
+
+    private String service;
+    private String type;
+    private Instant from;
+    private Instant to;
+    private Integer step;
+    private Integer limit;
+
+    public Instant toOrDefault(Instant now) { return to != null ? to : now; }
+    public Instant fromOrDefault(Instant now) { return from != null ? from : toOrDefault(now).minus(DEFAULT_WINDOW); }
+    public int stepOrDefault() { return step != null ? step : 1; }
+    public int limitOrDefault() { return limit != null && limit > 0 ? limit : 10; }
+
+    // Getters and setters
+    public String getService() { return service; }
+    public void setService(String service) { this.service = service; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Instant getFrom() { return from; }
+    public void setFrom(Instant from) { this.from = from; }
+    public Instant getTo() { return to; }
+    public void setTo(Instant to) { this.to = to; }
+    public Integer getStep() { return step; }
+    public void setStep(Integer step) { this.step = step; }
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
@@ -0,0 +1,4 @@
+package com.example.activity_service.model;
+
+/** How often one activity type occurred in a window, and its share of all activities there. */
+public record ActivityTypeCount(String type, long count, double share) {}
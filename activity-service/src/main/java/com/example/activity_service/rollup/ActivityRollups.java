@@ -0,0 +1,265 @@
+package com.example.activity_service.rollup;
+
+import com.example.activity_service.model.Activity;
+import com.example.activity_service.model.ActivityCounts;
+import com.example.activity_service.model.ActivityQuery;
+import com.example.activity_service.model.ActivitySeriesPoint;
+import com.example.activity_service.model.ActivityTypeCount;
+import com.example.activity_service.store.ActivityStore;
+import com.example.service_commons.persistence.SnapshotFile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-minute activity counters by service and type, kept up to date as activities
+ * are appended and checkpointed with the log offset they cover, so analytics
+ * queries never scan the raw log.
+ */
+@Component
+public class ActivityRollups {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityRollups.class);
+    private static final String CHECKPOINT_FILE = "rollups.snapshot";
+    private static final String UNKNOWN = "unknown";
+
+    private record Key(String service, String type) {}
+
+    record Entry(long minute, String service, String type, long count) {}
+
+    @FunctionalInterface
+    private interface CounterVisitor {
+        void visit(long minute, Key key, long count);
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ActivityStore activityStore;
+    private final Path checkpointFile;
+    private final long checkpointIntervalMs;
+    private final long retentionMinutes;
+
+    /** Written under {@link #lock}, read without it. */
+    private final ConcurrentSkipListMap<Long, Map<Key, AtomicLong>> minutes = new ConcurrentSkipListMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextOffset;
+    private volatile long checkpointedOffset = -1;
+    private ScheduledExecutorService scheduler;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public ActivityRollups(
+            ActivityStore activityStore,
+            @Value("${activity.store.dir:activity-log}") String dir,
+            @Value("${activity.rollup.checkpoint-interval-ms:30000}") long checkpointIntervalMs,
+            @Value("${activity.rollup.retention-days:30}") long retentionDays) {
+        this.activityStore = activityStore;
+        this.checkpointFile = Paths.get(dir).resolve(CHECKPOINT_FILE);
+        this.checkpointIntervalMs = checkpointIntervalMs;
+        this.retentionMinutes = TimeUnit.DAYS.toMinutes(retentionDays);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        loadCheckpoint();
+        long replayFrom = nextOffset;
+        // Requests are only served once the context is up, so nothing is appended between
+        // replaying the log tail and subscribing. Batches published after subscribing can
+        // still include activities the replay read, and record() skips those by id.
+        activityStore.scan(nextOffset - 1, activity -> {
+            record(List.of(activity));
+            return true;
+        });
+        activityStore.addAppendListener(this::record);
+        logger.info("Activity rollups cover {} minute(s) up to offset {} ({} replayed from the log)",
+                minutes.size(), nextOffset, nextOffset - replayFrom);
+
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        scheduler = Executors.newSingleThreadScheduledExecutor(threads.name("activity-rollup-checkpointer").factory());
+        if (checkpointIntervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::checkpointQuietly, checkpointIntervalMs, checkpointIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        checkpointQuietly();
+    }
+
+    public ActivityCounts counts(Instant from, Instant to, String service, String type) {
+        long fromMinute = floorMinute(from);
+        long toMinute = ceilMinute(to);
+        long[] total = {0};
+        Map<String, Long> byService = new TreeMap<>();
+        Map<String, Long> byType = new TreeMap<>();
+        forEach(fromMinute, toMinute, service, type, (minute, key, count) -> {
+            total[0] += count;
+            byService.merge(key.service(), count, Long::sum);
+            byType.merge(key.type(), count, Long::sum);
+        });
+        return new ActivityCounts(toInstant(fromMinute), toInstant(toMinute), total[0],
+                ratePerSecond(total[0], toMinute - fromMinute), byService, byType);
+    }
+
+    public List<ActivitySeriesPoint> series(Instant from, Instant to, String service, String type, int stepMinutes) {
+        long fromMinute = floorMinute(from);
+        long toMinute = ceilMinute(to);
+        long[] counts = new long[(int) ((toMinute - fromMinute + stepMinutes - 1) / stepMinutes)];
+        forEach(fromMinute, toMinute, service, type,
+                (minute, key, count) -> counts[(int) ((minute - fromMinute) / stepMinutes)] += count);
+        List<ActivitySeriesPoint> points = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            long start = fromMinute + (long) i * stepMinutes;
+            points.add(new ActivitySeriesPoint(toInstant(start), counts[i],
+                    ratePerSecond(counts[i], Math.min(stepMinutes, toMinute - start))));
+        }
+        return points;
+    }
+
+    public List<ActivityTypeCount> topTypes(Instant from, Instant to, String service, int limit) {
+        long[] total = {0};
+        Map<String, Long> byType = new HashMap<>();
+        forEach(floorMinute(from), ceilMinute(to), service, null, (minute, key, count) -> {
+            total[0] += count;
+            byType.merge(key.type(), count, Long::sum);
+        });
+        return byType.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new ActivityTypeCount(entry.getKey(), entry.getValue(), (double) entry.getValue() / total[0]))
+                .toList();
+    }
+
+    void checkpoint() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long covered;
+        lock.lock();
+        try {
+            if (nextOffset == checkpointedOffset) return;
+            if (retentionMinutes > 0) {
+                minutes.headMap(floorMinute(Instant.now()) - retentionMinutes).clear();
+            }
+            covered = nextOffset;
+            minutes.forEach((minute, counters) -> counters.forEach((key, count) ->
+                    entries.add(new Entry(minute, key.service(), key.type(), count.get()))));
+        } finally {
+            lock.unlock();
+        }
+        // A checkpoint ahead of the durable log would keep counting activities a crash had lost.
+        activityStore.sync();
+        SnapshotFile.write(checkpointFile, covered, out -> {
+            objectMapper.writeValue(out, entries);
+            return entries.size();
+        });
+        checkpointedOffset = covered;
+        logger.debug("Checkpointed {} activity rollup counters up to offset {}", entries.size(), covered);
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            logger.error("Failed to checkpoint activity rollups to {}", checkpointFile, e);
+        }
+    }
+
+    private void record(List<Activity> activities) {
+        lock.lock();
+        try {
+            for (Activity activity : activities) {
+                if (activity.getId() < nextOffset) continue;
+                nextOffset = activity.getId() + 1;
+                Instant timestamp = ActivityQuery.parseTimestamp(activity.getTimestamp());
+                if (timestamp == null) continue;
+                Key key = new Key(orUnknown(activity.getService()), orUnknown(activity.getType()));
+                minutes.computeIfAbsent(floorMinute(timestamp), minute -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(key, k -> new AtomicLong())
+                        .incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void loadCheckpoint() {
+        if (!Files.exists(checkpointFile)) return;
+        try {
+            SnapshotFile.Header header = SnapshotFile.verify(checkpointFile);
+            List<Entry> entries;
+            try (InputStream in = SnapshotFile.openBody(checkpointFile)) {
+                entries = objectMapper.readValue(in, new TypeReference<List<Entry>>() {});
+            }
+            for (Entry entry : entries) {
+                minutes.computeIfAbsent(entry.minute(), minute -> new ConcurrentHashMap<>())
+                        .put(new Key(entry.service(), entry.type()), new AtomicLong(entry.count()));
+            }
+            nextOffset = header.generation();
+            checkpointedOffset = nextOffset;
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable rollup checkpoint {}; rebuilding from the log", checkpointFile, e);
+            minutes.clear();
+            nextOffset = 0;
+        }
+    }
+
+    private void forEach(long fromMinute, long toMinute, String service, String type, CounterVisitor visitor) {
+        for (Map.Entry<Long, Map<Key, AtomicLong>> bucket : minutes.subMap(fromMinute, true, toMinute, false).entrySet()) {
+            for (Map.Entry<Key, AtomicLong> counter : bucket.getValue().entrySet()) {
+                Key key = counter.getKey();
+                if (service != null && !service.equals(key.service())) continue;
+                if (type != null && !type.equals(key.type())) continue;
+                visitor.visit(bucket.getKey(), key, counter.getValue().get());
+            }
+        }
+    }
+
+    private static String orUnknown(String value) {
+        return value != null ? value : UNKNOWN;
+    }
+
+    private static long floorMinute(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), 60);
+    }
+
+    private static long ceilMinute(Instant instant) {
+        long minute = floorMinute(instant);
+        return toInstant(minute).equals(instant) ? minute : minute + 1;
+    }
+
+    private static Instant toInstant(long minute) {
+        return Instant.ofEpochSecond(minute * 60);
+    }
+
+    private static double ratePerSecond(long count, long minutes) {
+        return minutes > 0 ? count / (minutes * 60.0) : 0;
+    }
+}
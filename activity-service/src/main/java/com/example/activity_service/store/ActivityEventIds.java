@@ -0,0 +1,27 @@
+package com.example.activity_service.store;
+
+import com.example.service_commons.persistence.RecentEventIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Recent activity event ids, rebuilt on startup from the activities timestamped
+ * within the last {@code activity.dedup.window-minutes}, which the time index finds
+ * without reading the rest of the log.
+ */
+@Component
+public class ActivityEventIds extends RecentEventIds {
+
+    public ActivityEventIds(ActivityStore activityStore,
+                            @Value("${activity.dedup.capacity:100000}") int capacity,
+                            @Value("${activity.dedup.window-minutes:60}") long windowMinutes) {
+        super("activity", capacity, ids -> activityStore.scan(-1, Instant.now().minus(Duration.ofMinutes(windowMinutes)), null,
+                activity -> {
+                    ids.accept(activity.getEventId());
+                    return true;
+                }));
+    }
+}
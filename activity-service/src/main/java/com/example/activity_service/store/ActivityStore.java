@@ -0,0 +1,37 @@
+package com.example.activity_service.store;
+
+import com.example.activity_service.model.Activity;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/** Durable storage for activity events; each activity's id is its offset in the store. */
+public interface ActivityStore {
+
+    @FunctionalInterface
+    interface Visitor {
+        boolean visit(Activity activity) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface AppendListener {
+        void appended(List<Activity> activities);
+    }
+
+    Activity append(Activity activity);
+    List<Activity> appendAll(List<Activity> activities);
+
+    default void scan(long afterId, Visitor visitor) throws IOException {
+        scan(afterId, null, null, visitor);
+    }
+
+    /** May skip activities outside {@code [from, to)}, but the visitor still has to filter. */
+    void scan(long afterId, Instant from, Instant to, Visitor visitor) throws IOException;
+
+    /** Stops before the first activity not yet on disk, whose id a crash could hand out again. */
+    void scanDurable(long afterId, Instant from, Instant to, Visitor visitor) throws IOException;
+
+    void addAppendListener(AppendListener listener);
+
+    void sync() throws IOException;
+}
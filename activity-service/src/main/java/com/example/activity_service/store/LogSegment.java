@@ -0,0 +1,218 @@
+package com.example.activity_service.store;
+
+import com.example.service_commons.persistence.SnapshotFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One file of the activity log, named after the offset of its first record, with
+ * a {@link SparseTimeIndex} written next to it when it is sealed.
+ */
+class LogSegment {
+    static final String SUFFIX = ".log";
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    interface RecordHandler {
+        boolean handle(byte[] data, int offset, int length) throws IOException;
+    }
+
+    interface TimestampReader {
+        long read(byte[] data, int offset, int length);
+    }
+
+    private final long baseOffset;
+    private final Path path;
+    private final Path indexPath;
+    private final long indexIntervalBytes;
+    private SparseTimeIndex index;
+    private FileChannel channel;
+    private volatile long size;
+    private volatile long recordCount;
+
+    private LogSegment(long baseOffset, Path path, long size, long indexIntervalBytes) {
+        this.baseOffset = baseOffset;
+        this.path = path;
+        this.indexPath = path.resolveSibling(String.format("%020d%s", baseOffset, SparseTimeIndex.SUFFIX));
+        this.size = size;
+        this.indexIntervalBytes = indexIntervalBytes;
+        this.index = new SparseTimeIndex(indexIntervalBytes);
+    }
+
+    static LogSegment create(Path dir, long baseOffset, long indexIntervalBytes) throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+        LogSegment segment = new LogSegment(baseOffset, path, 0, indexIntervalBytes);
+        segment.openForAppend();
+        SnapshotFile.syncDirectory(dir);
+        return segment;
+    }
+
+    /** Call {@link #loadIndex} or {@link #recover} next. */
+    static LogSegment open(Path path, long indexIntervalBytes) throws IOException {
+        String name = path.getFileName().toString();
+        long baseOffset = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        return new LogSegment(baseOffset, path, Files.size(path), indexIntervalBytes);
+    }
+
+    static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(SUFFIX) && name.length() > SUFFIX.length()
+                && name.substring(0, name.length() - SUFFIX.length()).chars().allMatch(Character::isDigit);
+    }
+
+    long baseOffset() { return baseOffset; }
+    Path path() { return path; }
+    long size() { return size; }
+    long recordCount() { return recordCount; }
+    long maxTimestamp() { return index.maxTimestamp(); }
+
+    void openForAppend() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    void append(byte[] record, long timestamp) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        // Indexed before the size is published, so a reader that sees the record also sees its block.
+        index.add(recordCount, size, timestamp);
+        size += record.length;
+        recordCount++;
+    }
+
+    void flush() throws IOException {
+        FileChannel current = channel;
+        if (current != null) {
+            current.force(false);
+        }
+    }
+
+    void seal() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+            index.write(indexPath);
+        }
+    }
+
+    void loadIndex(TimestampReader timestamps) throws IOException {
+        SparseTimeIndex loaded = SparseTimeIndex.read(indexPath, indexIntervalBytes);
+        if (loaded != null) {
+            index = loaded;
+            return;
+        }
+        recover((data, offset, length) -> true, timestamps);
+        index.write(indexPath);
+    }
+
+    /** Truncates the segment at the first record the validator rejects; returns the number of intact records. */
+    long recover(RecordHandler validator, TimestampReader timestamps) throws IOException {
+        SparseTimeIndex rebuilt = new SparseTimeIndex(indexIntervalBytes);
+        long[] count = new long[1];
+        long[] position = new long[1];
+        long valid = scan(0, Long.MAX_VALUE, (data, offset, length) -> {
+            if (!validator.handle(data, offset, length)) return false;
+            rebuilt.add(count[0]++, position[0], timestamps.read(data, offset, length));
+            position[0] += length + 1;
+            return true;
+        });
+        index = rebuilt;
+        if (valid < size) {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                ch.truncate(valid);
+                ch.force(true);
+            }
+            size = valid;
+        }
+        recordCount = count[0];
+        return recordCount;
+    }
+
+    boolean forEach(RecordHandler handler) throws IOException {
+        long committed = size;
+        return scan(0, committed, handler) == committed;
+    }
+
+    /** Skips whole index blocks that cannot match; records outside the range may still be passed. */
+    boolean forEachInRange(long afterRecord, long from, long to, NumberedRecordHandler handler) throws IOException {
+        long committed = size;
+        List<SparseTimeIndex.Block> blocks = index.blocks();
+        for (int i = 0; i < blocks.size(); i++) {
+            SparseTimeIndex.Block block = blocks.get(i);
+            if (block.position() >= committed) break;
+            boolean last = i + 1 == blocks.size() || blocks.get(i + 1).position() >= committed;
+            long end = last ? committed : blocks.get(i + 1).position();
+            if (!last && blocks.get(i + 1).firstRecord() <= afterRecord + 1) continue;
+            if (!block.overlaps(from, to)) continue;
+            // Extend the run over following blocks that match too, to read them in one pass.
+            while (!last && blocks.get(i + 1).overlaps(from, to)) {
+                i++;
+                last = i + 1 == blocks.size() || blocks.get(i + 1).position() >= committed;
+                end = last ? committed : blocks.get(i + 1).position();
+            }
+            long[] record = {block.firstRecord()};
+            long read = scan(block.position(), end,
+                    (data, offset, length) -> handler.handle(record[0]++, data, offset, length));
+            if (read < end - block.position()) return false;
+        }
+        return true;
+    }
+
+    interface NumberedRecordHandler {
+        boolean handle(long record, byte[] data, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Returns the length of the prefix before the record the handler stopped at.
+     * Handlers must not keep the array: the read buffer is reused.
+     */
+    private long scan(long start, long limit, RecordHandler handler) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long end = Math.min(limit, ch.size());
+            if (end <= start) return 0;
+            byte[] buffer = new byte[(int) Math.min(READ_BUFFER_BYTES, end - start)];
+            // buffer[0, filled) holds the unread bytes from position - filled, starting at a record.
+            int filled = 0;
+            long position = start;
+            long valid = 0;
+            while (position < end) {
+                if (filled == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int read = ch.read(ByteBuffer.wrap(buffer, filled, (int) Math.min(buffer.length - filled, end - position)),
+                        position);
+                if (read < 0) break;
+                position += read;
+                int recordStart = 0;
+                for (int i = filled, n = filled + read; i < n; i++) {
+                    if (buffer[i] != '\n') continue;
+                    if (!handler.handle(buffer, recordStart, i - recordStart)) {
+                        return valid;
+                    }
+                    valid += i + 1 - recordStart;
+                    recordStart = i + 1;
+                }
+                filled += read - recordStart;
+                System.arraycopy(buffer, recordStart, buffer, 0, filled);
+            }
+            return valid;
+        }
+    }
+
+    void delete() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(indexPath);
+    }
+}
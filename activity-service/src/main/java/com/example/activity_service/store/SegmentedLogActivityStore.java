@@ -0,0 +1,551 @@
+package com.example.activity_service.store;
+
+import com.example.activity_service.model.Activity;
+import com.example.activity_service.model.ActivityQuery;
+import com.example.service_commons.persistence.SnapshotFile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only activity log split into segment files, one per time partition.
+ * Append listeners hear about a batch only once it is on disk, in offset order,
+ * on a single publisher thread.
+ */
+@Component
+public class SegmentedLogActivityStore implements ActivityStore {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedLogActivityStore.class);
+    private static final long RETENTION_CHECK_INTERVAL_MS = 60_000;
+    // "%08x " in front of every record
+    private static final int CRC_PREFIX_LENGTH = 9;
+    /** Present while the legacy file is being imported; a log found next to it is incomplete. */
+    static final String MIGRATION_MARKER = "migration.pending";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path dir;
+    private final String legacyFile;
+    private final long segmentBytes;
+    private final long fsyncIntervalMs;
+    private final int maxSegments;
+    private final long retentionHours;
+    private final long partitionMillis;
+    private final long indexIntervalBytes;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+    private final List<AppendListener> listeners = new CopyOnWriteArrayList<>();
+    // Taken after writeLock when both are held.
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final Condition publishable = publishLock.newCondition();
+    private final Condition published = publishLock.newCondition();
+    private final ArrayDeque<List<Activity>> unpublished = new ArrayDeque<>();
+    private long durableOffset;
+    private long publishedOffset;
+    private boolean publishing;
+    private Thread publisher;
+    private final Timer appendTimer = Timer.builder("persistence.append").tag("log", "activities").register(Metrics.globalRegistry);
+    private final DistributionSummary appendBytes = DistributionSummary.builder("persistence.append.bytes")
+            .baseUnit("bytes").tag("log", "activities").register(Metrics.globalRegistry);
+    private final Timer fsyncTimer = Timer.builder("persistence.fsync").tag("log", "activities").register(Metrics.globalRegistry);
+    private final Timer recoverTimer = Timer.builder("persistence.recover").tag("log", "activities").register(Metrics.globalRegistry);
+    private LogSegment active;
+    private long nextOffset;
+    private long partitionEnd;
+    private volatile boolean dirty;
+    private ScheduledExecutorService scheduler;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public SegmentedLogActivityStore(
+            @Value("${activity.store.dir:activity-log}") String dir,
+            @Value("${activity.store.legacy-file:activities.json}") String legacyFile,
+            @Value("${activity.store.segment-bytes:67108864}") long segmentBytes,
+            @Value("${activity.store.fsync-interval-ms:200}") long fsyncIntervalMs,
+            @Value("${activity.store.max-segments:0}") int maxSegments,
+            @Value("${activity.store.retention-hours:0}") long retentionHours,
+            @Value("${activity.store.partition-minutes:60}") long partitionMinutes,
+            @Value("${activity.store.index-interval-bytes:4096}") long indexIntervalBytes) {
+        this.dir = Paths.get(dir);
+        this.legacyFile = legacyFile;
+        this.segmentBytes = segmentBytes;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.maxSegments = maxSegments;
+        this.retentionHours = retentionHours;
+        this.partitionMillis = TimeUnit.MINUTES.toMillis(partitionMinutes);
+        this.indexIntervalBytes = indexIntervalBytes;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(dir);
+        Path marker = dir.resolve(MIGRATION_MARKER);
+        List<LogSegment> existing = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : files.filter(LogSegment::isSegmentFile).toList()) {
+                existing.add(LogSegment.open(path, indexIntervalBytes));
+            }
+        }
+        if (Files.exists(marker)) {
+            logger.warn("Migration from {} was interrupted; discarding {} partial segment(s) to start it over",
+                    legacyFile, existing.size());
+            for (LogSegment segment : existing) {
+                segment.delete();
+            }
+            existing.clear();
+        }
+        existing.sort(Comparator.comparingLong(LogSegment::baseOffset));
+        segments.addAll(existing);
+
+        if (segments.isEmpty()) {
+            boolean migrating = new File(legacyFile).exists();
+            if (migrating) {
+                // Durable before the first segment exists, so no crash can leave a partial log without it.
+                Files.write(marker, new byte[0]);
+                SnapshotFile.syncDirectory(dir);
+            }
+            active = LogSegment.create(dir, 0, indexIntervalBytes);
+            segments.add(active);
+            nextOffset = 0;
+            partitionEnd = partitionEnd(System.currentTimeMillis());
+            if (migrating) {
+                migrateLegacyFile(marker);
+            } else if (Files.deleteIfExists(marker)) {
+                SnapshotFile.syncDirectory(dir);
+            }
+        } else {
+            for (LogSegment sealed : segments.subList(0, segments.size() - 1)) {
+                sealed.loadIndex(this::timestampOf);
+            }
+            active = segments.get(segments.size() - 1);
+            long sizeBefore = active.size();
+            long records = active.recover((data, offset, length) -> isReadable(data, offset, length), this::timestampOf);
+            if (active.size() < sizeBefore) {
+                logger.warn("Truncated {} bytes of torn records from {}", sizeBefore - active.size(), active.path());
+            }
+            active.openForAppend();
+            nextOffset = active.baseOffset() + records;
+            partitionEnd = partitionEnd(Files.getLastModifiedTime(active.path()).toMillis());
+        }
+        recoverTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logger.info("Opened activity log in {} with {} segment(s), next offset {}", dir, segments.size(), nextOffset);
+
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        publishLock.lock();
+        try {
+            // Recovered records are on disk, and a migrated file has been forced; only the migrated batches are left to publish.
+            durableOffset = nextOffset;
+            publishedOffset = nextOffset - unpublishedCount();
+            publishing = true;
+        } finally {
+            publishLock.unlock();
+        }
+        publisher = threads.name("activity-log-publisher").start(this::publish);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threads.name("activity-log-flusher").factory());
+        if (fsyncIntervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::flush, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        if (maxSegments > 0 || retentionHours > 0) {
+            scheduler.scheduleWithFixedDelay(this::enforceRetention, 0, RETENTION_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        writeLock.lock();
+        try {
+            active.seal();
+            markDurable(nextOffset);
+            logger.info("Closed activity log at offset {}", nextOffset);
+        } catch (IOException e) {
+            logger.error("Failed to flush activity log on shutdown", e);
+        } finally {
+            writeLock.unlock();
+        }
+        publishLock.lock();
+        try {
+            publishing = false;
+            publishable.signalAll();
+        } finally {
+            publishLock.unlock();
+        }
+        if (publisher != null) {
+            try {
+                publisher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public Activity append(Activity activity) {
+        appendAll(List.of(activity));
+        return activity;
+    }
+
+    @Override
+    public List<Activity> appendAll(List<Activity> activities) {
+        long start = System.nanoTime();
+        long bytes = 0;
+        int written = 0;
+        writeLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            for (Activity activity : activities) {
+                activity.setId(nextOffset);
+                byte[] record = encode(activity);
+                bytes += record.length;
+                if (active.size() > 0 && (active.size() + record.length > segmentBytes || now >= partitionEnd)) {
+                    roll(now);
+                }
+                active.append(record, toMillis(ActivityQuery.parseTimestamp(activity.getTimestamp())));
+                nextOffset++;
+                written++;
+            }
+            if (fsyncIntervalMs > 0) {
+                dirty = true;
+            } else {
+                force(active);
+                markDurable(nextOffset);
+            }
+            logger.debug("Appended {} activities to {}, next offset {}", activities.size(), active.path(), nextOffset);
+            appendBytes.record(bytes);
+            appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return activities;
+        } catch (IOException e) {
+            logger.error("Failed to append activities to log", e);
+            throw new RuntimeException(e);
+        } finally {
+            // Records written before a failure are in the log and readable, so they are published as well.
+            if (written > 0) {
+                enqueue(written == activities.size() ? activities : activities.subList(0, written));
+            }
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void scan(long afterId, Instant from, Instant to, Visitor visitor) throws IOException {
+        scan(afterId, Long.MAX_VALUE, from, to, visitor);
+    }
+
+    @Override
+    public void scanDurable(long afterId, Instant from, Instant to, Visitor visitor) throws IOException {
+        long limit;
+        publishLock.lock();
+        try {
+            limit = durableOffset;
+        } finally {
+            publishLock.unlock();
+        }
+        scan(afterId, limit, from, to, visitor);
+    }
+
+    private void scan(long afterId, long limit, Instant from, Instant to, Visitor visitor) throws IOException {
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        List<LogSegment> snapshot = List.copyOf(segments);
+        int read = 0;
+        try {
+            for (int i = 0; i < snapshot.size(); i++) {
+                LogSegment segment = snapshot.get(i);
+                // Segment file names carry base offsets, so whole segments before the cursor are skipped unread.
+                if (i + 1 < snapshot.size() && snapshot.get(i + 1).baseOffset() <= afterId + 1) continue;
+                if (segment.baseOffset() >= limit) return;
+                read++;
+                long afterRecord = afterId - segment.baseOffset();
+                try {
+                    boolean completed = segment.forEachInRange(afterRecord, fromMillis, toMillis, (record, data, offset, length) -> {
+                        if (record <= afterRecord) return true;
+                        if (segment.baseOffset() + record >= limit) return false;
+                        int skip = checkedPayloadOffset(data, offset, length);
+                        if (skip < 0) {
+                            throw new IOException("Checksum mismatch for activity " + (segment.baseOffset() + record)
+                                    + " in " + segment.path());
+                        }
+                        Activity activity = objectMapper.readValue(data, offset + skip, length - skip, Activity.class);
+                        return visitor.visit(activity);
+                    });
+                    if (!completed) return;
+                } catch (NoSuchFileException e) {
+                    logger.debug("Segment {} retired while reading", segment.path());
+                }
+            }
+        } finally {
+            logger.debug("Scanned {} of {} segment(s) after id {} for [{}, {})", read, snapshot.size(), afterId, from, to);
+        }
+    }
+
+    @Override
+    public void addAppendListener(AppendListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void sync() throws IOException {
+        LogSegment segment;
+        long through;
+        writeLock.lock();
+        try {
+            segment = active;
+            through = nextOffset;
+            dirty = false;
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            force(segment);
+        } catch (ClosedChannelException e) {
+            // Segment was rolled and sealed concurrently, which already forced it.
+        }
+        markDurable(through);
+    }
+
+    /** For tests and benchmarks: forces the log and waits until every activity has been published. */
+    public void awaitPublished() throws IOException, InterruptedException {
+        sync();
+        publishLock.lock();
+        try {
+            long target = durableOffset;
+            while (publishedOffset < target && publishing) {
+                published.await();
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void enqueue(List<Activity> batch) {
+        publishLock.lock();
+        try {
+            unpublished.add(batch);
+            publishable.signal();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void markDurable(long offset) {
+        publishLock.lock();
+        try {
+            if (offset > durableOffset) {
+                durableOffset = offset;
+                publishable.signal();
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private long unpublishedCount() {
+        return unpublished.stream().mapToLong(List::size).sum();
+    }
+
+    private boolean headDurable() {
+        List<Activity> head = unpublished.peek();
+        return head != null && head.get(head.size() - 1).getId() < durableOffset;
+    }
+
+    private void publish() {
+        List<List<Activity>> batches = new ArrayList<>();
+        while (true) {
+            publishLock.lock();
+            try {
+                while (publishing && !headDurable()) {
+                    publishable.await();
+                }
+                while (headDurable()) {
+                    batches.add(unpublished.poll());
+                }
+                if (batches.isEmpty()) return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                publishLock.unlock();
+            }
+            for (List<Activity> batch : batches) {
+                for (AppendListener listener : listeners) {
+                    try {
+                        listener.appended(batch);
+                    } catch (RuntimeException e) {
+                        logger.error("Append listener failed", e);
+                    }
+                }
+            }
+            List<Activity> last = batches.get(batches.size() - 1);
+            batches.clear();
+            publishLock.lock();
+            try {
+                publishedOffset = last.get(last.size() - 1).getId() + 1;
+                published.signalAll();
+            } finally {
+                publishLock.unlock();
+            }
+        }
+    }
+
+    private long timestampOf(byte[] data, int offset, int length) {
+        int skip = checkedPayloadOffset(data, offset, length);
+        if (skip < 0) return SparseTimeIndex.NO_TIMESTAMP;
+        try {
+            JsonNode timestamp = objectMapper.readTree(data, offset + skip, length - skip).get("timestamp");
+            return toMillis(timestamp != null ? ActivityQuery.parseTimestamp(timestamp.asText()) : null);
+        } catch (IOException e) {
+            return SparseTimeIndex.NO_TIMESTAMP;
+        }
+    }
+
+    private static long toMillis(Instant timestamp) {
+        return timestamp != null ? timestamp.toEpochMilli() : SparseTimeIndex.NO_TIMESTAMP;
+    }
+
+    private long partitionEnd(long millis) {
+        return partitionMillis > 0 ? (Math.floorDiv(millis, partitionMillis) + 1) * partitionMillis : Long.MAX_VALUE;
+    }
+
+    private boolean isReadable(byte[] data, int offset, int length) {
+        int skip = checkedPayloadOffset(data, offset, length);
+        if (skip < 0) return false;
+        try {
+            objectMapper.readTree(data, offset + skip, length - skip);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Returns where the JSON starts, or -1 on a bad checksum; lines from before checksums are plain JSON. */
+    private static int checkedPayloadOffset(byte[] data, int offset, int length) {
+        if (length > 0 && data[offset] == '{') return 0;
+        if (length < CRC_PREFIX_LENGTH + 1 || data[offset + CRC_PREFIX_LENGTH - 1] != ' ') return -1;
+        try {
+            long expected = Long.parseLong(new String(data, offset, CRC_PREFIX_LENGTH - 1, StandardCharsets.US_ASCII), 16);
+            CRC32 crc = new CRC32();
+            crc.update(data, offset + CRC_PREFIX_LENGTH, length - CRC_PREFIX_LENGTH);
+            return crc.getValue() == expected ? CRC_PREFIX_LENGTH : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private byte[] encode(Activity activity) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(activity);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        byte[] record = new byte[CRC_PREFIX_LENGTH + json.length + 1];
+        System.arraycopy(String.format("%08x ", crc.getValue()).getBytes(StandardCharsets.US_ASCII), 0, record, 0, CRC_PREFIX_LENGTH);
+        System.arraycopy(json, 0, record, CRC_PREFIX_LENGTH, json.length);
+        record[record.length - 1] = '\n';
+        return record;
+    }
+
+    private void roll(long now) throws IOException {
+        active.seal();
+        active = LogSegment.create(dir, nextOffset, indexIntervalBytes);
+        partitionEnd = partitionEnd(now);
+        segments.add(active);
+        dirty = false;
+        logger.info("Rolled activity log to new segment {}", active.path());
+        if (maxSegments > 0 && segments.size() > maxSegments) {
+            retireOldest(segments.size() - maxSegments);
+        }
+    }
+
+    private void force(LogSegment segment) throws IOException {
+        long start = System.nanoTime();
+        segment.flush();
+        fsyncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void flush() {
+        if (!dirty) return;
+        try {
+            sync();
+        } catch (IOException e) {
+            logger.error("Failed to fsync activity log", e);
+            dirty = true;
+        }
+    }
+
+    private void enforceRetention() {
+        writeLock.lock();
+        try {
+            int excess = maxSegments > 0 ? segments.size() - maxSegments : 0;
+            if (retentionHours > 0) {
+                long cutoff = Instant.now().minus(Duration.ofHours(retentionHours)).toEpochMilli();
+                int expired = 0;
+                for (LogSegment segment : segments) {
+                    // Segments without timestamped activities fall back to the file's age.
+                    long newest = segment.maxTimestamp() != SparseTimeIndex.NO_TIMESTAMP
+                            ? segment.maxTimestamp() : Files.getLastModifiedTime(segment.path()).toMillis();
+                    if (segment == active || newest >= cutoff) break;
+                    expired++;
+                }
+                excess = Math.max(excess, expired);
+            }
+            if (excess > 0) {
+                retireOldest(excess);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to enforce activity log retention", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void retireOldest(int count) throws IOException {
+        for (int i = 0; i < count && segments.size() > 1; i++) {
+            LogSegment oldest = segments.remove(0);
+            oldest.delete();
+            logger.info("Retired activity log segment {}", oldest.path());
+        }
+    }
+
+    // The marker is only removed, durably, once every migrated record is forced.
+    private void migrateLegacyFile(Path marker) throws IOException {
+        List<Activity> legacy = objectMapper.readValue(new File(legacyFile), new TypeReference<List<Activity>>() {});
+        appendAll(legacy);
+        sync();
+        Files.delete(marker);
+        SnapshotFile.syncDirectory(dir);
+        logger.info("Migrated {} activities from {} into the log", legacy.size(), legacyFile);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.activity_service.store;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sparse index over one {@link LogSegment}: where each block of roughly
+ * {@code intervalBytes} starts and the range of timestamps in it, which need not be ordered.
+ */
+class SparseTimeIndex {
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    static final String SUFFIX = ".index";
+    private static final String MAGIC = "TIMEINDEX";
+
+    record Block(long firstRecord, long position, long minTimestamp, long maxTimestamp) {
+        boolean overlaps(long from, long to) {
+            if (from == Long.MIN_VALUE && to == Long.MAX_VALUE) return true;
+            return maxTimestamp >= from && minTimestamp < to;
+        }
+    }
+
+    private final long intervalBytes;
+    private long[] firstRecords = new long[16];
+    private long[] positions = new long[16];
+    private long[] minTimestamps = new long[16];
+    private long[] maxTimestamps = new long[16];
+    private int count;
+
+    SparseTimeIndex(long intervalBytes) {
+        this.intervalBytes = Math.max(1, intervalBytes);
+    }
+
+    synchronized void add(long record, long position, long timestamp) {
+        if (count == 0 || position - positions[count - 1] >= intervalBytes) {
+            if (count == positions.length) {
+                int capacity = count * 2;
+                firstRecords = Arrays.copyOf(firstRecords, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+                minTimestamps = Arrays.copyOf(minTimestamps, capacity);
+                maxTimestamps = Arrays.copyOf(maxTimestamps, capacity);
+            }
+            firstRecords[count] = record;
+            positions[count] = position;
+            minTimestamps[count] = Long.MAX_VALUE;
+            maxTimestamps[count] = Long.MIN_VALUE;
+            count++;
+        }
+        if (timestamp != NO_TIMESTAMP) {
+            minTimestamps[count - 1] = Math.min(minTimestamps[count - 1], timestamp);
+            maxTimestamps[count - 1] = Math.max(maxTimestamps[count - 1], timestamp);
+        }
+    }
+
+    synchronized List<Block> blocks() {
+        List<Block> blocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            blocks.add(new Block(firstRecords[i], positions[i], minTimestamps[i], maxTimestamps[i]));
+        }
+        return blocks;
+    }
+
+    synchronized long maxTimestamp() {
+        long max = NO_TIMESTAMP;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, maxTimestamps[i]);
+        }
+        return max;
+    }
+
+    synchronized void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedWriter out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.US_ASCII));
+            out.write(MAGIC + " " + intervalBytes + " " + count + "\n");
+            for (int i = 0; i < count; i++) {
+                out.write(firstRecords[i] + " " + positions[i] + " " + minTimestamps[i] + " " + maxTimestamps[i] + "\n");
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Returns null if the index is missing or unusable. */
+    static SparseTimeIndex read(Path file, long intervalBytes) {
+        if (!Files.exists(file)) return null;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String[] header = in.readLine().split(" ");
+            if (header.length != 3 || !MAGIC.equals(header[0]) || Long.parseLong(header[1]) != intervalBytes) return null;
+            int entries = Integer.parseInt(header[2]);
+            SparseTimeIndex index = new SparseTimeIndex(intervalBytes);
+            for (int i = 0; i < entries; i++) {
+                String[] fields = in.readLine().split(" ");
+                index.add(Long.parseLong(fields[0]), Long.parseLong(fields[1]), NO_TIMESTAMP);
+                index.minTimestamps[i] = Long.parseLong(fields[2]);
+                index.maxTimestamps[i] = Long.parseLong(fields[3]);
+            }
+            return index.count == entries ? index : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.activity_service.stream;
+
+import com.example.activity_service.model.Activity;
+import com.example.activity_service.model.ActivityQuery;
+import com.example.activity_service.store.ActivityStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes activities to Server-Sent Events subscribers: each subscription replays
+ * the log after its offset, then tails new appends through a bounded buffer. A
+ * subscriber that overflows its buffer goes back to replaying from the log.
+ */
+@Component
+public class ActivityStreams {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityStreams.class);
+    private static final String EVENT_NAME = "activity";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ActivityStore activityStore;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Counter sent;
+    private final Counter fallbacks;
+    private ExecutorService workers;
+    private ScheduledExecutorService heartbeats;
+
+    @Value("${activity.stream.workers:4}")
+    private int workerCount;
+
+    @Value("${activity.stream.buffer:1000}")
+    private int bufferCapacity;
+
+    @Value("${activity.stream.batch:500}")
+    private int batchSize;
+
+    @Value("${activity.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${activity.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public ActivityStreams(ActivityStore activityStore, MeterRegistry meterRegistry) {
+        this.activityStore = activityStore;
+        this.sent = Counter.builder("activity.stream.sent").register(meterRegistry);
+        this.fallbacks = Counter.builder("activity.stream.fallbacks").register(meterRegistry);
+        Gauge.builder("activity.stream.subscribers", subscriptions, Set::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        workers = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(threads.name("activity-stream-", 0).factory())
+                : Executors.newFixedThreadPool(workerCount, threads.name("activity-stream-", 0).factory());
+        heartbeats = Executors.newSingleThreadScheduledExecutor(threads.name("activity-stream-heartbeat").factory());
+        if (heartbeatMs > 0) {
+            heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        }
+        activityStore.addAppendListener(this::appended);
+        logger.info("Streaming activities on {} worker(s), {} buffered per subscriber",
+                virtualThreads ? "virtual" : workerCount, bufferCapacity);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        heartbeats.shutdownNow();
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+            subscription.sink.complete();
+        }
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public void subscribe(ActivityQuery query, long afterId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        subscribe(query, afterId, ServletEventSink.start(request, response, timeoutMs));
+    }
+
+    public void subscribe(ActivityQuery query, long afterId, EventSink sink) {
+        Subscription subscription = new Subscription(query, afterId, sink);
+        subscriptions.add(subscription);
+        logger.info("Activity subscriber joined after id {} ({} subscribed)", afterId, subscriptions.size());
+        sink.open(subscription::resume, subscription::close);
+        subscription.schedule();
+    }
+
+    // Runs on the store's publishing thread, so it only hands the batch over.
+    private void appended(List<Activity> activities) {
+        if (subscriptions.isEmpty()) return;
+        List<Event> events = new ArrayList<>(activities.size());
+        for (Activity activity : activities) {
+            events.add(new Event(activity));
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(events);
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeatDue = true;
+            subscription.schedule();
+        }
+    }
+
+    private final class Event {
+        final Activity activity;
+        private String json;
+
+        Event(Activity activity) {
+            this.activity = activity;
+        }
+
+        synchronized String json() throws JsonProcessingException {
+            if (json == null) {
+                json = objectMapper.writeValueAsString(activity);
+            }
+            return json;
+        }
+    }
+
+    private enum Mode {
+        REPLAY,
+        /** Appends are buffered; reading the log up to where the buffer starts. */
+        CATCH_UP,
+        LIVE
+    }
+
+    private final class Subscription {
+        final ActivityQuery query;
+        final EventSink sink;
+        final Queue<List<Event>> buffer = new ConcurrentLinkedQueue<>();
+        final AtomicInteger buffered = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean resumed = new AtomicBoolean();
+        volatile boolean tailing;
+        volatile boolean heartbeatDue;
+        volatile boolean closed;
+        // Only touched by the worker running this subscription.
+        Mode mode = Mode.REPLAY;
+        /** Id of the last activity read, sent or not. */
+        long cursor;
+        List<Event> current;
+        int position;
+        boolean stalled;
+        /** Starts true so the first run sends the headers. */
+        boolean unflushed = true;
+
+        Subscription(ActivityQuery query, long afterId, EventSink sink) {
+            this.query = query;
+            this.cursor = afterId;
+            this.sink = sink;
+        }
+
+        void offer(List<Event> events) {
+            if (!tailing || closed) return;
+            if (buffered.addAndGet(events.size()) > bufferCapacity) {
+                buffered.addAndGet(-events.size());
+                tailing = false;
+                fallbacks.increment();
+            } else {
+                buffer.add(events);
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (closed || !scheduled.compareAndSet(false, true)) return;
+            try {
+                workers.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+
+        void resume() {
+            resumed.set(true);
+            schedule();
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            subscriptions.remove(this);
+            logger.info("Activity subscriber left at id {} ({} subscribed)", cursor, subscriptions.size());
+        }
+
+        private void run() {
+            boolean more = false;
+            try {
+                if (closed) return;
+                stalled = false;
+                int[] written = {0};
+                if (mode != Mode.REPLAY && !tailing) {
+                    logger.debug("Activity subscriber fell behind at id {}, replaying from the log", cursor);
+                    mode = Mode.REPLAY;
+                }
+                switch (mode) {
+                    case REPLAY -> {
+                        discardBuffer();
+                        if (replay(written)) {
+                            tailing = true;
+                            mode = Mode.CATCH_UP;
+                        }
+                        more = true;
+                    }
+                    case CATCH_UP -> {
+                        if (replay(written)) {
+                            mode = Mode.LIVE;
+                        }
+                        more = true;
+                    }
+                    case LIVE -> more = drain(written);
+                }
+                if (heartbeatDue) {
+                    heartbeatDue = false;
+                    // A full sink means the connection is busy anyway.
+                    if (written[0] == 0 && sink.isReady()) {
+                        sink.comment("heartbeat");
+                        unflushed = true;
+                    }
+                }
+                if (unflushed && sink.isReady()) {
+                    sink.flush();
+                    unflushed = false;
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Activity subscriber at id {} disconnected: {}", cursor, e.toString());
+                close();
+                sink.complete();
+            } catch (RuntimeException e) {
+                logger.error("Failed to stream activities after id {}", cursor, e);
+                close();
+                sink.complete();
+            } finally {
+                scheduled.set(false);
+            }
+            // A full sink resumes the subscription when it drains; one that drained during this run could not.
+            if (stalled || (unflushed && !closed)) {
+                if (resumed.getAndSet(false)) {
+                    schedule();
+                }
+            } else if (more || !buffer.isEmpty() || current != null || (mode == Mode.LIVE && !tailing)) {
+                // Appends that arrived while this run was scheduled could not schedule another one.
+                schedule();
+            }
+        }
+
+        private boolean replay(int[] written) throws IOException {
+            int[] read = {0};
+            boolean[] stopped = {false};
+            // Only what is on disk: an id a crash could take back would be reused for another activity.
+            activityStore.scanDurable(cursor, query.getFrom(), query.getTo(), activity -> {
+                if (query.matches(activity)) {
+                    if (!sink.isReady()) {
+                        stalled = true;
+                        stopped[0] = true;
+                        return false;
+                    }
+                    send(new Event(activity));
+                    written[0]++;
+                }
+                cursor = activity.getId();
+                if (++read[0] < batchSize) return true;
+                stopped[0] = true;
+                return false;
+            });
+            return !stopped[0];
+        }
+
+        private boolean drain(int[] written) throws IOException {
+            for (int read = 0; read < batchSize; read++) {
+                if (current == null) {
+                    current = buffer.poll();
+                    position = 0;
+                    if (current == null) return false;
+                }
+                Event event = current.get(position);
+                // Activities read while catching up can be in the buffer as well.
+                if (event.activity.getId() > cursor) {
+                    if (query.matches(event.activity)) {
+                        if (!sink.isReady()) {
+                            stalled = true;
+                            return false;
+                        }
+                        send(event);
+                        written[0]++;
+                    }
+                    cursor = event.activity.getId();
+                }
+                if (++position == current.size()) {
+                    current = null;
+                }
+                buffered.decrementAndGet();
+            }
+            return current != null || !buffer.isEmpty();
+        }
+
+        private void discardBuffer() {
+            if (current != null) {
+                buffered.addAndGet(position - current.size());
+                current = null;
+            }
+            List<Event> batch;
+            while ((batch = buffer.poll()) != null) {
+                buffered.addAndGet(-batch.size());
+            }
+        }
+
+        private void send(Event event) throws IOException {
+            sink.send(String.valueOf(event.activity.getId()), EVENT_NAME, event.json());
+            unflushed = true;
+            sent.increment();
+        }
+    }
+}
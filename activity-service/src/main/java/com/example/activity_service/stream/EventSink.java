@@ -0,0 +1,20 @@
+package com.example.activity_service.stream;
+
+import java.io.IOException;
+
+/** Where a subscription's events are written. No method may block. */
+public interface EventSink {
+
+    void open(Runnable writable, Runnable closed);
+
+    // If not, the writable callback runs once it can.
+    boolean isReady();
+
+    void send(String id, String name, String data) throws IOException;
+
+    void comment(String text) throws IOException;
+
+    void flush() throws IOException;
+
+    void complete();
+}
@@ -0,0 +1,118 @@
+package com.example.activity_service.stream;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/** Server-Sent Events over an async servlet response in non-blocking mode. */
+public class ServletEventSink implements EventSink, WriteListener, AsyncListener {
+    private final AsyncContext async;
+    private final ServletOutputStream out;
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile Runnable writable = () -> {};
+    private volatile Runnable closed = () -> {};
+    // The stream may not be written before the first onWritePossible.
+    private volatile boolean started;
+
+    private ServletEventSink(AsyncContext async, ServletOutputStream out) {
+        this.async = async;
+        this.out = out;
+    }
+
+    public static ServletEventSink start(HttpServletRequest request, HttpServletResponse response, long timeoutMs)
+            throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(timeoutMs);
+        ServletEventSink sink = new ServletEventSink(async, response.getOutputStream());
+        async.addListener(sink);
+        return sink;
+    }
+
+    @Override
+    public void open(Runnable writable, Runnable closed) {
+        this.writable = writable;
+        this.closed = closed;
+        out.setWriteListener(this);
+    }
+
+    @Override
+    public boolean isReady() {
+        return started && !completed.get() && out.isReady();
+    }
+
+    @Override
+    public void send(String id, String name, String data) throws IOException {
+        write("id:" + id + "\nevent:" + name + "\ndata:" + data + "\n\n");
+    }
+
+    @Override
+    public void comment(String text) throws IOException {
+        write(":" + text + "\n\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void complete() {
+        if (completed.compareAndSet(false, true)) {
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // The container already finished the request, e.g. on a timeout.
+            }
+        }
+    }
+
+    private void write(String event) throws IOException {
+        out.write(event.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void onWritePossible() {
+        started = true;
+        writable.run();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        closed.run();
+        complete();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        completed.set(true);
+        closed.run();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        closed.run();
+        complete();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        closed.run();
+        complete();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+}
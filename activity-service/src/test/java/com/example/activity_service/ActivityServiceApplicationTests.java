@@ -3,7 +3,7 @@ package com.example.activity_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "activity.store.dir=target/test-activity-log")
 class ActivityServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,21 @@
+package com.example.activity_service;
+
+import com.example.activity_service.model.Activity;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityServiceRuntimeHintsTests {
+
+	@Test
+	void registersBindingHintsForTypesTheServiceSerializesItself() {
+		RuntimeHints hints = new RuntimeHints();
+		new ActivityServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertThat(RuntimeHintsPredicates.reflection().onType(Activity.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(ActivityServiceRuntimeHints.ROLLUP_ENTRY))).accepts(hints);
+	}
+}
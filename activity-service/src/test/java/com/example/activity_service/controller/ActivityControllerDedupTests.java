@@ -0,0 +1,68 @@
+package com.example.activity_service.controller;
+
+import com.example.activity_service.model.Activity;
+import com.example.activity_service.store.ActivityEventIds;
+import com.example.activity_service.store.SegmentedLogActivityStore;
+import com.example.activity_service.stream.ActivityStreams;
+import com.example.service_commons.admission.IngestAdmission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ActivityControllerDedupTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void storesARetriedBatchOnlyOnceAcrossRestarts() throws Exception {
+		SegmentedLogActivityStore store = newStore();
+		ActivityController controller = newController(store);
+		controller.createActivities(List.of(activity("a", Instant.now()), activity("b", Instant.now()), activity("a", Instant.now())), null);
+		controller.createActivity(activity("b", Instant.now()), null);
+		store.close();
+
+		SegmentedLogActivityStore reopened = newStore();
+		ActivityController restarted = newController(reopened);
+		restarted.createActivities(List.of(activity("a", Instant.now()), activity("c", Instant.now())), null);
+		restarted.createActivity(activity(null, Instant.now()), null);
+		restarted.createActivity(activity(null, Instant.now()), null);
+
+		List<String> stored = new ArrayList<>();
+		reopened.scan(-1, activity -> stored.add(activity.getEventId()));
+		reopened.close();
+		assertThat(stored).containsExactly("a", "b", "c", null, null);
+	}
+
+	private SegmentedLogActivityStore newStore() throws Exception {
+		SegmentedLogActivityStore store = new SegmentedLogActivityStore(dir.toString(),
+				dir.resolve("activities.json").toString(), 1024 * 1024, 0, 0, 0, 60, 4096);
+		store.open();
+		return store;
+	}
+
+	private static ActivityController newController(SegmentedLogActivityStore store) throws Exception {
+		ActivityEventIds recentEventIds = new ActivityEventIds(store, 100, 60);
+		recentEventIds.load();
+		return new ActivityController(store, recentEventIds, mock(ActivityStreams.class),
+				new IngestAdmission(new MockEnvironment(), new SimpleMeterRegistry()));
+	}
+
+	private static Activity activity(String eventId, Instant timestamp) {
+		Activity activity = new Activity();
+		activity.setEventId(eventId);
+		activity.setTimestamp(timestamp.toString());
+		activity.setService("employee-management-service");
+		activity.setType("Employee Created");
+		return activity;
+	}
+}
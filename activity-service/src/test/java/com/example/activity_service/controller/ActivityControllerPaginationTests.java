@@ -0,0 +1,147 @@
+package com.example.activity_service.controller;
+
+import com.example.activity_service.model.Activity;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "activity.store.dir=target/test-activity-log-pagination")
+@AutoConfigureMockMvc
+class ActivityControllerPaginationTests {
+	private static final String NDJSON = "application/x-ndjson";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void pagesThroughMatchingActivitiesUntilAnEmptyPage() throws Exception {
+		String service = "paging-" + System.nanoTime();
+		Instant start = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		store(service, start, "Created", "Updated", "Created", "Updated", "Created");
+
+		List<Integer> pageSizes = new ArrayList<>();
+		List<Activity> seen = new ArrayList<>();
+		Long afterId = null;
+		List<Activity> page;
+		do {
+			MockHttpServletRequestBuilder request = get("/api/activities").param("service", service).param("limit", "2");
+			if (afterId != null) {
+				request.param("afterId", afterId.toString());
+			}
+			page = list(request);
+			pageSizes.add(page.size());
+			seen.addAll(page);
+			if (!page.isEmpty()) {
+				afterId = page.get(page.size() - 1).getId();
+			}
+		} while (!page.isEmpty() && pageSizes.size() < 10);
+
+		assertThat(pageSizes).containsExactly(2, 2, 1, 0);
+		assertThat(seen).extracting(Activity::getType).containsExactly("Created", "Updated", "Created", "Updated", "Created");
+		assertThat(seen).extracting(Activity::getId).isSorted().doesNotHaveDuplicates();
+	}
+
+	@Test
+	void combinesServiceTypeAndTimeFilters() throws Exception {
+		String service = "filters-" + System.nanoTime();
+		Instant start = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		store(service, start, "Created", "Updated", "Created", "Updated", "Created");
+
+		assertThat(list(get("/api/activities").param("service", service).param("type", "Created")))
+				.extracting(Activity::getTimestamp)
+				.containsExactly(at(start, 0), at(start, 2), at(start, 4));
+		assertThat(list(get("/api/activities").param("service", service)
+						.param("from", at(start, 1)).param("to", at(start, 4))))
+				.as("from is inclusive, to is exclusive")
+				.extracting(Activity::getTimestamp)
+				.containsExactly(at(start, 1), at(start, 2), at(start, 3));
+		assertThat(list(get("/api/activities").param("service", service).param("type", "Created")
+						.param("from", at(start, 1)).param("to", at(start, 4))))
+				.extracting(Activity::getTimestamp)
+				.containsExactly(at(start, 2));
+		assertThat(list(get("/api/activities").param("service", service).param("type", "Deleted"))).isEmpty();
+	}
+
+	@Test
+	void streamsOneActivityPerLineAsNdjson() throws Exception {
+		String service = "ndjson-" + System.nanoTime();
+		Instant start = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		store(service, start, "Created", "Updated", "Created", "Updated");
+
+		List<String> lines = stream(get("/api/activities").param("service", service).param("limit", "3"));
+		assertThat(lines).hasSize(3);
+		List<Activity> streamed = new ArrayList<>();
+		for (String line : lines) {
+			streamed.add(objectMapper.readValue(line, Activity.class));
+		}
+		assertThat(streamed).extracting(Activity::getType).containsExactly("Created", "Updated", "Created");
+
+		long lastId = streamed.get(streamed.size() - 1).getId();
+		assertThat(stream(get("/api/activities").param("service", service).param("afterId", Long.toString(lastId))))
+				.singleElement().satisfies(line -> assertThat(line).contains("\"type\":\"Updated\""));
+		assertThat(stream(get("/api/activities").param("service", service).param("afterId", Long.toString(lastId + 1))))
+				.as("nothing after the last one").isEmpty();
+	}
+
+	/** Stores one activity per type, a second apart from {@code start}, in one batch. */
+	private void store(String service, Instant start, String... types) throws Exception {
+		List<Activity> activities = new ArrayList<>();
+		for (int i = 0; i < types.length; i++) {
+			Activity activity = new Activity();
+			activity.setTimestamp(at(start, i));
+			activity.setService(service);
+			activity.setType(types[i]);
+			activities.add(activity);
+		}
+		mockMvc.perform(post("/api/activities/batch").contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(activities)))
+				.andExpect(status().isOk());
+	}
+
+	private List<Activity> list(MockHttpServletRequestBuilder request) throws Exception {
+		String json = mockMvc.perform(request.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readValue(json, new TypeReference<List<Activity>>() {});
+	}
+
+	/** The lines of an NDJSON response, after checking that every one of them ends in a newline. */
+	private List<String> stream(MockHttpServletRequestBuilder request) throws Exception {
+		MvcResult started = mockMvc.perform(request.accept(NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(NDJSON))
+				.andReturn().getResponse().getContentAsString();
+		if (body.isEmpty()) return List.of();
+		assertThat(body).endsWith("\n").doesNotContain("\n\n");
+		return List.of(body.split("\n"));
+	}
+
+	private static String at(Instant start, int seconds) {
+		return start.plusSeconds(seconds).toString();
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.activity_service.controller;
+
+import com.example.activity_service.model.Activity;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "activity.store.dir=target/test-activity-log-wire-format")
+@AutoConfigureMockMvc
+class ActivityControllerWireFormatTests {
+	private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void acceptsBinaryBatchesAndServesThemInEveryFormat() throws Exception {
+		ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+		ObjectMapper smile = new ObjectMapper(new SmileFactory());
+		String marker = "wire-" + System.nanoTime();
+
+		mockMvc.perform(post("/api/activities/batch").contentType(MediaType.APPLICATION_CBOR)
+						.content(cbor.writeValueAsBytes(List.of(activity(marker, "cbor")))))
+				.andExpect(status().isOk());
+		mockMvc.perform(post("/api/activities/batch").contentType(SMILE)
+						.content(smile.writeValueAsBytes(List.of(activity(marker, "smile")))))
+				.andExpect(status().isOk());
+
+		byte[] body = mockMvc.perform(get("/api/activities").param("type", marker).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		List<Activity> stored = cbor.readValue(body, new TypeReference<List<Activity>>() {});
+		assertThat(stored).extracting(activity -> activity.getDetails().get("encoding").asText())
+				.containsExactly("cbor", "smile");
+
+		String json = mockMvc.perform(get("/api/activities").param("type", marker).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(json).contains("\"encoding\":\"cbor\"", "\"encoding\":\"smile\"");
+	}
+
+	private static Activity activity(String type, String encoding) {
+		ObjectNode details = JsonNodeFactory.instance.objectNode();
+		details.put("encoding", encoding);
+		details.put("employeeId", 42);
+		Activity activity = new Activity();
+		activity.setTimestamp("2024-01-01T00:00:00Z");
+		activity.setService("test");
+		activity.setType(type);
+		activity.setDetails(details);
+		return activity;
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.activity_service.rollup;
+
+import com.example.activity_service.model.Activity;
+import com.example.activity_service.model.ActivityCounts;
+import com.example.activity_service.model.ActivitySeriesPoint;
+import com.example.activity_service.model.ActivityTypeCount;
+import com.example.activity_service.store.SegmentedLogActivityStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityRollupsTests {
+	private static final Instant T0 = Instant.parse("2025-07-10T12:00:00Z");
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void countsAppendedActivitiesPerMinuteServiceAndType() throws Exception {
+		SegmentedLogActivityStore store = newStore();
+		ActivityRollups rollups = newRollups(store);
+		store.appendAll(List.of(
+				activity("employee-management-service", "Employee Created", T0.plusSeconds(5)),
+				activity("employee-management-service", "Employee Created", T0.plusSeconds(70)),
+				activity("employee-management-service", "Employee Deleted", T0.plusSeconds(75)),
+				activity("notification-service", "Notification Received", T0.plusSeconds(130))));
+		store.awaitPublished();
+
+		ActivityCounts counts = rollups.counts(T0, T0.plusSeconds(180), null, null);
+		assertThat(counts.count()).isEqualTo(4);
+		assertThat(counts.ratePerSecond()).isEqualTo(4 / 180.0);
+		assertThat(counts.byService()).isEqualTo(Map.of("employee-management-service", 3L, "notification-service", 1L));
+		assertThat(rollups.counts(T0.plusSeconds(60), T0.plusSeconds(90), "employee-management-service", null).count())
+				.as("window widened to the whole minute").isEqualTo(2);
+
+		List<ActivitySeriesPoint> series = rollups.series(T0, T0.plusSeconds(240), null, null, 2);
+		assertThat(series).extracting(ActivitySeriesPoint::count).containsExactly(3L, 1L);
+
+		List<ActivityTypeCount> top = rollups.topTypes(T0, T0.plusSeconds(180), null, 2);
+		assertThat(top).extracting(ActivityTypeCount::type).containsExactly("Employee Created", "Employee Deleted");
+		assertThat(top.get(0).share()).isEqualTo(0.5);
+		rollups.stop();
+		store.close();
+	}
+
+	@Test
+	void restartLoadsCheckpointAndReplaysOnlyTheLogAfterIt() throws Exception {
+		SegmentedLogActivityStore store = newStore();
+		ActivityRollups rollups = newRollups(store);
+		store.append(activity("a", "Created", T0));
+		store.awaitPublished();
+		rollups.checkpoint();
+		// Appended after the last checkpoint: only the log has it when the service stops.
+		store.append(activity("a", "Created", T0.plusSeconds(1)));
+		store.close();
+
+		SegmentedLogActivityStore reopened = newStore();
+		ActivityRollups restored = newRollups(reopened);
+		reopened.append(activity("a", "Created", T0.plusSeconds(2)));
+		reopened.awaitPublished();
+
+		assertThat(restored.counts(T0, T0.plusSeconds(60), "a", "Created").count()).isEqualTo(3);
+		restored.stop();
+		reopened.close();
+	}
+
+	private SegmentedLogActivityStore newStore() throws Exception {
+		SegmentedLogActivityStore store = new SegmentedLogActivityStore(dir.toString(), dir.resolve("none.json").toString(),
+				64 * 1024, 0, 0, 0, 60, 4096);
+		store.open();
+		return store;
+	}
+
+	private ActivityRollups newRollups(SegmentedLogActivityStore store) throws Exception {
+		ActivityRollups rollups = new ActivityRollups(store, dir.toString(), 0, 0);
+		rollups.start();
+		return rollups;
+	}
+
+	private static Activity activity(String service, String type, Instant timestamp) {
+		Activity activity = new Activity();
+		activity.setService(service);
+		activity.setType(type);
+		activity.setTimestamp(timestamp.toString());
+		return activity;
+	}
+}
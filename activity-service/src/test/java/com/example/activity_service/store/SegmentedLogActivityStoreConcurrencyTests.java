@@ -0,0 +1,69 @@
+package com.example.activity_service.store;
+
+import com.example.activity_service.model.Activity;
+import com.example.service_commons.testing.ConcurrentAppends;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedLogActivityStoreConcurrencyTests {
+	private static final int THREADS = 16;
+	private static final int APPENDS_PER_THREAD = 500;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void concurrentAppendsGetDenseOffsetsAndKeepEachWritersOrderAfterARestart() throws Exception {
+		// Small segments force rolls while appends and scans are in flight.
+		SegmentedLogActivityStore store = newStore();
+		Set<Long> ids = ConcurrentAppends.run(THREADS, APPENDS_PER_THREAD, (thread, i) -> {
+			Activity activity = new Activity();
+			activity.setService("service-" + thread);
+			activity.setType(Integer.toString(i));
+			return store.append(activity).getId();
+		}, () -> {
+			for (int i = 0; i < 20; i++) {
+				long[] previous = {-1};
+				store.scan(-1, activity -> {
+					assertThat(activity.getId()).isGreaterThan(previous[0]);
+					previous[0] = activity.getId();
+					return true;
+				});
+			}
+		});
+		store.close();
+
+		int total = THREADS * APPENDS_PER_THREAD;
+		assertThat(ids).as("offsets are handed out without gaps")
+				.containsExactlyInAnyOrderElementsOf(LongStream.range(0, total).boxed().toList());
+		SegmentedLogActivityStore reopened = newStore();
+		List<Activity> stored = new ArrayList<>();
+		reopened.scan(-1, stored::add);
+		assertThat(stored).extracting(Activity::getId).containsExactlyElementsOf(LongStream.range(0, total).boxed().toList());
+		List<String> inOrder = IntStream.range(0, APPENDS_PER_THREAD).mapToObj(Integer::toString).toList();
+		for (int t = 0; t < THREADS; t++) {
+			String service = "service-" + t;
+			assertThat(stored).filteredOn(activity -> activity.getService().equals(service))
+					.as("%s's activities in the order it appended them", service)
+					.extracting(Activity::getType).containsExactlyElementsOf(inOrder);
+		}
+		assertThat(reopened.append(new Activity()).getId()).isEqualTo(total);
+		reopened.close();
+	}
+
+	private SegmentedLogActivityStore newStore() throws Exception {
+		SegmentedLogActivityStore store = new SegmentedLogActivityStore(dir.resolve("log").toString(),
+				dir.resolve("activities.json").toString(), 16 * 1024, 50, 0, 0, 60, 4096);
+		store.open();
+		return store;
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.activity_service.store;
+
+import com.example.activity_service.model.Activity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedLogActivityStorePublishTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void listenersOnlySeeBatchesOnceTheyAreOnDisk() throws Exception {
+		// The flusher never runs within the test, so only sync() makes appends durable.
+		SegmentedLogActivityStore store = newStore(60_000);
+		List<Long> ids = new CopyOnWriteArrayList<>();
+		store.addAppendListener(batch -> batch.forEach(activity -> ids.add(activity.getId())));
+
+		store.appendAll(List.of(activity(), activity()));
+		Thread.sleep(100);
+		assertThat(ids).as("not yet fsynced").isEmpty();
+
+		store.awaitPublished();
+		assertThat(ids).containsExactly(0L, 1L);
+		store.close();
+	}
+
+	@Test
+	void slowListenerDoesNotHoldUpAppends() throws Exception {
+		SegmentedLogActivityStore store = newStore(0);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Long> ids = new CopyOnWriteArrayList<>();
+		store.addAppendListener(batch -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			batch.forEach(activity -> ids.add(activity.getId()));
+		});
+
+		CompletableFuture<Void> appends = CompletableFuture.runAsync(() -> {
+			for (int i = 0; i < 20; i++) {
+				store.appendAll(List.of(activity(), activity()));
+			}
+		});
+		appends.get(5, TimeUnit.SECONDS);
+		assertThat(ids).as("the listener is still blocked on the first batch").isEmpty();
+
+		release.countDown();
+		store.awaitPublished();
+		assertThat(ids).as("every batch, once, in offset order").containsExactlyElementsOf(LongStream.range(0, 40).boxed().toList());
+		store.close();
+	}
+
+	private SegmentedLogActivityStore newStore(long fsyncIntervalMs) throws Exception {
+		SegmentedLogActivityStore store = new SegmentedLogActivityStore(dir.toString(), dir.resolve("none.json").toString(),
+				1024 * 1024, fsyncIntervalMs, 0, 0, 60, 4096);
+		store.open();
+		return store;
+	}
+
+	private static Activity activity() {
+		Activity activity = new Activity();
+		activity.setTimestamp(Instant.now().toString());
+		activity.setService("employee-management-service");
+		activity.setType("Employee Created");
+		return activity;
+	}
+}
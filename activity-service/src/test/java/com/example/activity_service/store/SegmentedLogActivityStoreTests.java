@@ -0,0 +1,235 @@
+package com.example.activity_service.store;
+
+import com.example.activity_service.model.Activity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedLogActivityStoreTests {
+	/** Room for two records per segment. */
+	private static final long SMALL_SEGMENT_BYTES = 300;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void tornTailIsTruncatedOnRestartAndTheNextAppendTakesItsOffset() throws Exception {
+		SegmentedLogActivityStore store = newStore(1024 * 1024, 0, 0);
+		store.appendAll(List.of(activity("a0"), activity("a1"), activity("a2")));
+		store.close();
+		Path segment = segments().get(0);
+		long intact = Files.size(segment);
+
+		// A crash mid-append: one record with a bad checksum, then half of another.
+		Files.write(segment, "00000000 {\"type\":\"corrupt\"}\n12345678 {\"type\":\"to".getBytes(StandardCharsets.US_ASCII),
+				StandardOpenOption.APPEND);
+
+		SegmentedLogActivityStore recovered = newStore(1024 * 1024, 0, 0);
+		assertThat(Files.size(segment)).isEqualTo(intact);
+		assertThat(types(recovered)).containsExactly("a0", "a1", "a2");
+		assertThat(recovered.append(activity("a3")).getId()).isEqualTo(3);
+		recovered.close();
+
+		SegmentedLogActivityStore reopened = newStore(1024 * 1024, 0, 0);
+		assertThat(ids(reopened, -1)).containsExactly(0L, 1L, 2L, 3L);
+		reopened.close();
+	}
+
+	@Test
+	void durableScanStopsBeforeActivitiesThatAreNotYetOnDisk() throws Exception {
+		SegmentedLogActivityStore store = newStore(SMALL_SEGMENT_BYTES, 60_000, 0, 0);
+		store.append(activity("a0"));
+		store.sync();
+		store.appendAll(List.of(activity("a1"), activity("a2"), activity("a3")));
+
+		assertThat(ids(store, -1)).containsExactly(0L, 1L, 2L, 3L);
+		List<Long> durable = new ArrayList<>();
+		store.scanDurable(-1, null, null, activity -> durable.add(activity.getId()));
+		assertThat(durable).containsExactly(0L);
+
+		store.sync();
+		durable.clear();
+		store.scanDurable(-1, null, null, activity -> durable.add(activity.getId()));
+		assertThat(durable).containsExactly(0L, 1L, 2L, 3L);
+		store.close();
+	}
+
+	@Test
+	void readsRecordsThatStraddleOrOutgrowTheReadBuffer() throws Exception {
+		SegmentedLogActivityStore store = newStore(1024 * 1024, 0, 0);
+		List<String> types = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			types.add("a" + i + "-".repeat(i * 7 % 500));
+		}
+		types.add(200, "b".repeat(200_000));
+		store.appendAll(types.stream().map(SegmentedLogActivityStoreTests::activity).toList());
+		store.close();
+
+		SegmentedLogActivityStore reopened = newStore(1024 * 1024, 0, 0);
+		assertThat(types(reopened)).containsExactlyElementsOf(types);
+		assertThat(ids(reopened, 350)).containsExactlyElementsOf(LongStream.range(351, 401).boxed().toList());
+		reopened.close();
+	}
+
+	@Test
+	void rollsSegmentsBySizeAndReadsAcrossThemAfterARestart() throws Exception {
+		SegmentedLogActivityStore store = newStore(SMALL_SEGMENT_BYTES, 0, 0);
+		for (int i = 0; i < 10; i++) {
+			store.append(activity("a" + i));
+		}
+		store.close();
+
+		List<Path> segments = segments();
+		assertThat(segments).hasSizeGreaterThan(2);
+		assertThat(segments.get(0).getFileName().toString()).isEqualTo("00000000000000000000.log");
+		for (Path segment : segments) {
+			assertThat(Files.size(segment)).isLessThanOrEqualTo(SMALL_SEGMENT_BYTES);
+		}
+
+		SegmentedLogActivityStore reopened = newStore(SMALL_SEGMENT_BYTES, 0, 0);
+		assertThat(ids(reopened, -1)).containsExactlyElementsOf(LongStream.range(0, 10).boxed().toList());
+		assertThat(ids(reopened, 6)).containsExactly(7L, 8L, 9L);
+		assertThat(reopened.append(activity("a10")).getId()).isEqualTo(10);
+		reopened.close();
+	}
+
+	@Test
+	void retiresTheOldestSegmentsBeyondTheMaximumCount() throws Exception {
+		SegmentedLogActivityStore store = newStore(SMALL_SEGMENT_BYTES, 2, 0);
+		for (int i = 0; i < 10; i++) {
+			store.append(activity("a" + i));
+		}
+
+		assertThat(segments()).hasSize(2);
+		assertThat(indexFiles()).as("indexes go with their segments").hasSize(1);
+		List<Long> ids = ids(store, -1);
+		assertThat(ids).isNotEmpty().endsWith(9L);
+		assertThat(ids).containsExactlyElementsOf(LongStream.rangeClosed(ids.get(0), 9).boxed().toList());
+		store.close();
+	}
+
+	@Test
+	void retiresSegmentsWhoseNewestActivityIsPastTheRetention() throws Exception {
+		Instant old = Instant.now().minus(Duration.ofHours(3));
+		SegmentedLogActivityStore store = newStore(SMALL_SEGMENT_BYTES, 0, 0);
+		for (int i = 0; i < 6; i++) {
+			store.append(activity("old" + i, old.plusSeconds(i)));
+		}
+		store.append(activity("new0", Instant.now()));
+		store.append(activity("new1", Instant.now()));
+		store.close();
+		assertThat(segments()).hasSizeGreaterThan(2);
+
+		SegmentedLogActivityStore retained = newStore(SMALL_SEGMENT_BYTES, 0, 1);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (types(retained).stream().anyMatch(type -> type.startsWith("old")) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(types(retained)).containsExactly("new0", "new1");
+		assertThat(retained.append(activity("new2")).getId()).isEqualTo(8);
+		retained.close();
+	}
+
+	@Test
+	void migratesTheLegacyFileOnce() throws Exception {
+		writeLegacyFile("l0", "l1", "l2");
+
+		SegmentedLogActivityStore store = newStore(SMALL_SEGMENT_BYTES, 0, 0);
+		assertThat(types(store)).containsExactly("l0", "l1", "l2");
+		store.append(activity("a3"));
+		store.close();
+		assertThat(dir.resolve("log").resolve(SegmentedLogActivityStore.MIGRATION_MARKER)).doesNotExist();
+
+		SegmentedLogActivityStore reopened = newStore(SMALL_SEGMENT_BYTES, 0, 0);
+		assertThat(types(reopened)).as("the legacy file is still there but not imported again")
+				.containsExactly("l0", "l1", "l2", "a3");
+		reopened.close();
+	}
+
+	@Test
+	void interruptedMigrationIsDiscardedAndRunAgain() throws Exception {
+		writeLegacyFile("l0", "l1", "l2");
+		// What a crash part way through the import leaves: the marker and some of the records.
+		Path log = Files.createDirectories(dir.resolve("log"));
+		Files.write(log.resolve(SegmentedLogActivityStore.MIGRATION_MARKER), new byte[0]);
+		Files.write(log.resolve("00000000000000000000.log"),
+				(new ObjectMapper().writeValueAsString(activity("l0")) + "\n").getBytes(StandardCharsets.UTF_8));
+
+		SegmentedLogActivityStore store = newStore(SMALL_SEGMENT_BYTES, 0, 0);
+		assertThat(types(store)).containsExactly("l0", "l1", "l2");
+		assertThat(ids(store, -1)).containsExactly(0L, 1L, 2L);
+		assertThat(log.resolve(SegmentedLogActivityStore.MIGRATION_MARKER)).doesNotExist();
+		store.close();
+	}
+
+	private SegmentedLogActivityStore newStore(long segmentBytes, int maxSegments, long retentionHours) throws Exception {
+		return newStore(segmentBytes, 0, maxSegments, retentionHours);
+	}
+
+	private SegmentedLogActivityStore newStore(long segmentBytes, long fsyncIntervalMs, int maxSegments, long retentionHours)
+			throws Exception {
+		SegmentedLogActivityStore store = new SegmentedLogActivityStore(dir.resolve("log").toString(),
+				dir.resolve("activities.json").toString(), segmentBytes, fsyncIntervalMs, maxSegments, retentionHours, 0, 4096);
+		store.open();
+		return store;
+	}
+
+	private void writeLegacyFile(String... types) throws Exception {
+		List<Activity> activities = new ArrayList<>();
+		for (String type : types) {
+			activities.add(activity(type));
+		}
+		new ObjectMapper().writeValue(dir.resolve("activities.json").toFile(), activities);
+	}
+
+	private List<Path> segments() throws Exception {
+		return files(LogSegment.SUFFIX);
+	}
+
+	private List<Path> indexFiles() throws Exception {
+		return files(SparseTimeIndex.SUFFIX);
+	}
+
+	private List<Path> files(String suffix) throws Exception {
+		try (Stream<Path> files = Files.list(dir.resolve("log"))) {
+			return files.filter(path -> path.toString().endsWith(suffix)).sorted().toList();
+		}
+	}
+
+	private static List<String> types(ActivityStore store) throws Exception {
+		List<String> types = new ArrayList<>();
+		store.scan(-1, activity -> types.add(activity.getType()));
+		return types;
+	}
+
+	private static List<Long> ids(ActivityStore store, long afterId) throws Exception {
+		List<Long> ids = new ArrayList<>();
+		store.scan(afterId, activity -> ids.add(activity.getId()));
+		return ids;
+	}
+
+	private static Activity activity(String type) {
+		return activity(type, Instant.now());
+	}
+
+	private static Activity activity(String type, Instant timestamp) {
+		Activity activity = new Activity();
+		activity.setTimestamp(timestamp.toString());
+		activity.setService("store-test");
+		activity.setType(type);
+		return activity;
+	}
+}
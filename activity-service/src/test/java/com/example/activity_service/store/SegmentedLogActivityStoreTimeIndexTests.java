@@ -0,0 +1,130 @@
+package com.example.activity_service.store;
+
+import com.example.activity_service.model.Activity;
+import com.example.activity_service.model.ActivityQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentedLogActivityStoreTimeIndexTests {
+	private static final Instant T0 = Instant.parse("2025-07-10T00:00:00Z");
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void rangeScanReadsOnlySegmentsThatCanMatch() throws Exception {
+		SegmentedLogActivityStore store = newStore(0);
+		for (int i = 0; i < 200; i++) {
+			store.append(activity(T0.plus(i, ChronoUnit.MINUTES)));
+		}
+		store.close();
+		// Garble the first segment: only a scan that actually reads it can notice.
+		Path first = segmentFiles().get(0);
+		byte[] bytes = Files.readAllBytes(first);
+		bytes[12] = (byte) (bytes[12] == 'x' ? 'y' : 'x');
+		Files.write(first, bytes);
+
+		SegmentedLogActivityStore reopened = newStore(0);
+		assertThat(scan(reopened, -1, T0.plus(150, ChronoUnit.MINUTES), T0.plus(155, ChronoUnit.MINUTES)))
+				.containsExactly(150L, 151L, 152L, 153L, 154L);
+		assertThatThrownBy(() -> reopened.scan(-1, activity -> true)).isInstanceOf(IOException.class);
+		reopened.close();
+	}
+
+	@Test
+	void rebuildsMissingIndexesAndHandlesUnorderedTimestamps() throws Exception {
+		SegmentedLogActivityStore store = newStore(0);
+		for (int i = 0; i < 200; i++) {
+			// Alternate between two time ranges so blocks and segments overlap.
+			store.append(activity(T0.plus(i % 2 == 0 ? i : 1000 + i, ChronoUnit.MINUTES)));
+		}
+		store.close();
+		try (Stream<Path> files = Files.list(dir)) {
+			for (Path index : files.filter(path -> path.toString().endsWith(".index")).toList()) {
+				Files.delete(index);
+			}
+		}
+
+		SegmentedLogActivityStore reopened = newStore(0);
+		List<Long> expected = new ArrayList<>();
+		for (long id = 51; id < 200; id += 2) {
+			if (id >= 121 && id < 171) expected.add(id);
+		}
+		assertThat(scan(reopened, 50, T0.plus(1120, ChronoUnit.MINUTES), T0.plus(1170, ChronoUnit.MINUTES)))
+				.containsExactlyElementsOf(expected);
+		reopened.close();
+	}
+
+	@Test
+	void retentionDeletesWholePartitionsByActivityTime() throws Exception {
+		SegmentedLogActivityStore store = newStore(1);
+		Instant now = Instant.now();
+		for (int i = 0; i < 100; i++) {
+			store.append(activity(now.minus(3, ChronoUnit.HOURS)));
+		}
+		for (int i = 0; i < 20; i++) {
+			store.append(activity(now));
+		}
+		store.close();
+		int before = segmentFiles().size();
+
+		SegmentedLogActivityStore reopened = newStore(1);
+		for (int i = 0; i < 100 && segmentFiles().size() == before; i++) {
+			Thread.sleep(50);
+		}
+		List<Path> remaining = segmentFiles();
+		assertThat(remaining).hasSizeLessThan(before);
+		String firstRemaining = remaining.get(0).getFileName().toString();
+		List<Long> ids = scan(reopened, -1, null, null);
+		assertThat(ids.get(0)).as("retired whole segments only").isEqualTo(Long.parseLong(firstRemaining.replace(".log", "")));
+		assertThat(ids).contains(119L).doesNotContain(0L);
+		reopened.close();
+	}
+
+	private static List<Long> scan(ActivityStore store, long afterId, Instant from, Instant to) throws IOException {
+		ActivityQuery query = new ActivityQuery();
+		query.setFrom(from);
+		query.setTo(to);
+		List<Long> ids = new ArrayList<>();
+		store.scan(afterId, from, to, activity -> {
+			if (query.matches(activity)) ids.add(activity.getId());
+			return true;
+		});
+		return ids;
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(LogSegment::isSegmentFile).sorted().toList();
+		}
+	}
+
+	private SegmentedLogActivityStore newStore(long retentionHours) throws Exception {
+		// ~10 records per segment and ~2 per index block
+		SegmentedLogActivityStore store = new SegmentedLogActivityStore(dir.toString(), dir.resolve("none.json").toString(),
+				1024, 0, 0, retentionHours, 60, 256);
+		store.open();
+		return store;
+	}
+
+	private static Activity activity(Instant timestamp) {
+		Activity activity = new Activity();
+		activity.setTimestamp(timestamp.toString());
+		activity.setService("employee-management-service");
+		activity.setType(new String(new byte[40], StandardCharsets.US_ASCII).replace('\0', 'x'));
+		return activity;
+	}
+}
@@ -0,0 +1,274 @@
+package com.example.activity_service.stream;
+
+import com.example.activity_service.model.Activity;
+import com.example.activity_service.model.ActivityQuery;
+import com.example.activity_service.store.SegmentedLogActivityStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityStreamsTests {
+
+	@TempDir
+	Path dir;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private SegmentedLogActivityStore store;
+	private ActivityStreams streams;
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (streams != null) {
+			streams.stop();
+			store.close();
+		}
+	}
+
+	@Test
+	void replaysTheLogAfterTheOffsetThenTailsNewActivities() throws Exception {
+		open(1000);
+		for (int i = 0; i < 6; i++) {
+			store.append(activity(i % 2 == 0 ? "Employee Created" : "Employee Deleted"));
+		}
+		ActivityQuery query = new ActivityQuery();
+		query.setType("Employee Created");
+		RecordingSink sink = new RecordingSink();
+		streams.subscribe(query, 0, sink);
+
+		awaitReceived(sink, 2);
+		store.appendAll(List.of(activity("Employee Created"), activity("Employee Deleted"), activity("Employee Created")));
+
+		awaitReceived(sink, 4);
+		assertThat(sink.ids).containsExactly(2L, 4L, 6L, 8L);
+	}
+
+	@Test
+	void subscriberThatFallsBehindCatchesUpFromTheLogWithoutGapsOrDuplicates() throws Exception {
+		open(2);
+		RecordingSink sink = new RecordingSink();
+		streams.subscribe(new ActivityQuery(), -1, sink);
+		store.append(activity("Employee Created"));
+		awaitReceived(sink, 1);
+		// Let the subscription settle into tailing before its client stalls.
+		Thread.sleep(200);
+
+		sink.stall();
+		store.append(activity("Employee Created"));
+		for (int i = 0; i < 50; i++) {
+			store.append(activity("Employee Updated"));
+		}
+		sink.release();
+
+		awaitReceived(sink, 52);
+		assertThat(sink.ids).containsExactlyElementsOf(LongStream.range(0, 52).boxed().toList());
+		assertThat(meterRegistry.get("activity.stream.fallbacks").counter().count()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	void replayOnlySendsActivitiesThatAreOnDisk() throws Exception {
+		open(1000, 2, 60_000);
+		store.append(activity("Employee Created"));
+		store.sync();
+		store.appendAll(List.of(activity("Employee Updated"), activity("Employee Updated")));
+		RecordingSink sink = new RecordingSink();
+		streams.subscribe(new ActivityQuery(), -1, sink);
+
+		awaitReceived(sink, 1);
+		Thread.sleep(300);
+		assertThat(sink.ids).as("ids a crash could still take back").containsExactly(0L);
+
+		store.sync();
+		awaitReceived(sink, 3);
+		assertThat(sink.ids).containsExactly(0L, 1L, 2L);
+	}
+
+	@Test
+	void clientThatStopsReadingDoesNotHoldUpTheOthers() throws Exception {
+		open(1000, 1);
+		RecordingSink stuck = new RecordingSink();
+		stuck.stall();
+		streams.subscribe(new ActivityQuery(), -1, stuck);
+		RecordingSink reading = new RecordingSink();
+		streams.subscribe(new ActivityQuery(), -1, reading);
+
+		for (int i = 0; i < 10; i++) {
+			store.append(activity("Employee Updated"));
+		}
+		awaitReceived(reading, 10);
+		assertThat(stuck.ids).isEmpty();
+
+		stuck.release();
+		awaitReceived(stuck, 10);
+		assertThat(stuck.ids).containsExactlyElementsOf(reading.ids);
+	}
+
+	@Test
+	void ingestLatencyStaysFlatAsSubscribersAreAdded() throws Exception {
+		timeAppends("warm-up", 0, 100);
+		Timings alone = timeAppends("alone", 0, 100);
+		Timings crowded = timeAppends("crowded", 1000, 100);
+		Timings crowdedSmallBatches = timeAppends("crowded-small", 1000, 1);
+
+		assertThat(crowded.appendMillis())
+				.as("median ms to append 100 activities, %.3f with no subscribers", alone.appendMillis())
+				.isLessThan(alone.appendMillis() * 3 + 1);
+		assertThat(crowded.handOffMillis())
+				.as("median ms to hand 100 activities to 1000 subscribers, %.3f for 1", crowdedSmallBatches.handOffMillis())
+				.isLessThan(crowdedSmallBatches.handOffMillis() * 3 + 0.5);
+	}
+
+	/** Median times to append a batch, and for the store's publishing thread to hand it to the subscribers. */
+	private record Timings(double appendMillis, double handOffMillis) {
+	}
+
+	/**
+	 * Appends batches to a log with {@code subscribers} tailing it, while the only worker
+	 * is kept busy so none of the filtering and sending can run. The flusher never runs,
+	 * so the appends are timed without their fsync.
+	 */
+	private Timings timeAppends(String name, int subscribers, int batchSize) throws Exception {
+		AtomicLong handOffStart = new AtomicLong();
+		List<Long> handOffs = new CopyOnWriteArrayList<>();
+		store = new SegmentedLogActivityStore(dir.resolve(name).toString(), dir.resolve("activities.json").toString(),
+				1024 * 1024, 60_000, 0, 0, 60, 4096);
+		store.open();
+		store.addAppendListener(batch -> handOffStart.set(System.nanoTime()));
+		streams = new ActivityStreams(store, meterRegistry);
+		ReflectionTestUtils.setField(streams, "workerCount", 1);
+		ReflectionTestUtils.setField(streams, "bufferCapacity", 1_000_000);
+		ReflectionTestUtils.setField(streams, "batchSize", 3);
+		streams.start();
+		store.addAppendListener(batch -> handOffs.add(System.nanoTime() - handOffStart.get()));
+
+		for (int i = 0; i < subscribers; i++) {
+			streams.subscribe(new ActivityQuery(), -1, new RecordingSink());
+		}
+		Thread.sleep(500);
+		CountDownLatch busy = new CountDownLatch(1);
+		((ExecutorService) ReflectionTestUtils.getField(streams, "workers")).execute(() -> {
+			try {
+				busy.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		store.append(activity("Employee Created"));
+		store.awaitPublished();
+		handOffs.clear();
+
+		long[] appends = new long[20];
+		for (int i = 0; i < appends.length; i++) {
+			List<Activity> batch = new ArrayList<>();
+			for (int j = 0; j < batchSize; j++) {
+				batch.add(activity("Employee Updated"));
+			}
+			long start = System.nanoTime();
+			store.appendAll(batch);
+			appends[i] = System.nanoTime() - start;
+			store.awaitPublished();
+		}
+		busy.countDown();
+		streams.stop();
+		store.close();
+		streams = null;
+		return new Timings(medianMillis(Arrays.stream(appends)), medianMillis(handOffs.stream().mapToLong(Long::longValue)));
+	}
+
+	private static double medianMillis(LongStream nanos) {
+		long[] sorted = nanos.sorted().toArray();
+		return sorted[sorted.length / 2] / 1e6;
+	}
+
+	private void open(int buffer) throws Exception {
+		open(buffer, 2);
+	}
+
+	private void open(int buffer, int workers) throws Exception {
+		open(buffer, workers, 0);
+	}
+
+	private void open(int buffer, int workers, long fsyncIntervalMs) throws Exception {
+		store = new SegmentedLogActivityStore(dir.toString(), dir.resolve("activities.json").toString(),
+				1024 * 1024, fsyncIntervalMs, 0, 0, 60, 4096);
+		store.open();
+		streams = new ActivityStreams(store, meterRegistry);
+		ReflectionTestUtils.setField(streams, "workerCount", workers);
+		ReflectionTestUtils.setField(streams, "bufferCapacity", buffer);
+		ReflectionTestUtils.setField(streams, "batchSize", 3);
+		streams.start();
+	}
+
+	private static void awaitReceived(RecordingSink sink, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (sink.ids.size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(sink.ids).hasSizeGreaterThanOrEqualTo(count);
+	}
+
+	private static Activity activity(String type) {
+		Activity activity = new Activity();
+		activity.setTimestamp(Instant.now().toString());
+		activity.setService("employee-management-service");
+		activity.setType(type);
+		return activity;
+	}
+
+	/** Records the ids of the events sent; can report itself full, like a client that stopped reading. */
+	private static class RecordingSink implements EventSink {
+		final List<Long> ids = new CopyOnWriteArrayList<>();
+		private volatile boolean full;
+		private volatile Runnable writable;
+
+		void stall() {
+			full = true;
+		}
+
+		void release() {
+			full = false;
+			writable.run();
+		}
+
+		@Override
+		public void open(Runnable writable, Runnable closed) {
+			this.writable = writable;
+		}
+
+		@Override
+		public boolean isReady() {
+			return !full;
+		}
+
+		@Override
+		public void send(String id, String name, String data) {
+			ids.add(Long.parseLong(id));
+		}
+
+		@Override
+		public void comment(String text) {
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void complete() {
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.benchmarks;
+
+import com.example.activity_service.controller.ActivityController;
+import com.example.activity_service.model.Activity;
+import com.example.activity_service.store.ActivityEventIds;
+import com.example.activity_service.store.SegmentedLogActivityStore;
+import com.example.activity_service.stream.ActivityStreams;
+import com.example.service_commons.admission.IngestAdmission;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The activity-service append path: {@link ActivityController} writing single
+ * activities and batches of 100 to the segmented log with its default group fsync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ActivityAppendBenchmark {
+    private static final int BATCH_SIZE = 100;
+    private static final String CALLER = "notification-service";
+
+    private Path dir;
+    private SegmentedLogActivityStore store;
+    private ActivityController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("activity-bench");
+        store = new SegmentedLogActivityStore(dir.resolve("log").toString(), dir.resolve("activities.json").toString(),
+                64L * 1024 * 1024, 200, 0, 0, 60, 4096);
+        store.open();
+        // Not started: no subscribers, so nothing listens to appends. No rates are set, so admission only counts.
+        controller = new ActivityController(store, new ActivityEventIds(store, 100000, 60),
+                new ActivityStreams(store, new SimpleMeterRegistry()),
+                new IngestAdmission(new StandardEnvironment(), new SimpleMeterRegistry()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.close();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void createActivity() {
+        controller.createActivity(activity(1), CALLER);
+    }
+
+    @Benchmark
+    public void createActivities() {
+        List<Activity> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(activity(i));
+        }
+        controller.createActivities(batch, CALLER);
+    }
+
+    static Activity activity(long employeeId) {
+        ObjectNode details = JsonNodeFactory.instance.objectNode();
+        details.put("id", employeeId);
+        details.put("firstName", "First" + employeeId);
+        details.put("lastName", "Last" + employeeId);
+        details.put("email", "employee" + employeeId + "@example.com");
+        Activity activity = new Activity();
+        activity.setEventId(UUID.randomUUID().toString());
+        activity.setTimestamp("2024-07-10T12:34:56Z");
+        activity.setService("employee-management-service");
+        activity.setType("Employee Created");
+        activity.setDetails(details);
+        return activity;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.benchmarks;
+
+import com.example.activity_service.model.Activity;
+import com.example.activity_service.model.ActivityQuery;
+import com.example.activity_service.store.SegmentedLogActivityStore;
+import com.example.activity_service.stream.ActivityStreams;
+import com.example.activity_service.stream.EventSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fan-out of {@link ActivityStreams}: appends and syncs a batch of 100 activities and
+ * waits until every subscriber has been sent all of them. Subscribers are sinks that
+ * take each encoded event and drop it, so the shared workers, not a network, are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ActivityStreamBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1", "100", "1000"})
+    public int subscribers;
+
+    private Path dir;
+    private SegmentedLogActivityStore store;
+    private ActivityStreams streams;
+    private final AtomicLong sent = new AtomicLong();
+    private volatile long expected;
+    private volatile Thread waiter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("activity-stream-bench");
+        store = new SegmentedLogActivityStore(dir.resolve("log").toString(), dir.resolve("activities.json").toString(),
+                64L * 1024 * 1024, 200, 0, 0, 60, 4096);
+        store.open();
+        streams = new ActivityStreams(store, new SimpleMeterRegistry());
+        Fixtures.inject(streams, "workerCount", 4);
+        Fixtures.inject(streams, "bufferCapacity", 1000);
+        Fixtures.inject(streams, "batchSize", 500);
+        streams.start();
+        for (int i = 0; i < subscribers; i++) {
+            streams.subscribe(new ActivityQuery(), -1, new DiscardingSink());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        streams.stop();
+        store.close();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public long appendAndFanOut() throws IOException {
+        List<Activity> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(ActivityAppendBenchmark.activity(i));
+        }
+        store.appendAll(batch);
+        // Subscribers only see a batch once it is on disk; don't wait for the group fsync.
+        store.sync();
+        waiter = Thread.currentThread();
+        expected += (long) BATCH_SIZE * subscribers;
+        while (sent.get() < expected) {
+            LockSupport.park(this);
+        }
+        return expected;
+    }
+
+    private class DiscardingSink implements EventSink {
+        @Override
+        public void open(Runnable writable, Runnable closed) {
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void send(String id, String name, String data) {
+            if (sent.incrementAndGet() >= expected) {
+                LockSupport.unpark(waiter);
+            }
+        }
+
+        @Override
+        public void comment(String text) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void complete() {
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Passes its arguments to JMH and, unless
+ * a result format or file is given, writes the results as JSON to
+ * {@code jmh-results/<timestamp>.json} so runs can be compared across changes.
+ */
+public final class BenchmarkMain {
+    private static final Path RESULTS_DIR = Paths.get("jmh-results");
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(List.of(args));
+        boolean listOnly = jmhArgs.contains("-l") || jmhArgs.contains("-lp") || jmhArgs.contains("-h");
+        if (!listOnly && !jmhArgs.contains("-rf") && !jmhArgs.contains("-rff")) {
+            Files.createDirectories(RESULTS_DIR);
+            String name = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json";
+            jmhArgs.addAll(List.of("-rf", "json", "-rff", RESULTS_DIR.resolve(name).toString()));
+        }
+        Main.main(jmhArgs.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.benchmarks;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.ImportReport;
+import com.example.employee_management_service.service.BulkFormat;
+import com.example.employee_management_service.service.EmployeeImporter;
+import com.example.employee_management_service.service.EmployeeServiceImpl;
+import com.example.employee_management_service.store.EmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import throughput in rows per second: {@link EmployeeImporter} parsing
+ * {@value #ROWS} rows in each format and storing them in chunks on the file store,
+ * against creating the same rows one request at a time. Every invocation gets a
+ * fresh store, set up and closed outside the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeImportBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({"JSON", "NDJSON", "CSV"})
+    public BulkFormat format;
+
+    @Param({"1000"})
+    public int chunkSize;
+
+    private byte[] input;
+    private Path dir;
+    private EmployeeStore store;
+    private EmployeeServiceImpl service;
+    private EmployeeImporter importer;
+
+    @Setup(Level.Trial)
+    public void encode() {
+        StringBuilder body = new StringBuilder(ROWS * 64);
+        if (format == BulkFormat.CSV) body.append("firstName,lastName,email\n");
+        if (format == BulkFormat.JSON) body.append('[');
+        for (int i = 0; i < ROWS; i++) {
+            switch (format) {
+                case CSV -> body.append("First").append(i).append(",Last").append(i).append(",employee").append(i).append("@example.com\n");
+                case JSON, NDJSON -> {
+                    if (format == BulkFormat.JSON && i > 0) body.append(',');
+                    body.append("{\"firstName\":\"First").append(i).append("\",\"lastName\":\"Last").append(i)
+                            .append("\",\"email\":\"employee").append(i).append("@example.com\"}");
+                    if (format == BulkFormat.NDJSON) body.append('\n');
+                }
+            }
+        }
+        if (format == BulkFormat.JSON) body.append(']');
+        input = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Emails are unique, so the same rows can only be stored once per store. */
+    @Setup(Level.Invocation)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("employee-import-bench");
+        store = new EmployeeStore(dir.resolve("data").toString(), dir.resolve("employees.json").toString(), 10000, 0);
+        store.load();
+        service = new EmployeeServiceImpl();
+        Fixtures.inject(service, "employeeStore", store);
+        importer = new EmployeeImporter(service);
+        Fixtures.inject(importer, "chunkSize", chunkSize);
+        Fixtures.inject(importer, "maxReportedErrors", 100);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception {
+        store.close();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ImportReport importRows() {
+        return importer.importEmployees(new ByteArrayInputStream(input), format);
+    }
+
+    /** The pre-import path: one create, one WAL record and two outbox events per row; {@code format} does not apply. */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long createRowByRow() {
+        long last = 0;
+        for (int i = 0; i < ROWS; i++) {
+            Employee employee = new Employee();
+            employee.setFirstName("First" + i);
+            employee.setLastName("Last" + i);
+            employee.setEmail("employee" + i + "@example.com");
+            last = service.createEmployee(employee).getId();
+        }
+        return last;
+    }
+}
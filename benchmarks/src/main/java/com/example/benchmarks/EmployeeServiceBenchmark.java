@@ -0,0 +1,134 @@
+package com.example.benchmarks;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.service.EmployeeServiceImpl;
+import com.example.employee_management_service.store.EmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link EmployeeServiceImpl} on the file store (WAL + snapshots) at growing
+ * dataset sizes. Writes include their outbox events, which a background thread
+ * acknowledges as fast as it can in place of the relay, so nothing is sent
+ * downstream and only the service and persistence path is measured. The searches
+ * go through the store's email and name indexes and should not slow down as the
+ * dataset grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeeServiceBenchmark {
+    private static final int LOAD_CHUNK = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    public int employees;
+
+    private Path dir;
+    private EmployeeStore store;
+    private EmployeeServiceImpl service;
+    private Thread drainer;
+    private volatile boolean draining;
+    /** Numbers the employees written during the run; emails are unique. */
+    private AtomicInteger nextEmployee;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("employee-bench");
+        store = new EmployeeStore(dir.resolve("data").toString(), dir.resolve("employees.json").toString(), 10000, 0);
+        store.load();
+        for (int loaded = 0; loaded < employees; loaded += LOAD_CHUNK) {
+            List<Employee> chunk = new ArrayList<>(LOAD_CHUNK);
+            for (int i = loaded; i < Math.min(employees, loaded + LOAD_CHUNK); i++) {
+                chunk.add(employee(i));
+            }
+            store.insertAll(chunk);
+        }
+        nextEmployee = new AtomicInteger(employees);
+        service = new EmployeeServiceImpl();
+        Fixtures.inject(service, "employeeStore", store);
+        draining = true;
+        drainer = Thread.ofPlatform().daemon().name("outbox-drainer").start(this::drainOutbox);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        draining = false;
+        drainer.join();
+        store.close();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public Employee createEmployee() {
+        return service.createEmployee(employee(nextEmployee.getAndIncrement()));
+    }
+
+    @Benchmark
+    public Employee getEmployeeById() {
+        return service.getEmployeeById(randomId());
+    }
+
+    @Benchmark
+    public Employee updateEmployee() {
+        return service.updateEmployee(randomId(), employee(nextEmployee.getAndIncrement()));
+    }
+
+    @Benchmark
+    public Employee findByEmail() {
+        return service.findByEmail("employee" + ThreadLocalRandom.current().nextInt(employees) + "@example.com");
+    }
+
+    /** "last42" matches Last42, Last420, Last4200 and so on, up to 20 of them. */
+    @Benchmark
+    public List<Employee> searchByName() {
+        return service.searchByName("last" + ThreadLocalRandom.current().nextInt(employees), 20);
+    }
+
+    private void drainOutbox() {
+        while (draining) {
+            List<OutboxEvent> notifications = store.pending(OutboxEvent.NOTIFICATION, 1000);
+            List<OutboxEvent> activities = store.pending(OutboxEvent.ACTIVITY, 1000);
+            store.markDelivered(notifications);
+            store.markDelivered(activities);
+            if (notifications.isEmpty() && activities.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, employees + 1);
+    }
+
+    private static Employee employee(int i) {
+        Employee employee = new Employee();
+        employee.setFirstName("First" + i);
+        employee.setLastName("Last" + i);
+        employee.setEmail("employee" + i + "@example.com");
+        return employee;
+    }
+}
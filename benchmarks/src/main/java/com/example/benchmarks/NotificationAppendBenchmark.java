@@ -0,0 +1,106 @@
+package com.example.benchmarks;
+
+import com.example.notification_service.controller.NotificationController;
+import com.example.notification_service.dispatch.NotificationDispatcher;
+import com.example.notification_service.model.NotificationRequest;
+import com.example.notification_service.service.ActivityClient;
+import com.example.notification_service.store.NotificationInbox;
+import com.example.notification_service.store.NotificationStore;
+import com.example.notification_service.store.NotificationEventIds;
+import com.example.service_commons.admission.IngestAdmission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The notification-service append path: {@link NotificationController} storing a
+ * notification, with its event id checked for duplicates, through the group-commit writer. The 16-thread variant shows how
+ * much concurrent appends gain from sharing one fsync per group. Each notification is also added to the inbox and to
+ * the dispatcher's burst, which has no channels here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NotificationAppendBenchmark {
+    private static final String CALLER = "employee-management-service";
+
+    private Path dir;
+    private NotificationStore store;
+    private NotificationController controller;
+    private NotificationDispatcher dispatcher;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("notification-bench");
+        store = new NotificationStore(dir.resolve("data").toString(), dir.resolve("notifications.json").toString(), 10000);
+        store.start();
+        controller = new NotificationController();
+        Fixtures.inject(controller, "notificationStore", store);
+        Fixtures.inject(controller, "recentEventIds", new NotificationEventIds(store, 100000));
+        NotificationInbox inbox = new NotificationInbox(store, dir.resolve("data").toString(), 100, 10000);
+        inbox.load();
+        Fixtures.inject(controller, "notificationInbox", inbox);
+        dispatcher = new NotificationDispatcher(List.of(), new SimpleMeterRegistry(), Tracer.NOOP);
+        Fixtures.inject(dispatcher, "coalesceWindowMs", 2000L);
+        Fixtures.inject(dispatcher, "workerCount", 4);
+        Fixtures.inject(dispatcher, "queueCapacity", 1000);
+        Fixtures.inject(dispatcher, "digestSize", 10);
+        dispatcher.start();
+        Fixtures.inject(controller, "notificationDispatcher", dispatcher);
+        // No rates are set, so admission only counts.
+        Fixtures.inject(controller, "ingestAdmission", new IngestAdmission(new StandardEnvironment(), new SimpleMeterRegistry()));
+        Fixtures.inject(controller, "activityClient", new ActivityClient() {
+            @Override
+            public void sendActivity(String type, Object details) {
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dispatcher.stop();
+        store.stop();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void receiveNotification() {
+        controller.receiveNotification(notification(), CALLER);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void receiveNotificationConcurrently() {
+        controller.receiveNotification(notification(), CALLER);
+    }
+
+    private static NotificationRequest notification() {
+        NotificationRequest notification = new NotificationRequest();
+        notification.setEventId(UUID.randomUUID().toString());
+        notification.setMessage("Employee Created");
+        notification.setEmployeeId(42L);
+        return notification;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.benchmarks;
+
+import com.example.notification_service.model.NotificationRequest;
+import com.example.notification_service.store.NotificationInbox;
+import com.example.notification_service.store.NotificationStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing one employee's notifications ({@code GET /api/notifications?employeeId=}) from
+ * the {@link NotificationInbox} against filtering a scan of the whole store, with
+ * {@value #EMPLOYEES} employees sharing the stored notifications.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NotificationInboxBenchmark {
+    private static final int EMPLOYEES = 1000;
+    private static final int PAGE = 20;
+
+    @Param({"10000", "100000"})
+    public int notifications;
+
+    private Path dir;
+    private NotificationStore store;
+    private NotificationInbox inbox;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("notification-inbox-bench");
+        store = new NotificationStore(dir.resolve("data").toString(), dir.resolve("notifications.json").toString(), 10000);
+        store.start();
+        List<NotificationRequest> batch = new ArrayList<>();
+        for (int i = 0; i < notifications; i++) {
+            NotificationRequest notification = new NotificationRequest();
+            notification.setMessage("Employee Updated");
+            notification.setEmployeeId((long) (i % EMPLOYEES));
+            batch.add(notification);
+            if (batch.size() == 1000) {
+                store.appendAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        store.appendAll(batch);
+        inbox = new NotificationInbox(store, dir.resolve("data").toString(), 100, 10000);
+        inbox.load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        inbox.close();
+        store.stop();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public List<NotificationRequest> inboxPage() throws Exception {
+        return inbox.page(randomEmployee(), 0, PAGE);
+    }
+
+    /** What the endpoint did before the inbox: scan from the start until the page is full. */
+    @Benchmark
+    public List<NotificationRequest> storeScan() throws Exception {
+        Long employeeId = randomEmployee();
+        List<NotificationRequest> page = new ArrayList<>(PAGE);
+        store.scan(0, notification -> {
+            if (employeeId.equals(notification.getEmployeeId())) {
+                page.add(notification);
+            }
+            return page.size() < PAGE;
+        });
+        return page;
+    }
+
+    private static Long randomEmployee() {
+        return (long) ThreadLocalRandom.current().nextInt(EMPLOYEES);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.benchmarks;
+
+import com.example.activity_service.model.Activity;
+import com.example.employee_management_service.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** JSON serialization of the payloads the stores and clients write most often. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Employee employee;
+    private Activity activity;
+    private byte[] employeeJson;
+    private byte[] activityJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        employee = new Employee();
+        employee.setId(42L);
+        employee.setFirstName("Ada");
+        employee.setLastName("Lovelace");
+        employee.setEmail("ada@example.com");
+        activity = ActivityAppendBenchmark.activity(42);
+        employeeJson = objectMapper.writeValueAsBytes(employee);
+        activityJson = objectMapper.writeValueAsBytes(activity);
+    }
+
+    @Benchmark
+    public byte[] writeEmployee() throws IOException {
+        return objectMapper.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public Employee readEmployee() throws IOException {
+        return objectMapper.readValue(employeeJson, Employee.class);
+    }
+
+    @Benchmark
+    public byte[] writeActivity() throws IOException {
+        return objectMapper.writeValueAsBytes(activity);
+    }
+
+    @Benchmark
+    public Activity readActivity() throws IOException {
+        return objectMapper.readValue(activityJson, Activity.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.benchmarks;
+
+import com.example.activity_service.model.Activity;
+import com.example.employee_management_service.model.ActivityEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes activity batches as the outbox relay posts them to
+ * {@code /api/activities/batch} and decodes them as activity-service reads them,
+ * in each wire format. {@code encode} also reports the encoded size of the batch
+ * as the {@code bytes} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WireFormatBenchmark {
+
+    public enum Format { JSON, CBOR, SMILE }
+
+    private static final TypeReference<List<Activity>> BATCH = new TypeReference<>() {};
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes;
+    }
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public Format format;
+
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private ObjectMapper mapper;
+    private List<ActivityEvent> batch;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case JSON -> new ObjectMapper();
+            case CBOR -> new ObjectMapper(new CBORFactory());
+            case SMILE -> new ObjectMapper(new SmileFactory());
+        };
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            ObjectNode employee = mapper.createObjectNode();
+            employee.put("id", 1000L + i);
+            employee.put("firstName", "First" + i);
+            employee.put("lastName", "Last" + i);
+            employee.put("email", "employee" + i + "@example.com");
+            batch.add(new ActivityEvent(UUID.randomUUID().toString(), Instant.now().toString(), "employee-management-service", "Employee Created", employee));
+        }
+        encoded = mapper.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public byte[] encode(EncodedSize size) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(batch);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<Activity> decode() throws IOException {
+        return mapper.readValue(encoded, BATCH);
+    }
+}
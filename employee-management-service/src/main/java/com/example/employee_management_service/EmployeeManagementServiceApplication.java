@@ -1,9 +1,16 @@
 package com.example.employee_management_service;
 
+import com.example.service_commons.diagnostics.PinnedThreadMonitor;
+import com.example.service_commons.http.ServiceClientFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+// service-commons is outside the component scan, so its beans are imported one by one
+@Import({ServiceClientFactory.class, PinnedThreadMonitor.class})
+@ImportRuntimeHints(EmployeeManagementServiceRuntimeHints.class)
 public class EmployeeManagementServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,33 @@
+package com.example.employee_management_service;
+
+import com.example.employee_management_service.model.ActivityEvent;
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.NotificationRequest;
+import com.example.employee_management_service.model.OutboxEvent;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection hints for types bound by the service's own ObjectMappers and clients,
+ * which AOT processing cannot see.
+ */
+class EmployeeManagementServiceRuntimeHints implements RuntimeHintsRegistrar {
+    // Package-private in the store, so resolved by name.
+    static final String JOURNAL_ENTRY = "com.example.employee_management_service.store.EmployeeStore$JournalEntry";
+    static final String SNAPSHOT = "com.example.employee_management_service.store.EmployeeStore$Snapshot";
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindings.registerReflectionHints(hints.reflection(),
+                Employee.class,
+                OutboxEvent.class,
+                NotificationRequest.class,
+                ActivityEvent.class,
+                ClassUtils.resolveClassName(JOURNAL_ENTRY, classLoader),
+                ClassUtils.resolveClassName(SNAPSHOT, classLoader));
+    }
+}
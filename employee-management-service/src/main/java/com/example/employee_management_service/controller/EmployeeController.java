@@ -2,8 +2,26 @@ package com.example.employee_management_service.controller;
 
 import org.springframework.web.bind.annotation.*;
 import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.ImportReport;
+import com.example.employee_management_service.service.BulkFormat;
+import com.example.employee_management_service.service.DuplicateEmailException;
+import com.example.employee_management_service.service.EmployeeExporter;
+import com.example.employee_management_service.service.EmployeeImporter;
+import com.example.employee_management_service.service.EmployeeListSnapshot;
 import com.example.employee_management_service.service.EmployeeService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,10 +29,20 @@ import org.slf4j.LoggerFactory;
 @RequestMapping("/api/employees")
 public class EmployeeController {
     private static final Logger logger = LoggerFactory.getLogger(EmployeeController.class);
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+    private static final int STREAM_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private final ObjectMapper objectMapper = new ObjectMapper();
     private final EmployeeService employeeService;
+    private final EmployeeImporter employeeImporter;
+    private final EmployeeExporter employeeExporter;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, EmployeeImporter employeeImporter,
+                              EmployeeExporter employeeExporter) {
         this.employeeService = employeeService;
+        this.employeeImporter = employeeImporter;
+        this.employeeExporter = employeeExporter;
     }
 
     @PostMapping
@@ -23,10 +51,88 @@ public class EmployeeController {
         return employeeService.createEmployee(employee);
     }
 
+    /** Imports a JSON array, NDJSON or CSV body as it streams in; answers 400 if it could not be read to the end. */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON, CSV})
+    public ResponseEntity<ImportReport> importEmployees(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                        InputStream body) {
+        BulkFormat format = BulkFormat.forMediaType(contentType);
+        logger.info("Importing employees from {}", format);
+        ImportReport report = employeeImporter.importEmployees(body, format);
+        return ResponseEntity.status(report.failure() != null ? HttpStatus.BAD_REQUEST : HttpStatus.OK).body(report);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestParam(defaultValue = "ndjson") String format) {
+        BulkFormat bulkFormat;
+        try {
+            bulkFormat = BulkFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be json, ndjson or csv");
+        }
+        logger.info("Exporting employees as {}", bulkFormat);
+        return ResponseEntity.ok()
+                .contentType(bulkFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("employees." + bulkFormat.name().toLowerCase(Locale.ROOT)).build().toString())
+                .body(out -> employeeExporter.export(out, bulkFormat));
+    }
+
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        logger.info("Fetching all employees");
-        return employeeService.getAllEmployees();
+    public ResponseEntity<List<Employee>> getEmployees(@RequestParam(required = false) Long afterId,
+                                                       @RequestParam(required = false) Integer limit) {
+        if (afterId == null && limit == null) {
+            logger.info("Fetching all employees");
+            // With an ETag set, Spring answers a matching If-None-Match with 304 and no body
+            EmployeeListSnapshot snapshot = employeeService.getEmployeeListSnapshot();
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (snapshot.etag() != null) {
+                response.eTag(snapshot.etag()).cacheControl(CacheControl.noCache());
+            }
+            return response.body(snapshot.employees());
+        }
+        logger.info("Fetching employees after id {} (limit {})", afterId, limit);
+        return ResponseEntity.ok(employeeService.getEmployees(afterId != null ? afterId : 0, limit != null && limit > 0 ? limit : Integer.MAX_VALUE));
+    }
+
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamEmployees(@RequestParam(required = false) Long afterId) {
+        logger.info("Streaming employees after id {}", afterId);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(out -> {
+            long cursor = afterId != null ? afterId : 0;
+            List<Employee> page;
+            do {
+                page = employeeService.getEmployees(cursor, STREAM_PAGE_SIZE);
+                for (Employee employee : page) {
+                    out.write(objectMapper.writeValueAsBytes(employee));
+                    out.write('\n');
+                    cursor = employee.getId();
+                }
+                out.flush();
+            } while (page.size() == STREAM_PAGE_SIZE);
+        });
+    }
+
+    /**
+     * Looks employees up by exact email or by first or last name prefix, both ignoring
+     * case; exactly one of {@code email} and {@code name} must be given.
+     */
+    @GetMapping("/search")
+    public List<Employee> searchEmployees(@RequestParam(required = false) String email,
+                                          @RequestParam(required = false) String name,
+                                          @RequestParam(defaultValue = "20") int limit) {
+        if ((email == null) == (name == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "give exactly one of email and name");
+        }
+        if (email != null) {
+            logger.info("Searching employees by email");
+            Employee employee = employeeService.findByEmail(email);
+            return employee != null ? List.of(employee) : List.of();
+        }
+        if (name.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "name must not be blank");
+        }
+        logger.info("Searching employees by name prefix {} (limit {})", name, limit);
+        return employeeService.searchByName(name, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
     }
 
     @GetMapping("/{id}")
@@ -46,4 +152,9 @@ public class EmployeeController {
         logger.info("Updating employee id: {}", id);
         return employeeService.updateEmployee(id, employee);
     }
+
+    @ExceptionHandler(DuplicateEmailException.class)
+    public ResponseEntity<ProblemDetail> duplicateEmail(DuplicateEmailException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage()));
+    }
 }
@@ -0,0 +1,10 @@
+package com.example.employee_management_service.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Activity event as posted to activity-service's {@code /api/activities/batch}.
+ * {@code details} is a snapshot of the object the event is about, and {@code eventId}
+ * lets activity-service drop an event it has already stored.
+ */
+public record ActivityEvent(String eventId, String timestamp, String service, String type, JsonNode details) {}
@@ -2,15 +2,42 @@ package com.example.employee_management_service.model;
 
 import jakarta.persistence.*;
 
+import java.util.Locale;
+
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_employee_email_key", columnList = "emailKey", unique = true),
+        @Index(name = "idx_employee_first_name_key", columnList = "firstNameKey"),
+        @Index(name = "idx_employee_last_name_key", columnList = "lastNameKey")
+})
 public class Employee {
+    // Sequence ids with a pooled allocator let Hibernate batch inserts; IDENTITY forces one round trip per row.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private Long id;
     private String firstName;
     private String lastName;
     private String email;
 
+    // Lower-cased copies for the case-insensitive lookups of the JPA backend; not part of the API.
+    private String emailKey;
+    private String firstNameKey;
+    private String lastNameKey;
+
+    /** The form names and emails are compared in by searches: lower-cased, or null for null. */
+    public static String searchKey(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchKeys() {
+        emailKey = searchKey(email);
+        firstNameKey = searchKey(firstName);
+        lastNameKey = searchKey(lastName);
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
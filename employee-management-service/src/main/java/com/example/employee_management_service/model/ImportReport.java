@@ -0,0 +1,12 @@
+package com.example.employee_management_service.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/** Rows are numbered from 1, not counting a CSV header; {@code errors} lists the first rejected rows only. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportReport(long imported, long rejected, List<RowError> errors, String failure) {
+
+    public record RowError(long row, String message) {}
+}
@@ -0,0 +1,7 @@
+package com.example.employee_management_service.model;
+
+/**
+ * Body of the POST to notification-service's {@code /api/notifications}; {@code eventId}
+ * lets notification-service drop a notification it has already stored.
+ */
+public record NotificationRequest(String eventId, String message, Long employeeId) {}
@@ -0,0 +1,49 @@
+package com.example.employee_management_service.model;
+
+import jakarta.persistence.*;
+
+/**
+ * An employee change waiting to be delivered to one downstream service. Written
+ * together with the change itself and deleted once the target has accepted it.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_destination", columnList = "destination, id"))
+public class OutboxEvent {
+    public static final String NOTIFICATION = "notification-service";
+    public static final String ACTIVITY = "activity-service";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    private Long id;
+    /** Idempotency key the target deduplicates on. */
+    @Column(unique = true, nullable = false)
+    private String eventId;
+    private String destination;
+    private Long employeeId;
+    private String type;
+    private String timestamp;
+    /** JSON snapshot sent as the activity's details. */
+    @Lob
+    private String details;
+    /** Trace of the request that made the change. */
+    private String traceParent;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public String getDestination() { return destination; }
+    public void setDestination(String destination) { this.destination = destination; }
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getTimestamp() { return timestamp; }
+    public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
+    public String getDetails() { return details; }
+    public void setDetails(String details) { this.details = details; }
+    public String getTraceParent() { return traceParent; }
+    public void setTraceParent(String traceParent) { this.traceParent = traceParent; }
+}
@@ -0,0 +1,35 @@
+package com.example.employee_management_service.outbox;
+
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.repository.OutboxEventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Outbox of the JPA backend: the {@code outbox_event} table, written in the change's transaction. */
+@Component
+@ConditionalOnProperty(name = "employee.storage", havingValue = "jpa")
+public class JpaOutbox implements Outbox {
+    private final OutboxEventRepository outboxEventRepository;
+
+    public JpaOutbox(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    @Override
+    public List<OutboxEvent> pending(String destination, int limit) {
+        return outboxEventRepository.findByDestinationOrderByIdAsc(destination, Limit.of(limit));
+    }
+
+    @Override
+    public void markDelivered(List<OutboxEvent> events) {
+        outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Override
+    public long backlog(String destination) {
+        return outboxEventRepository.countByDestination(destination);
+    }
+}
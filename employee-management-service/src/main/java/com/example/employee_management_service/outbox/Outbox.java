@@ -0,0 +1,15 @@
+package com.example.employee_management_service.outbox;
+
+import com.example.employee_management_service.model.OutboxEvent;
+
+import java.util.List;
+
+/** Filled by the storage backend in the same write as the employee change. */
+public interface Outbox {
+
+    List<OutboxEvent> pending(String destination, int limit);
+
+    void markDelivered(List<OutboxEvent> events);
+
+    long backlog(String destination);
+}
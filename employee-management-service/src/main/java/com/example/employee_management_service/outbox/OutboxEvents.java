@@ -0,0 +1,58 @@
+package com.example.employee_management_service.outbox;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.service_commons.tracing.TraceParents;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/** Builds the outbox events for one employee change: one per downstream service. */
+public final class OutboxEvents {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OutboxEvents() {
+    }
+
+    /** {@code details} is serialized now, so the caller may keep mutating it. */
+    public static List<OutboxEvent> forChange(String type, Long employeeId, Object details) {
+        String timestamp = Instant.now().toString();
+        String traceParent = TraceParents.current();
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize details of " + type, e);
+        }
+        return List.of(
+                event(OutboxEvent.NOTIFICATION, type, employeeId, timestamp, null, traceParent),
+                event(OutboxEvent.ACTIVITY, type, employeeId, timestamp, json, traceParent));
+    }
+
+    /** One event per downstream service for a whole imported chunk, rather than one per employee. */
+    public static List<OutboxEvent> forImport(List<Employee> chunk) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("count", chunk.size());
+        details.put("firstId", chunk.get(0).getId());
+        details.put("lastId", chunk.get(chunk.size() - 1).getId());
+        return forChange("Employees Imported", null, details);
+    }
+
+    private static OutboxEvent event(String destination, String type, Long employeeId, String timestamp, String details,
+                                     String traceParent) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventId(UUID.randomUUID().toString());
+        event.setDestination(destination);
+        event.setType(type);
+        event.setEmployeeId(employeeId);
+        event.setTimestamp(timestamp);
+        event.setDetails(details);
+        event.setTraceParent(traceParent);
+        return event;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.employee_management_service.outbox;
+
+import com.example.employee_management_service.model.ActivityEvent;
+import com.example.employee_management_service.model.NotificationRequest;
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.service.ActivityClient;
+import com.example.employee_management_service.service.NotificationClient;
+import com.example.service_commons.tracing.TraceParents;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Delivers outbox events with one thread per target, so an unavailable target does
+ * not hold up the other. A failed batch is retried unchanged, ahead of later events,
+ * so targets see each employee's changes in order and deduplicate on {@code eventId}.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String SERVICE_NAME = "employee-management-service";
+
+    private record Destination(String name, Consumer<List<OutboxEvent>> sender, Counter delivered, Counter rejected) {}
+
+    private static final class PoisonEventException extends RuntimeException {
+        final OutboxEvent event;
+
+        PoisonEventException(OutboxEvent event, String message, Throwable cause) {
+            super(message, cause);
+            this.event = event;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Outbox outbox;
+    private final NotificationClient notificationClient;
+    private final ActivityClient activityClient;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final List<Thread> relays = new ArrayList<>();
+    private volatile boolean running;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    @Value("${outbox.relay.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    @Value("${outbox.relay.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public OutboxRelay(Outbox outbox, NotificationClient notificationClient, ActivityClient activityClient,
+                       MeterRegistry meterRegistry, Tracer tracer) {
+        this.outbox = outbox;
+        this.notificationClient = notificationClient;
+        this.activityClient = activityClient;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+    }
+
+    @PostConstruct
+    public void start() {
+        List<Destination> destinations = List.of(
+                destination(OutboxEvent.NOTIFICATION, this::sendNotifications),
+                destination(OutboxEvent.ACTIVITY, this::sendActivities));
+        if (!enabled) {
+            logger.warn("Outbox relay disabled; employee events stay in the outbox");
+            return;
+        }
+        running = true;
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        for (Destination destination : destinations) {
+            relays.add(threads.name("outbox-relay-" + destination.name()).start(() -> run(destination)));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread relay : relays) {
+            relay.interrupt();
+        }
+        for (Thread relay : relays) {
+            relay.join(5000);
+        }
+    }
+
+    private Destination destination(String name, Consumer<List<OutboxEvent>> sender) {
+        Gauge.builder("outbox.pending", outbox, o -> o.backlog(name)).tag("destination", name).register(meterRegistry);
+        return new Destination(name, sender,
+                Counter.builder("outbox.delivered").tag("destination", name).register(meterRegistry),
+                Counter.builder("outbox.rejected").tag("destination", name).register(meterRegistry));
+    }
+
+    private void run(Destination destination) {
+        long backoff = 0;
+        while (running) {
+            try {
+                List<OutboxEvent> batch = outbox.pending(destination.name(), batchSize);
+                if (batch.isEmpty()) {
+                    Thread.sleep(pollIntervalMs);
+                    continue;
+                }
+                deliverTraced(destination, batch);
+                backoff = 0;
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!running) return;
+                backoff = backoff == 0 ? retryBackoffMs : Math.min(backoff * 2, maxBackoffMs);
+                logger.warn("Failed to deliver outbox events to {}, retrying in {} ms: {}", destination.name(), backoff, e.toString());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deliverTraced(Destination destination, List<OutboxEvent> batch) {
+        Span span = TraceParents.startBatchSpan(tracer, "outbox relay",
+                batch.stream().map(OutboxEvent::getTraceParent).toList());
+        span.tag("outbox.destination", destination.name()).tag("outbox.batch.size", batch.size());
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            deliver(destination, batch);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    // On a 4xx other than 429 the events are resent one at a time and only the rejected ones dropped.
+    private void deliver(Destination destination, List<OutboxEvent> batch) {
+        try {
+            destination.sender().accept(batch);
+        } catch (PoisonEventException e) {
+            drop(destination, e.event, "cannot be encoded", e);
+            List<OutboxEvent> rest = batch.stream().filter(event -> event != e.event).toList();
+            if (!rest.isEmpty()) {
+                deliver(destination, rest);
+            }
+            return;
+        } catch (HttpClientErrorException e) {
+            if (e instanceof HttpClientErrorException.TooManyRequests) throw e;
+            if (batch.size() > 1) {
+                for (OutboxEvent event : batch) {
+                    deliver(destination, List.of(event));
+                }
+                return;
+            }
+            drop(destination, batch.get(0), "rejected by " + destination.name(), e);
+            return;
+        }
+        outbox.markDelivered(batch);
+        destination.delivered().increment(batch.size());
+    }
+
+    private void drop(Destination destination, OutboxEvent event, String reason, RuntimeException e) {
+        logger.error("Outbox event {} ({} for employee {}) {}, dropping it: {}",
+                event.getEventId(), event.getType(), event.getEmployeeId(), reason, e.getMessage());
+        destination.rejected().increment();
+        outbox.markDelivered(List.of(event));
+    }
+
+    private void sendNotifications(List<OutboxEvent> batch) {
+        notificationClient.send(batch.stream()
+                .map(event -> new NotificationRequest(event.getEventId(), event.getType(), event.getEmployeeId()))
+                .toList());
+    }
+
+    private void sendActivities(List<OutboxEvent> batch) {
+        activityClient.send(batch.stream()
+                .map(event -> new ActivityEvent(event.getEventId(), event.getTimestamp(), SERVICE_NAME, event.getType(),
+                        details(event)))
+                .toList());
+    }
+
+    private JsonNode details(OutboxEvent event) {
+        if (event.getDetails() == null) return null;
+        try {
+            return objectMapper.readTree(event.getDetails());
+        } catch (JsonProcessingException e) {
+            throw new PoisonEventException(event, "Unreadable details in outbox event " + event.getEventId(), e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.employee_management_service.repository;
+
+import com.example.employee_management_service.model.Employee;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+    List<Employee> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    List<Employee> findByEmailKeyIn(Collection<String> emailKeys);
+
+    List<Employee> findByFirstNameKeyStartingWithOrderByFirstNameKeyAscIdAsc(String prefix, Limit limit);
+
+    List<Employee> findByLastNameKeyStartingWithOrderByLastNameKeyAscIdAsc(String prefix, Limit limit);
+}
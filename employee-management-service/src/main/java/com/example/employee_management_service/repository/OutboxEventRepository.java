@@ -0,0 +1,12 @@
+package com.example.employee_management_service.repository;
+
+import com.example.employee_management_service.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByDestinationOrderByIdAsc(String destination, Limit limit);
+    long countByDestination(String destination);
+}
@@ -1,34 +1,64 @@
 package com.example.employee_management_service.service;
 
+import com.example.employee_management_service.model.ActivityEvent;
+import com.example.service_commons.http.ServiceClient;
+import com.example.service_commons.http.ServiceClientFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import java.time.Instant;
-import java.util.HashMap;
+import org.springframework.web.client.HttpClientErrorException;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Posts batches of activity events to activity-service. A 415 switches the client
+ * to JSON for good, for an activity-service without binary support.
+ */
 @Component
 public class ActivityClient {
     private static final Logger logger = LoggerFactory.getLogger(ActivityClient.class);
+    private static final String BATCH_PATH = "/api/activities/batch";
+
+    public enum WireFormat {
+        SMILE(new MediaType("application", "x-jackson-smile")),
+        CBOR(MediaType.APPLICATION_CBOR),
+        JSON(MediaType.APPLICATION_JSON);
+
+        private final MediaType mediaType;
+
+        WireFormat(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+    }
 
     @Value("${ACTIVITY_URL:http://localhost:8083}")
     private String activityUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${activity.client.wire-format:SMILE}")
+    private WireFormat wireFormat;
+
+    @Autowired
+    private ServiceClientFactory serviceClientFactory;
+
+    private ServiceClient client;
+
+    @PostConstruct
+    public void start() {
+        client = serviceClientFactory.create("activity-service", activityUrl);
+    }
 
-    public void sendActivity(String type, Object details) {
+    public void send(List<ActivityEvent> batch) {
+        logger.info("Sending {} activities to {} as {}", batch.size(), activityUrl, wireFormat);
         try {
-            String url = activityUrl + "/api/activities";
-            var payload = new HashMap<String, Object>();
-            payload.put("timestamp", Instant.now().toString());
-            payload.put("service", "employee-management-service");
-            payload.put("type", type);
-            payload.put("details", details);
-            logger.info("Sending activity: {} from {} to {}", type, "employee-management-service", url);
-            restTemplate.postForObject(url, payload, Void.class);
-        } catch (Exception e) {
-            logger.error("Failed to send activity event: {}", type, e);
+            client.post(BATCH_PATH, batch, wireFormat.mediaType, Void.class);
+        } catch (HttpClientErrorException.UnsupportedMediaType e) {
+            if (wireFormat == WireFormat.JSON) throw e;
+            logger.warn("activity-service does not accept {}, falling back to JSON", wireFormat);
+            wireFormat = WireFormat.JSON;
+            client.post(BATCH_PATH, batch, wireFormat.mediaType, Void.class);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.example.employee_management_service.service;
+
+import org.springframework.http.MediaType;
+
+/** Encodings accepted by the bulk import and produced by the export. */
+public enum BulkFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+    CSV(MediaType.parseMediaType("text/csv"));
+
+    private final MediaType mediaType;
+
+    BulkFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /** The format for a request's {@code Content-Type}, or null if there is none. */
+    public static BulkFormat forMediaType(MediaType contentType) {
+        for (BulkFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) return format;
+        }
+        return null;
+    }
+}
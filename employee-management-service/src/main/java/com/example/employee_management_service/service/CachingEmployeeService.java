@@ -0,0 +1,160 @@
+package com.example.employee_management_service.service;
+
+import com.example.employee_management_service.model.Employee;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-through cache in front of the configured storage backend. Writes go to the
+ * backend first and then invalidate what they touched; the TTL bounds staleness
+ * when another instance writes to the same database.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "employee.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingEmployeeService implements EmployeeService {
+    private static final Logger logger = LoggerFactory.getLogger(CachingEmployeeService.class);
+
+    private final EmployeeService delegate;
+    private final Cache<Long, Optional<Employee>> employees;
+    private final long ttlNanos;
+    /** Bumped after every write; also the list's ETag. */
+    private final AtomicLong version = new AtomicLong();
+    /** Distinguishes this instance's versions from those of earlier runs. */
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final Counter listHits;
+    private final Counter listMisses;
+    private volatile ListSnapshot listSnapshot;
+
+    public CachingEmployeeService(@Qualifier("employeeBackend") EmployeeService delegate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${employee.cache.max-size:10000}") long maxSize,
+                                  @Value("${employee.cache.ttl-ms:60000}") long ttlMs,
+                                  @Value("${employee.cache.negative-ttl-ms:5000}") long negativeTtlMs) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        long negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMs);
+        this.employees = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<Long, Optional<Employee>>writing((id, employee) ->
+                        Duration.ofNanos(employee.isPresent() ? ttlNanos : negativeTtlNanos)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, employees, "employees");
+        Gauge.builder("cache.hit.ratio", employees, cache -> cache.stats().hitRate())
+                .tag("cache", "employees")
+                .register(meterRegistry);
+        this.listHits = Counter.builder("cache.gets").tag("cache", "employee-list").tag("result", "hit").register(meterRegistry);
+        this.listMisses = Counter.builder("cache.gets").tag("cache", "employee-list").tag("result", "miss").register(meterRegistry);
+        logger.info("Caching employees: max {} entries, ttl {} ms, negative ttl {} ms", maxSize, ttlMs, negativeTtlMs);
+    }
+
+    @Override
+    public Employee createEmployee(Employee employee) {
+        Employee created = delegate.createEmployee(employee);
+        invalidate(created.getId());
+        return created;
+    }
+
+    @Override
+    public List<Employee> createEmployees(List<Employee> batch) {
+        List<Employee> created = delegate.createEmployees(batch);
+        employees.invalidateAll(created.stream().map(Employee::getId).toList());
+        listChanged();
+        return created;
+    }
+
+    @Override
+    public List<Employee> importEmployees(List<Employee> chunk) {
+        List<Employee> imported = delegate.importEmployees(chunk);
+        employees.invalidateAll(imported.stream().map(Employee::getId).toList());
+        listChanged();
+        return imported;
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return getEmployeeListSnapshot().employees();
+    }
+
+    @Override
+    public EmployeeListSnapshot getEmployeeListSnapshot() {
+        long current = version.get();
+        ListSnapshot snapshot = listSnapshot;
+        if (snapshot != null && snapshot.version == current && System.nanoTime() - snapshot.loadedAt < ttlNanos) {
+            listHits.increment();
+            return snapshot.list;
+        }
+        listMisses.increment();
+        // Tagged with the version read before loading: a write that lands meanwhile bumps
+        // the version, so this snapshot is rebuilt on the next call instead of being served.
+        snapshot = new ListSnapshot(current, System.nanoTime(),
+                new EmployeeListSnapshot(List.copyOf(delegate.getAllEmployees()), epoch + "-" + current));
+        listSnapshot = snapshot;
+        return snapshot.list;
+    }
+
+    @Override
+    public List<Employee> getEmployees(long afterId, int limit) {
+        return delegate.getEmployees(afterId, limit);
+    }
+
+    @Override
+    public Employee getEmployeeById(Long id) {
+        return employees.get(id, key -> Optional.ofNullable(delegate.getEmployeeById(key))).orElse(null);
+    }
+
+    @Override
+    public Employee findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public List<Employee> searchByName(String prefix, int limit) {
+        return delegate.searchByName(prefix, limit);
+    }
+
+    @Override
+    public Employee updateEmployee(Long id, Employee employee) {
+        Employee updated = delegate.updateEmployee(id, employee);
+        invalidate(id);
+        return updated;
+    }
+
+    @Override
+    public void deleteEmployee(Long id) {
+        delegate.deleteEmployee(id);
+        invalidate(id);
+    }
+
+    private void invalidate(Long id) {
+        employees.invalidate(id);
+        listChanged();
+    }
+
+    private void listChanged() {
+        version.incrementAndGet();
+        listSnapshot = null;
+    }
+
+    private record ListSnapshot(long version, long loadedAt, EmployeeListSnapshot list) {}
+}
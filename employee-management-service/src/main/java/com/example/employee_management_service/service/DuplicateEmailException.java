@@ -0,0 +1,8 @@
+package com.example.employee_management_service.service;
+
+/** Thrown when a write would give an employee an email another employee already has. */
+public class DuplicateEmailException extends RuntimeException {
+    public DuplicateEmailException(String email) {
+        super("An employee with email " + email + " already exists");
+    }
+}
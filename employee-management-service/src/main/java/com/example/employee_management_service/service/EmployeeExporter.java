@@ -0,0 +1,67 @@
+package com.example.employee_management_service.service;
+
+import com.example.employee_management_service.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+@Component
+public class EmployeeExporter {
+    private static final int PAGE_SIZE = 1000;
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("firstName")
+            .addColumn("lastName")
+            .addColumn("email")
+            .build()
+            .withHeader();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // Strict checking quotes a value only when it has to be, instead of by a length heuristic.
+    private final CsvMapper csvMapper = (CsvMapper) new CsvMapper()
+            .enable(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final EmployeeService employeeService;
+
+    public EmployeeExporter(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    public long export(OutputStream out, BulkFormat format) throws IOException {
+        long written = 0;
+        try (SequenceWriter writer = open(out, format)) {
+            long cursor = 0;
+            List<Employee> page;
+            do {
+                page = employeeService.getEmployees(cursor, PAGE_SIZE);
+                for (Employee employee : page) {
+                    writer.write(employee);
+                    cursor = employee.getId();
+                }
+                written += page.size();
+                writer.flush();
+            } while (page.size() == PAGE_SIZE);
+        }
+        if (format == BulkFormat.NDJSON && written > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return written;
+    }
+
+    private SequenceWriter open(OutputStream out, BulkFormat format) throws IOException {
+        return switch (format) {
+            case JSON -> objectMapper.writerFor(Employee.class).writeValuesAsArray(out);
+            case NDJSON -> objectMapper.writerFor(Employee.class).withRootValueSeparator("\n").writeValues(out);
+            case CSV -> csvMapper.writerFor(Employee.class).with(CSV_SCHEMA).writeValues(out);
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.employee_management_service.service;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.ImportReport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Streams a bulk import into the store one row at a time, storing valid rows in
+ * chunks and reporting the invalid ones. Ids in the input are ignored.
+ */
+@Component
+public class EmployeeImporter {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeImporter.class);
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final EmployeeService employeeService;
+
+    @Value("${employee.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${employee.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public EmployeeImporter(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    public ImportReport importEmployees(InputStream in, BulkFormat format) {
+        long start = System.nanoTime();
+        long row = 0;
+        long imported = 0;
+        long rejected = 0;
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        List<Employee> chunk = new ArrayList<>(chunkSize);
+        // Emails of the unstored chunk; those of stored chunks are found through the service.
+        Set<String> chunkEmails = new HashSet<>();
+        String failure = null;
+        try {
+            try (MappingIterator<JsonNode> rows = open(in, format)) {
+                while (rows.hasNextValue()) {
+                    JsonNode node = rows.nextValue();
+                    row++;
+                    String problem = validate(node);
+                    if (problem == null) {
+                        problem = checkEmail(text(node, "email"), chunkEmails);
+                    }
+                    if (problem != null) {
+                        rejected++;
+                        if (errors.size() < maxReportedErrors) {
+                            errors.add(new ImportReport.RowError(row, problem));
+                        }
+                        continue;
+                    }
+                    chunk.add(toEmployee(node));
+                    if (chunk.size() == chunkSize) {
+                        imported += store(chunk, chunkEmails);
+                    }
+                }
+            } catch (IOException e) {
+                // Rows before the unreadable one are still stored, so the caller can resume after them.
+                failure = "Unreadable input at row " + (row + 1) + ": " + e.getMessage();
+                logger.warn("Stopped {} import at row {}", format, row + 1, e);
+            }
+            imported += store(chunk, chunkEmails);
+        } catch (DuplicateEmailException e) {
+            // Another write took an email of the chunk after it was checked; none of the chunk was stored.
+            failure = "Stopped at row " + row + ": " + e.getMessage();
+            logger.warn("Stopped {} import at row {}: {}", format, row, e.getMessage());
+        }
+        logger.info("Imported {} employees from {} ({} rejected) in {} ms", imported, format, rejected,
+                (System.nanoTime() - start) / 1_000_000);
+        return new ImportReport(imported, rejected, errors, failure);
+    }
+
+    private MappingIterator<JsonNode> open(InputStream in, BulkFormat format) throws IOException {
+        // For JSON the iterator steps through the elements of a top-level array;
+        // for NDJSON through the whitespace-separated values at the root.
+        return switch (format) {
+            case JSON, NDJSON -> objectMapper.readerFor(JsonNode.class).readValues(in);
+            case CSV -> csvMapper.readerFor(JsonNode.class).with(CsvSchema.emptySchema().withHeader()).readValues(in);
+        };
+    }
+
+    private int store(List<Employee> chunk, Set<String> chunkEmails) {
+        if (chunk.isEmpty()) return 0;
+        int stored = employeeService.importEmployees(chunk).size();
+        chunk.clear();
+        chunkEmails.clear();
+        return stored;
+    }
+
+    private String checkEmail(String email, Set<String> chunkEmails) {
+        String key = Employee.searchKey(email);
+        if (chunkEmails.contains(key)) return "email repeats an earlier row";
+        if (employeeService.findByEmail(email) != null) return "email is already taken";
+        chunkEmails.add(key);
+        return null;
+    }
+
+    private static String validate(JsonNode node) {
+        if (!node.isObject()) return "not an object";
+        for (String field : List.of("firstName", "lastName", "email")) {
+            if (text(node, field) == null) return field + " is required";
+        }
+        if (!EMAIL.matcher(text(node, "email")).matches()) return "email is not a valid address";
+        return null;
+    }
+
+    private static Employee toEmployee(JsonNode node) {
+        Employee employee = new Employee();
+        employee.setFirstName(text(node, "firstName"));
+        employee.setLastName(text(node, "lastName"));
+        employee.setEmail(text(node, "email"));
+        return employee;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isTextual() || value.asText().isBlank()) return null;
+        return value.asText().trim();
+    }
+}
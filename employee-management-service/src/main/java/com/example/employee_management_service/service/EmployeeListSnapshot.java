@@ -0,0 +1,11 @@
+package com.example.employee_management_service.service;
+
+import com.example.employee_management_service.model.Employee;
+
+import java.util.List;
+
+/**
+ * All employees, with an {@code etag} that changes whenever the list does,
+ * or {@code null} if the service does not track changes.
+ */
+public record EmployeeListSnapshot(List<Employee> employees, String etag) {}
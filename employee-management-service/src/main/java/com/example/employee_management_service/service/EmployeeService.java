@@ -3,10 +3,24 @@ package com.example.employee_management_service.service;
 import com.example.employee_management_service.model.Employee;
 import java.util.List;
 
+/**
+ * Emails are unique, ignoring case: creates, imports and updates that would give two
+ * employees the same email throw {@link DuplicateEmailException} and change nothing.
+ */
 public interface EmployeeService {
     Employee createEmployee(Employee employee);
+    List<Employee> createEmployees(List<Employee> employees);
+    /** Stores the chunk atomically, announced by a single aggregated event. */
+    List<Employee> importEmployees(List<Employee> chunk);
     List<Employee> getAllEmployees();
+    default EmployeeListSnapshot getEmployeeListSnapshot() {
+        return new EmployeeListSnapshot(getAllEmployees(), null);
+    }
+    List<Employee> getEmployees(long afterId, int limit);
     Employee getEmployeeById(Long id);
+    Employee findByEmail(String email);
+    /** Ordered by the matching name and then id. */
+    List<Employee> searchByName(String prefix, int limit);
     Employee updateEmployee(Long id, Employee employee);
     void deleteEmployee(Long id);
 }
@@ -1,89 +1,84 @@
 package com.example.employee_management_service.service;
 
 import com.example.employee_management_service.model.Employee;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.employee_management_service.outbox.OutboxEvents;
+import com.example.employee_management_service.store.EmployeeStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * EmployeeService on the file store. Notifications and activities are not sent
+ * from here: each change is written together with its outbox events, which
+ * {@code OutboxRelay} delivers in the background.
+ */
 @Service
+@Qualifier("employeeBackend")
+@ConditionalOnProperty(name = "employee.storage", havingValue = "file", matchIfMissing = true)
 public class EmployeeServiceImpl implements EmployeeService {
     private static final Logger logger = LoggerFactory.getLogger(EmployeeServiceImpl.class);
-    private static final String EMPLOYEE_FILE = "employees.json";
-    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Autowired
-    private NotificationClient notificationClient;
+    private EmployeeStore employeeStore;
 
-    @Autowired
-    private ActivityClient activityClient;
-
-    private List<Employee> readEmployees() {
-        try {
-            File file = new File(EMPLOYEE_FILE);
-            if (!file.exists()) return new ArrayList<>();
-            return objectMapper.readValue(file, new TypeReference<List<Employee>>() {});
-        } catch (IOException e) {
-            logger.error("Failed to read employees from file", e);
-            throw new RuntimeException(e);
-        }
+    @Override
+    public Employee createEmployee(Employee employee) {
+        employeeStore.insertAll(List.of(employee), created -> OutboxEvents.forChange("Employee Created", created.getId(), created));
+        logger.info("Employee created: {} {} (ID: {})", employee.getFirstName(), employee.getLastName(), employee.getId());
+        return employee;
     }
 
-    private void writeEmployees(List<Employee> employees) {
-        try {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(EMPLOYEE_FILE), employees);
-        } catch (IOException e) {
-            logger.error("Failed to write employees to file", e);
-            throw new RuntimeException(e);
-        }
+    @Override
+    public List<Employee> createEmployees(List<Employee> employees) {
+        employeeStore.insertAll(employees, created -> OutboxEvents.forChange("Employee Created", created.getId(), created));
+        logger.info("Created {} employees", employees.size());
+        return employees;
     }
 
     @Override
-    public Employee createEmployee(Employee employee) {
-        List<Employee> employees = readEmployees();
-        long newId = employees.stream().mapToLong(e -> e.getId() != null ? e.getId() : 0).max().orElse(0) + 1;
-        employee.setId(newId);
-        employees.add(employee);
-        writeEmployees(employees);
-        logger.info("Employee created: {} {} (ID: {})", employee.getFirstName(), employee.getLastName(), employee.getId());
-        notificationClient.sendNotification("Employee Created", employee.getId());
-        activityClient.sendActivity("Employee Created", employee);
-        return employee;
+    public List<Employee> importEmployees(List<Employee> chunk) {
+        employeeStore.importAll(chunk, OutboxEvents::forImport);
+        logger.info("Imported {} employees (IDs {}-{})", chunk.size(), chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId());
+        return chunk;
     }
 
     @Override
     public List<Employee> getAllEmployees() {
         logger.info("Returning all employees");
-        return readEmployees();
+        return employeeStore.findAll();
+    }
+
+    @Override
+    public List<Employee> getEmployees(long afterId, int limit) {
+        return employeeStore.findPage(afterId, limit);
     }
 
     @Override
     public Employee getEmployeeById(Long id) {
         logger.info("Getting employee by id: {}", id);
-        return readEmployees().stream().filter(e -> e.getId().equals(id)).findFirst().orElse(null);
+        return employeeStore.findById(id);
+    }
+
+    @Override
+    public Employee findByEmail(String email) {
+        return employeeStore.findByEmail(email);
+    }
+
+    @Override
+    public List<Employee> searchByName(String prefix, int limit) {
+        return employeeStore.searchByName(prefix, limit);
     }
 
     @Override
     public Employee updateEmployee(Long id, Employee updated) {
-        List<Employee> employees = readEmployees();
-        Optional<Employee> opt = employees.stream().filter(e -> e.getId().equals(id)).findFirst();
-        if (opt.isPresent()) {
-            Employee emp = opt.get();
-            emp.setFirstName(updated.getFirstName());
-            emp.setLastName(updated.getLastName());
-            emp.setEmail(updated.getEmail());
-            writeEmployees(employees);
+        Employee emp = employeeStore.update(id, updated, changed -> OutboxEvents.forChange("Employee Updated", id, changed));
+        if (emp != null) {
             logger.info("Employee updated: {} (ID: {})", emp.getFirstName(), id);
-            notificationClient.sendNotification("Employee Updated", id);
-            activityClient.sendActivity("Employee Updated", emp);
             return emp;
         }
         logger.warn("Employee not found for update: id {}", id);
@@ -92,15 +87,10 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     public void deleteEmployee(Long id) {
-        List<Employee> employees = readEmployees();
-        boolean removed = employees.removeIf(e -> e.getId().equals(id));
-        writeEmployees(employees);
-        if (removed) {
+        if (employeeStore.delete(id, OutboxEvents.forChange("Employee Deleted", id, id))) {
             logger.info("Employee deleted: id {}", id);
-            notificationClient.sendNotification("Employee Deleted", id);
-            activityClient.sendActivity("Employee Deleted", id);
         } else {
             logger.warn("Employee not found for delete: id {}", id);
         }
     }
-} 
\ No newline at end of file
+}
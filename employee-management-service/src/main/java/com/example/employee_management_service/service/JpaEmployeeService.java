@@ -0,0 +1,218 @@
+package com.example.employee_management_service.service;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.outbox.OutboxEvents;
+import com.example.employee_management_service.repository.EmployeeRepository;
+import com.example.employee_management_service.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Database-backed EmployeeService, enabled with {@code employee.storage=jpa}. Every
+ * change inserts its outbox events in the same transaction.
+ */
+@Service
+@Qualifier("employeeBackend")
+@ConditionalOnProperty(name = "employee.storage", havingValue = "jpa")
+public class JpaEmployeeService implements EmployeeService {
+    private static final Logger logger = LoggerFactory.getLogger(JpaEmployeeService.class);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    public Employee createEmployee(Employee employee) {
+        employee.setId(null);
+        Employee saved = write(List.of(employee), null, status -> {
+            checkEmails(List.of(employee), null);
+            Employee created = employeeRepository.save(employee);
+            outboxEventRepository.saveAll(OutboxEvents.forChange("Employee Created", created.getId(), created));
+            return created;
+        });
+        logger.info("Employee created: {} {} (ID: {})", saved.getFirstName(), saved.getLastName(), saved.getId());
+        return saved;
+    }
+
+    @Override
+    public List<Employee> createEmployees(List<Employee> employees) {
+        write(employees, null, status -> {
+            checkEmails(employees, null);
+            for (int i = 0; i < employees.size(); i++) {
+                Employee employee = employees.get(i);
+                employee.setId(null);
+                entityManager.persist(employee);
+                for (OutboxEvent event : OutboxEvents.forChange("Employee Created", employee.getId(), employee)) {
+                    entityManager.persist(event);
+                }
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            return null;
+        });
+        logger.info("Created {} employees", employees.size());
+        return employees;
+    }
+
+    @Override
+    public List<Employee> importEmployees(List<Employee> chunk) {
+        write(chunk, null, status -> {
+            checkEmails(chunk, null);
+            for (int i = 0; i < chunk.size(); i++) {
+                Employee employee = chunk.get(i);
+                employee.setId(null);
+                entityManager.persist(employee);
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            for (OutboxEvent event : OutboxEvents.forImport(chunk)) {
+                entityManager.persist(event);
+            }
+            return null;
+        });
+        logger.info("Imported {} employees (IDs {}-{})", chunk.size(), chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId());
+        return chunk;
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        logger.info("Returning all employees");
+        return employeeRepository.findAll(Sort.by("id"));
+    }
+
+    @Override
+    public List<Employee> getEmployees(long afterId, int limit) {
+        return employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public Employee getEmployeeById(Long id) {
+        logger.info("Getting employee by id: {}", id);
+        return employeeRepository.findById(id).orElse(null);
+    }
+
+    @Override
+    public Employee findByEmail(String email) {
+        if (email == null) return null;
+        return employeeRepository.findByEmailKeyIn(List.of(Employee.searchKey(email))).stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public List<Employee> searchByName(String prefix, int limit) {
+        String key = Employee.searchKey(prefix);
+        List<Employee> byFirstName = employeeRepository.findByFirstNameKeyStartingWithOrderByFirstNameKeyAscIdAsc(key, Limit.of(limit));
+        List<Employee> byLastName = employeeRepository.findByLastNameKeyStartingWithOrderByLastNameKeyAscIdAsc(key, Limit.of(limit));
+        // Each list holds the first matches of one name; merged by the name that matched, as the file store orders them.
+        Map<Long, Employee> merged = new LinkedHashMap<>();
+        Stream.concat(byFirstName.stream(), byLastName.stream())
+                .sorted(Comparator.comparing((Employee employee) -> matchedName(employee, key)).thenComparing(Employee::getId))
+                .forEach(employee -> merged.putIfAbsent(employee.getId(), employee));
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public Employee updateEmployee(Long id, Employee updated) {
+        Employee emp = write(List.of(updated), id, status -> {
+            Employee existing = employeeRepository.findById(id).orElse(null);
+            if (existing == null) return null;
+            checkEmails(List.of(updated), id);
+            existing.setFirstName(updated.getFirstName());
+            existing.setLastName(updated.getLastName());
+            existing.setEmail(updated.getEmail());
+            Employee saved = employeeRepository.save(existing);
+            outboxEventRepository.saveAll(OutboxEvents.forChange("Employee Updated", id, saved));
+            return saved;
+        });
+        if (emp != null) {
+            logger.info("Employee updated: {} (ID: {})", emp.getFirstName(), id);
+            return emp;
+        }
+        logger.warn("Employee not found for update: id {}", id);
+        return null;
+    }
+
+    @Override
+    public void deleteEmployee(Long id) {
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (!employeeRepository.existsById(id)) return false;
+            employeeRepository.deleteById(id);
+            outboxEventRepository.saveAll(OutboxEvents.forChange("Employee Deleted", id, id));
+            return true;
+        });
+        if (Boolean.TRUE.equals(deleted)) {
+            logger.info("Employee deleted: id {}", id);
+        } else {
+            logger.warn("Employee not found for delete: id {}", id);
+        }
+    }
+
+    // A writer that took one of the emails after checkEmails passed trips the unique index instead.
+    private <T> T write(List<Employee> batch, Long updatedId, TransactionCallback<T> action) {
+        try {
+            return transactionTemplate.execute(action);
+        } catch (DataIntegrityViolationException | PersistenceException e) {
+            transactionTemplate.executeWithoutResult(status -> checkEmails(batch, updatedId));
+            throw e;
+        }
+    }
+
+    private void checkEmails(List<Employee> batch, Long updatedId) {
+        Map<String, String> emails = new HashMap<>();
+        for (Employee employee : batch) {
+            String key = Employee.searchKey(employee.getEmail());
+            if (key != null && emails.putIfAbsent(key, employee.getEmail()) != null) {
+                throw new DuplicateEmailException(employee.getEmail());
+            }
+        }
+        if (emails.isEmpty()) return;
+        for (Employee owner : employeeRepository.findByEmailKeyIn(emails.keySet())) {
+            if (!owner.getId().equals(updatedId)) {
+                throw new DuplicateEmailException(emails.get(Employee.searchKey(owner.getEmail())));
+            }
+        }
+    }
+
+    private static String matchedName(Employee employee, String key) {
+        String first = Employee.searchKey(employee.getFirstName());
+        String last = Employee.searchKey(employee.getLastName());
+        boolean firstMatches = first != null && first.startsWith(key);
+        boolean lastMatches = last != null && last.startsWith(key);
+        if (firstMatches && lastMatches) return first.compareTo(last) <= 0 ? first : last;
+        return firstMatches ? first : last;
+    }
+}
@@ -1,30 +1,40 @@
 package com.example.employee_management_service.service;
 
+import com.example.employee_management_service.model.NotificationRequest;
+import com.example.service_commons.http.ServiceClient;
+import com.example.service_commons.http.ServiceClientFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import java.util.HashMap;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Posts batches of notifications to notification-service's {@code /api/notifications/batch}.
+ * Failures are thrown to the caller, which keeps the batch and sends it again.
+ */
 @Component
 public class NotificationClient {
     private static final Logger logger = LoggerFactory.getLogger(NotificationClient.class);
+    private static final String BATCH_PATH = "/api/notifications/batch";
+
     @Value("${NOTIFICATION_URL:http://localhost:8080}")
     private String notificationUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private ServiceClientFactory serviceClientFactory;
+
+    private ServiceClient client;
+
+    @PostConstruct
+    public void init() {
+        client = serviceClientFactory.create("notification-service", notificationUrl);
+    }
 
-    public void sendNotification(String message, Long employeeId) {
-        try {
-            String url = notificationUrl + "/api/notifications";
-            var payload = new HashMap<String, Object>();
-            payload.put("message", message);
-            payload.put("employeeId", employeeId);
-            logger.info("Sending notification: {} for Employee ID: {} to {}", message, employeeId, url);
-            restTemplate.postForObject(url, payload, Void.class);
-        } catch (Exception e) {
-            logger.error("Failed to send notification for Employee ID: {}", employeeId, e);
-        }
+    public void send(List<NotificationRequest> batch) {
+        logger.info("Sending {} notifications to {}", batch.size(), notificationUrl);
+        client.post(BATCH_PATH, batch, Void.class);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.example.employee_management_service.store;
+
+import com.example.employee_management_service.model.Employee;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Email and name-prefix indexes of {@link EmployeeStore}. Read without locking, so
+ * they may briefly disagree with the employee map; the store checks every hit.
+ */
+final class EmployeeIndex {
+    private static final char SEPARATOR = '\0';
+
+    private final Map<String, Long> byEmail = new ConcurrentHashMap<>();
+    /** {@code "<name key>\0<zero-padded id>"} for the first and the last name of every employee. */
+    private final ConcurrentSkipListMap<String, Long> byName = new ConcurrentSkipListMap<>();
+
+    Long idForEmail(String email) {
+        String key = Employee.searchKey(email);
+        return key != null ? byEmail.get(key) : null;
+    }
+
+    /** Returns false if the email already belongs to another employee. */
+    boolean add(Employee employee) {
+        Long id = employee.getId();
+        addName(employee.getFirstName(), id);
+        addName(employee.getLastName(), id);
+        String email = Employee.searchKey(employee.getEmail());
+        if (email == null) return true;
+        Long owner = byEmail.putIfAbsent(email, id);
+        return owner == null || owner.equals(id);
+    }
+
+    void remove(Employee employee) {
+        Long id = employee.getId();
+        removeName(employee.getFirstName(), id);
+        removeName(employee.getLastName(), id);
+        String email = Employee.searchKey(employee.getEmail());
+        if (email != null) {
+            byEmail.remove(email, id);
+        }
+    }
+
+    List<Long> idsForNamePrefix(String prefix, int limit) {
+        String key = Employee.searchKey(prefix);
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id : byName.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            if (ids.size() >= limit) break;
+            ids.add(id);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private void addName(String name, Long id) {
+        String key = Employee.searchKey(name);
+        if (key != null) {
+            byName.put(nameEntry(key, id), id);
+        }
+    }
+
+    private void removeName(String name, Long id) {
+        String key = Employee.searchKey(name);
+        if (key != null) {
+            byName.remove(nameEntry(key, id));
+        }
+    }
+
+    private static String nameEntry(String key, Long id) {
+        // Padded so that employees with the same name sort by id.
+        String digits = Long.toString(id);
+        return key + SEPARATOR + "0".repeat(Math.max(0, 19 - digits.length())) + digits;
+    }
+}
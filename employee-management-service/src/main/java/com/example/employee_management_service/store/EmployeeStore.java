@@ -0,0 +1,469 @@
+package com.example.employee_management_service.store;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.outbox.Outbox;
+import com.example.employee_management_service.service.DuplicateEmailException;
+import com.example.service_commons.persistence.SnapshotFile;
+import com.example.service_commons.persistence.WriteAheadLog;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-memory employee map made durable by a write-ahead log plus snapshots. Also the
+ * {@link Outbox} of the file backend: a change's outbox events are written in the
+ * change's own WAL record, so both survive a crash or neither does.
+ */
+@Component
+@ConditionalOnProperty(name = "employee.storage", havingValue = "file", matchIfMissing = true)
+public class EmployeeStore implements Outbox {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeStore.class);
+    private static final String NAME = "employees";
+    private static final String PUT = "PUT";
+    private static final String PUT_ALL = "PUT_ALL";
+    private static final String DELETE = "DELETE";
+    private static final String ACK = "ACK";
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record JournalEntry(String op, Employee employee, List<Employee> employees, Long id, List<OutboxEvent> events,
+                        List<Long> delivered) {}
+
+    /** Snapshots written before the outbox existed are a bare employee array. */
+    record Snapshot(Long lastId, List<Employee> employees, List<OutboxEvent> outbox) {}
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path dataDir;
+    private final Path snapshotFile;
+    private final Path legacyFile;
+    private final int snapshotThreshold;
+    private final long fsyncIntervalMs;
+    private WriteAheadLog<JournalEntry> wal;
+
+    private final ConcurrentNavigableMap<Long, Employee> employees = new ConcurrentSkipListMap<>();
+    private final EmployeeIndex index = new EmployeeIndex();
+    private final AtomicLong idSequence = new AtomicLong();
+    /** Undelivered events by destination and sequence number. */
+    private final Map<String, ConcurrentNavigableMap<Long, OutboxEvent>> outbox = new ConcurrentHashMap<>();
+    private long outboxSequence;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicBoolean snapshotInProgress = new AtomicBoolean();
+    private ExecutorService snapshotter;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public EmployeeStore(
+            @Value("${employee.store.dir:employee-data}") String dir,
+            @Value("${employee.store.legacy-file:employees.json}") String legacyFile,
+            @Value("${employee.store.snapshot-threshold:10000}") int snapshotThreshold,
+            @Value("${employee.store.fsync-interval-ms:0}") long fsyncIntervalMs) {
+        this.dataDir = Paths.get(dir);
+        this.snapshotFile = dataDir.resolve(NAME + ".snapshot");
+        this.legacyFile = Paths.get(legacyFile);
+        this.snapshotThreshold = snapshotThreshold;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        wal = new WriteAheadLog<>(dataDir, NAME, objectMapper, JournalEntry.class, fsyncIntervalMs, threads.factory());
+        snapshotter = Executors.newSingleThreadExecutor(threads.name("employee-snapshotter").factory());
+        long generation = 0;
+        boolean migrated = false;
+        if (Files.exists(snapshotFile)) {
+            generation = SnapshotFile.verify(snapshotFile).generation();
+            readSnapshot();
+        } else if (Files.exists(legacyFile)) {
+            putAll(objectMapper.readValue(legacyFile.toFile(), new TypeReference<List<Employee>>() {}));
+            migrated = true;
+        }
+        long replayed = wal.recover(generation, entry -> {
+            apply(entry);
+            return true;
+        });
+        // Older snapshots and the legacy file only have the employees themselves to go by.
+        raiseIdSequence(employees.isEmpty() ? 0 : employees.lastKey());
+        logger.info("Loaded {} employees (snapshot generation {}, +{} WAL records), next id {}, {} undelivered outbox events",
+                employees.size(), generation, replayed, idSequence.get() + 1, pendingEvents().size());
+        if (migrated || replayed > 0) {
+            writeLock.lock();
+            try {
+                writeSnapshot(wal.roll(), currentState());
+            } finally {
+                writeLock.unlock();
+            }
+            if (migrated) {
+                logger.info("Migrated {} employees from {}", employees.size(), legacyFile);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        snapshotter.shutdown();
+        snapshotter.awaitTermination(30, TimeUnit.SECONDS);
+        writeLock.lock();
+        try {
+            if (wal.entries() > 0) {
+                writeSnapshot(wal.roll(), currentState());
+            }
+            wal.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Employee findById(Long id) {
+        return employees.get(id);
+    }
+
+    public List<Employee> findAll() {
+        return new ArrayList<>(employees.values());
+    }
+
+    public List<Employee> findPage(long afterId, int limit) {
+        List<Employee> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Employee employee : employees.tailMap(afterId, false).values()) {
+            if (page.size() >= limit) break;
+            page.add(employee);
+        }
+        return page;
+    }
+
+    public Employee findByEmail(String email) {
+        Long id = index.idForEmail(email);
+        Employee employee = id != null ? employees.get(id) : null;
+        // The index may briefly lag the map; only return an employee that still has the email.
+        return employee != null && Employee.searchKey(email).equals(Employee.searchKey(employee.getEmail())) ? employee : null;
+    }
+
+    public List<Employee> searchByName(String prefix, int limit) {
+        String key = Employee.searchKey(prefix);
+        List<Employee> found = new ArrayList<>();
+        for (Long id : index.idsForNamePrefix(prefix, limit)) {
+            Employee employee = employees.get(id);
+            if (employee != null && (startsWith(employee.getFirstName(), key) || startsWith(employee.getLastName(), key))) {
+                found.add(employee);
+            }
+        }
+        return found;
+    }
+
+    public int count() {
+        return employees.size();
+    }
+
+    public Employee insert(Employee employee) {
+        insertAll(List.of(employee));
+        return employee;
+    }
+
+    public List<Employee> insertAll(List<Employee> batch) {
+        return insertAll(batch, employee -> List.of());
+    }
+
+    public List<Employee> insertAll(List<Employee> batch, Function<Employee, List<OutboxEvent>> events) {
+        writeLock.lock();
+        try {
+            checkEmails(batch, null);
+            List<JournalEntry> entries = new ArrayList<>(batch.size());
+            for (Employee employee : batch) {
+                employee.setId(idSequence.incrementAndGet());
+                entries.add(new JournalEntry(PUT, employee, null, null, sequenced(events.apply(employee)), null));
+            }
+            append(entries);
+            putAll(batch);
+            entries.forEach(entry -> enqueue(entry.events()));
+            maybeSnapshot();
+            return batch;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Writes the whole chunk as one WAL record, so a crash keeps all of it or none. */
+    public List<Employee> importAll(List<Employee> chunk, Function<List<Employee>, List<OutboxEvent>> events) {
+        writeLock.lock();
+        try {
+            checkEmails(chunk, null);
+            for (Employee employee : chunk) {
+                employee.setId(idSequence.incrementAndGet());
+            }
+            JournalEntry entry = new JournalEntry(PUT_ALL, null, chunk, null, sequenced(events.apply(chunk)), null);
+            append(List.of(entry));
+            putAll(chunk);
+            enqueue(entry.events());
+            maybeSnapshot();
+            return chunk;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Employee update(Long id, Employee changes) {
+        return update(id, changes, employee -> List.of());
+    }
+
+    public Employee update(Long id, Employee changes, Function<Employee, List<OutboxEvent>> events) {
+        writeLock.lock();
+        try {
+            if (!employees.containsKey(id)) return null;
+            Employee updated = new Employee();
+            updated.setId(id);
+            updated.setFirstName(changes.getFirstName());
+            updated.setLastName(changes.getLastName());
+            updated.setEmail(changes.getEmail());
+            checkEmails(List.of(updated), id);
+            JournalEntry entry = new JournalEntry(PUT, updated, null, null, sequenced(events.apply(updated)), null);
+            append(List.of(entry));
+            put(updated);
+            enqueue(entry.events());
+            maybeSnapshot();
+            return updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean delete(Long id) {
+        return delete(id, List.of());
+    }
+
+    public boolean delete(Long id, List<OutboxEvent> events) {
+        writeLock.lock();
+        try {
+            if (!employees.containsKey(id)) return false;
+            JournalEntry entry = new JournalEntry(DELETE, null, null, id, sequenced(events), null);
+            append(List.of(entry));
+            remove(id);
+            enqueue(entry.events());
+            maybeSnapshot();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Only returns events already on disk, so a change lost to a crash is never announced. */
+    @Override
+    public List<OutboxEvent> pending(String destination, int limit) {
+        ConcurrentNavigableMap<Long, OutboxEvent> queue = outbox.get(destination);
+        if (queue == null) return List.of();
+        List<OutboxEvent> batch = new ArrayList<>(Math.min(limit, 1024));
+        for (OutboxEvent event : queue.values()) {
+            if (batch.size() >= limit) break;
+            batch.add(event);
+        }
+        if (!batch.isEmpty()) {
+            // Every event collected above was appended before this sync.
+            try {
+                wal.sync();
+            } catch (IOException e) {
+                logger.error("Failed to sync employee WAL", e);
+                throw new RuntimeException(e);
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public void markDelivered(List<OutboxEvent> events) {
+        if (events.isEmpty()) return;
+        writeLock.lock();
+        try {
+            List<Long> delivered = events.stream().map(OutboxEvent::getId).toList();
+            append(List.of(new JournalEntry(ACK, null, null, null, null, delivered)));
+            acknowledge(delivered);
+            maybeSnapshot();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long backlog(String destination) {
+        ConcurrentNavigableMap<Long, OutboxEvent> queue = outbox.get(destination);
+        return queue != null ? queue.size() : 0;
+    }
+
+    private List<OutboxEvent> sequenced(List<OutboxEvent> events) {
+        if (events.isEmpty()) return null;
+        for (OutboxEvent event : events) {
+            event.setId(++outboxSequence);
+        }
+        return events;
+    }
+
+    private void enqueue(List<OutboxEvent> events) {
+        if (events == null) return;
+        for (OutboxEvent event : events) {
+            outbox.computeIfAbsent(event.getDestination(), destination -> new ConcurrentSkipListMap<>())
+                    .put(event.getId(), event);
+            outboxSequence = Math.max(outboxSequence, event.getId());
+        }
+    }
+
+    private void acknowledge(List<Long> delivered) {
+        for (ConcurrentNavigableMap<Long, OutboxEvent> queue : outbox.values()) {
+            delivered.forEach(queue::remove);
+        }
+    }
+
+    private List<OutboxEvent> pendingEvents() {
+        List<OutboxEvent> events = new ArrayList<>();
+        outbox.values().forEach(queue -> events.addAll(queue.values()));
+        events.sort(Comparator.comparing(OutboxEvent::getId));
+        return events;
+    }
+
+    private Snapshot currentState() {
+        return new Snapshot(idSequence.get(), new ArrayList<>(employees.values()), pendingEvents());
+    }
+
+    private void readSnapshot() throws IOException {
+        try (InputStream in = SnapshotFile.openBody(snapshotFile); JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() == JsonToken.START_ARRAY) {
+                putAll(objectMapper.readValue(parser, new TypeReference<List<Employee>>() {}));
+                return;
+            }
+            Snapshot snapshot = objectMapper.readValue(parser, Snapshot.class);
+            raiseIdSequence(snapshot.lastId());
+            putAll(snapshot.employees());
+            enqueue(snapshot.outbox());
+        }
+    }
+
+    private void checkEmails(List<Employee> batch, Long updatedId) {
+        Set<String> seen = batch.size() > 1 ? new HashSet<>() : null;
+        for (Employee employee : batch) {
+            String email = employee.getEmail();
+            if (email == null) continue;
+            Long owner = index.idForEmail(email);
+            if (owner != null && !owner.equals(updatedId)) throw new DuplicateEmailException(email);
+            if (seen != null && !seen.add(Employee.searchKey(email))) throw new DuplicateEmailException(email);
+        }
+    }
+
+    private void putAll(List<Employee> batch) {
+        for (Employee employee : batch) {
+            put(employee);
+        }
+    }
+
+    private void put(Employee employee) {
+        Employee previous = employees.put(employee.getId(), employee);
+        if (previous != null) {
+            index.remove(previous);
+        }
+        if (!index.add(employee)) {
+            // Only possible for data written before emails were unique; the first owner keeps the lookup.
+            logger.warn("Employee {} shares email {} with another employee; it is not found by email",
+                    employee.getId(), employee.getEmail());
+        }
+    }
+
+    private void raiseIdSequence(Long id) {
+        if (id != null) {
+            idSequence.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    private void remove(Long id) {
+        Employee removed = employees.remove(id);
+        if (removed != null) {
+            index.remove(removed);
+        }
+    }
+
+    private static boolean startsWith(String name, String key) {
+        return name != null && Employee.searchKey(name).startsWith(key);
+    }
+
+    private void apply(JournalEntry entry) {
+        if (PUT.equals(entry.op())) {
+            raiseIdSequence(entry.employee().getId());
+            put(entry.employee());
+        } else if (PUT_ALL.equals(entry.op())) {
+            entry.employees().forEach(employee -> raiseIdSequence(employee.getId()));
+            putAll(entry.employees());
+        } else if (DELETE.equals(entry.op())) {
+            remove(entry.id());
+        } else if (ACK.equals(entry.op())) {
+            acknowledge(entry.delivered());
+        }
+        enqueue(entry.events());
+    }
+
+    private void append(List<JournalEntry> entries) {
+        try {
+            wal.appendAll(entries);
+        } catch (IOException e) {
+            logger.error("Failed to write employee WAL", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Caller holds the write lock, so the copy matches the sealed generation exactly.
+    private void maybeSnapshot() {
+        if (wal.entries() < snapshotThreshold || !snapshotInProgress.compareAndSet(false, true)) return;
+        try {
+            long generation = wal.roll();
+            Snapshot state = currentState();
+            snapshotter.execute(() -> {
+                try {
+                    writeSnapshot(generation, state);
+                } catch (IOException e) {
+                    logger.error("Failed to write employee snapshot for WAL generation {}", generation, e);
+                } finally {
+                    snapshotInProgress.set(false);
+                }
+            });
+        } catch (IOException e) {
+            snapshotInProgress.set(false);
+            logger.error("Failed to roll employee WAL for snapshot", e);
+        }
+    }
+
+    private void writeSnapshot(long generation, Snapshot state) throws IOException {
+        SnapshotFile.write(snapshotFile, generation, out -> {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, state);
+            return state.employees().size();
+        });
+        wal.deleteThrough(generation);
+        logger.info("Wrote employee snapshot for WAL generation {} ({} employees, {} outbox events)",
+                generation, state.employees().size(), state.outbox().size());
+    }
+}
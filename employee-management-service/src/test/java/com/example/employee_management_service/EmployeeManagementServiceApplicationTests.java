@@ -3,7 +3,10 @@ package com.example.employee_management_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"employee.store.dir=target/test-employee-data",
+		"employee.store.legacy-file=target/test-employees.json"
+})
 class EmployeeManagementServiceApplicationTests {
 
 	@Test
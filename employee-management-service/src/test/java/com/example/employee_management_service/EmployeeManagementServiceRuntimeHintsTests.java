@@ -0,0 +1,24 @@
+package com.example.employee_management_service;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeManagementServiceRuntimeHintsTests {
+
+	@Test
+	void registersBindingHintsForTypesTheServiceSerializesItself() {
+		RuntimeHints hints = new RuntimeHints();
+		new EmployeeManagementServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertThat(RuntimeHintsPredicates.reflection().onType(Employee.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(OutboxEvent.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(EmployeeManagementServiceRuntimeHints.JOURNAL_ENTRY))).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(EmployeeManagementServiceRuntimeHints.SNAPSHOT))).accepts(hints);
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.employee_management_service.controller;
+
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.store.EmployeeStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"employee.store.dir=target/test-employee-data-bulk",
+		"employee.store.legacy-file=target/test-employees-bulk.json",
+		"employee.import.chunk-size=2",
+		"outbox.relay.enabled=false"
+})
+@AutoConfigureMockMvc
+class EmployeeBulkTransferTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EmployeeStore employeeStore;
+
+	@Test
+	void importsCsvInChunksWithOneEventPerChunkAndReportsBadRows() throws Exception {
+		String marker = "csv" + System.nanoTime();
+		long eventsBefore = employeeStore.backlog(OutboxEvent.NOTIFICATION);
+		String csv = """
+				id,firstName,lastName,email
+				,Ada,Lovelace,ada@%1$s.io
+				,Grace,Hopper,grace@%1$s.io
+				,Nobody,,nobody@%1$s.io
+				,Alan,Turing,alan-at-%1$s.io
+				,Edsger,Dijkstra,edsger@%1$s.io
+				""".formatted(marker);
+
+		mockMvc.perform(post("/api/employees/import").contentType("text/csv").content(csv))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(3))
+				.andExpect(jsonPath("$.rejected").value(2))
+				.andExpect(jsonPath("$.errors[0].row").value(3))
+				.andExpect(jsonPath("$.errors[0].message").value("lastName is required"))
+				.andExpect(jsonPath("$.errors[1].row").value(4));
+
+		List<OutboxEvent> events = employeeStore.pending(OutboxEvent.ACTIVITY, Integer.MAX_VALUE);
+		assertThat(employeeStore.backlog(OutboxEvent.NOTIFICATION) - eventsBefore).isEqualTo(2);
+		assertThat(events.get(events.size() - 1).getType()).isEqualTo("Employees Imported");
+		assertThat(events.get(events.size() - 1).getDetails()).contains("\"count\":1");
+		assertThat(export("csv")).contains("Grace,Hopper,grace@" + marker + ".io", "Edsger,Dijkstra,edsger@" + marker + ".io");
+	}
+
+	@Test
+	void importsJsonArraysAndNdjsonAndKeepsRowsBeforeUnreadableInput() throws Exception {
+		String marker = "json" + System.nanoTime();
+		mockMvc.perform(post("/api/employees/import").contentType(MediaType.APPLICATION_JSON)
+						.content("[" + row("a", marker) + "," + row("b", marker) + "," + row("c", marker) + "]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(3));
+
+		mockMvc.perform(post("/api/employees/import").contentType("application/x-ndjson")
+						.content(row("d", marker) + "\n" + row("e", marker) + "\n{\"firstName\": oops\n" + row("f", marker)))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.imported").value(2))
+				.andExpect(jsonPath("$.failure").value(startsWith("Unreadable input at row 3")));
+
+		String ndjson = export("ndjson");
+		assertThat(ndjson.lines().filter(line -> line.contains("@" + marker + ".io")))
+				.hasSize(5)
+				.allMatch(line -> line.startsWith("{\"id\":"));
+		assertThat(export("json")).startsWith("[").endsWith("]").contains("\"email\":\"e@" + marker + ".io\"");
+	}
+
+	@Test
+	void rejectsUnknownExportFormat() throws Exception {
+		mockMvc.perform(get("/api/employees/export").param("format", "xml")).andExpect(status().isBadRequest());
+	}
+
+	private String export(String format) throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/employees/export").param("format", format))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(format.equals("csv") ? "text/csv"
+						: format.equals("json") ? "application/json" : "application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private static String row(String name, String marker) {
+		return "{\"firstName\":\"" + name + "\",\"lastName\":\"Bulk\",\"email\":\"" + name + "@" + marker + ".io\"}";
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.employee_management_service.controller;
+
+import com.example.employee_management_service.service.ActivityClient;
+import com.example.employee_management_service.service.NotificationClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"employee.store.dir=target/test-employee-data-etag",
+		"employee.store.legacy-file=target/test-employees-etag.json"
+})
+@AutoConfigureMockMvc
+class EmployeeControllerEtagTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private NotificationClient notificationClient;
+
+	@MockitoBean
+	private ActivityClient activityClient;
+
+	@Test
+	void answersUnchangedListWithNotModified() throws Exception {
+		String etag = mockMvc.perform(get("/api/employees"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"email\":\"ada" + System.nanoTime() + "@example.com\"}"))
+				.andExpect(status().isOk());
+
+		String changed = mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(changed).isNotEqualTo(etag);
+	}
+}
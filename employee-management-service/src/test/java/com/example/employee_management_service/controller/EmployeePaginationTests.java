@@ -0,0 +1,99 @@
+package com.example.employee_management_service.controller;
+
+import com.example.employee_management_service.model.Employee;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"employee.store.dir=target/test-employee-data-pagination",
+		"employee.store.legacy-file=target/test-employees-pagination.json",
+		"outbox.relay.enabled=false"
+})
+@AutoConfigureMockMvc
+class EmployeePaginationTests {
+	private static final String NDJSON = "application/x-ndjson";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void pagesByIdUntilAnEmptyPage() throws Exception {
+		List<Long> ids = create("page" + System.nanoTime(), 5);
+
+		assertThat(page(ids.get(0) - 1, 2)).containsExactly(ids.get(0), ids.get(1));
+		assertThat(page(ids.get(1), 2)).containsExactly(ids.get(2), ids.get(3));
+		assertThat(page(ids.get(3), 2)).as("a short last page").containsExactly(ids.get(4));
+		assertThat(page(ids.get(4), 2)).isEmpty();
+		assertThat(page(ids.get(1), 0)).as("no limit means everything after the cursor")
+				.containsExactly(ids.get(2), ids.get(3), ids.get(4));
+	}
+
+	@Test
+	void streamsOneEmployeePerLineAsNdjson() throws Exception {
+		String marker = "ndjson" + System.nanoTime();
+		List<Long> ids = create(marker, 4);
+
+		List<String> lines = stream(ids.get(0));
+		List<Employee> streamed = new ArrayList<>();
+		for (String line : lines) {
+			streamed.add(objectMapper.readValue(line, Employee.class));
+		}
+		assertThat(streamed).extracting(Employee::getId).containsExactly(ids.get(1), ids.get(2), ids.get(3));
+		assertThat(streamed).allSatisfy(employee -> assertThat(employee.getEmail()).endsWith("@" + marker + ".io"));
+		assertThat(stream(ids.get(3))).as("nothing after the newest employee").isEmpty();
+	}
+
+	private List<Long> create(String marker, int count) throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String json = mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+							.content("{\"firstName\":\"E" + i + "\",\"lastName\":\"Page\",\"email\":\"e" + i + "@" + marker + ".io\"}"))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			ids.add(objectMapper.readValue(json, Employee.class).getId());
+		}
+		return ids;
+	}
+
+	private List<Long> page(long afterId, int limit) throws Exception {
+		String json = mockMvc.perform(get("/api/employees").param("afterId", Long.toString(afterId))
+						.param("limit", Integer.toString(limit)).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readValue(json, new TypeReference<List<Employee>>() {}).stream().map(Employee::getId).toList();
+	}
+
+	/** The lines of the NDJSON stream after {@code afterId}, after checking that every one of them ends in a newline. */
+	private List<String> stream(long afterId) throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/employees").param("afterId", Long.toString(afterId)).accept(NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(NDJSON))
+				.andReturn().getResponse().getContentAsString();
+		if (body.isEmpty()) return List.of();
+		assertThat(body).endsWith("\n").doesNotContain("\n\n");
+		return List.of(body.split("\n"));
+	}
+}
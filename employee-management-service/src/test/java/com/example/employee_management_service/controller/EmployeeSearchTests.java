@@ -0,0 +1,86 @@
+package com.example.employee_management_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"employee.store.dir=target/test-employee-data-search",
+		"employee.store.legacy-file=target/test-employees-search.json",
+		"outbox.relay.enabled=false"
+})
+@AutoConfigureMockMvc
+class EmployeeSearchTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void searchesByEmailAndNamePrefix() throws Exception {
+		String marker = "s" + System.nanoTime();
+		create("Zelda" + marker, "Alpha", "zelda@" + marker + ".io").andExpect(status().isOk());
+		create("Zoe" + marker, "Beta", "zoe@" + marker + ".io").andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/employees/search").param("email", "ZELDA@" + marker + ".io"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].lastName").value("Alpha"));
+		mockMvc.perform(get("/api/employees/search").param("email", "nobody@" + marker + ".io"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(0));
+		mockMvc.perform(get("/api/employees/search").param("name", "zoe" + marker))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].email").value("zoe@" + marker + ".io"));
+		mockMvc.perform(get("/api/employees/search").param("name", "z").param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1));
+	}
+
+	@Test
+	void rejectsAmbiguousSearchesAndDuplicateEmails() throws Exception {
+		String marker = "d" + System.nanoTime();
+		mockMvc.perform(get("/api/employees/search")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/employees/search").param("email", "a@b.io").param("name", "a"))
+				.andExpect(status().isBadRequest());
+
+		create("Ada", "Lovelace", "ada@" + marker + ".io").andExpect(status().isOk());
+		create("Ada", "Byron", "ADA@" + marker + ".io")
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.detail").value(containsString("already exists")));
+		String other = create("Grace", "Hopper", "grace@" + marker + ".io").andReturn().getResponse().getContentAsString();
+		String id = other.replaceAll(".*\"id\":(\\d+).*", "$1");
+		mockMvc.perform(put("/api/employees/" + id).contentType(MediaType.APPLICATION_JSON)
+						.content(json("Grace", "Hopper", "ada@" + marker + ".io")))
+				.andExpect(status().isConflict());
+
+		mockMvc.perform(post("/api/employees/import").contentType("application/x-ndjson")
+						.content(json("Ada", "Again", "ada@" + marker + ".io") + "\n"
+								+ json("Alan", "Turing", "alan@" + marker + ".io") + "\n"
+								+ json("Alan", "Twice", "Alan@" + marker + ".io")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(1))
+				.andExpect(jsonPath("$.errors[0].message").value("email is already taken"))
+				.andExpect(jsonPath("$.errors[1].message").value("email repeats an earlier row"));
+	}
+
+	private ResultActions create(String firstName, String lastName, String email) throws Exception {
+		return mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+				.content(json(firstName, lastName, email)));
+	}
+
+	private static String json(String firstName, String lastName, String email) {
+		return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"" + lastName + "\",\"email\":\"" + email + "\"}";
+	}
+}
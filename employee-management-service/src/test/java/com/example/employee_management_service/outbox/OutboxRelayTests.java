@@ -0,0 +1,167 @@
+package com.example.employee_management_service.outbox;
+
+import com.example.employee_management_service.model.ActivityEvent;
+import com.example.employee_management_service.model.NotificationRequest;
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.service.ActivityClient;
+import com.example.employee_management_service.service.NotificationClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class OutboxRelayTests {
+
+	private final InMemoryOutbox outbox = new InMemoryOutbox();
+	private final NotificationClient notificationClient = mock(NotificationClient.class);
+	private final ActivityClient activityClient = mock(ActivityClient.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private OutboxRelay relay;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		relay.stop();
+	}
+
+	@Test
+	void retriesFailedBatchesInOrderWithoutHoldingUpTheOtherTarget() throws Exception {
+		List<String> notified = new CopyOnWriteArrayList<>();
+		AtomicInteger failures = new AtomicInteger(2);
+		doAnswer(invocation -> {
+			if (failures.getAndDecrement() > 0) throw new ResourceAccessException("connection refused");
+			List<NotificationRequest> batch = invocation.getArgument(0);
+			batch.forEach(request -> notified.add(request.eventId()));
+			return null;
+		}).when(notificationClient).send(anyList());
+		List<ActivityEvent> recorded = new CopyOnWriteArrayList<>();
+		doAnswer(invocation -> recorded.addAll(invocation.getArgument(0))).when(activityClient).send(anyList());
+
+		List<OutboxEvent> events = new ArrayList<>();
+		for (long employeeId = 1; employeeId <= 3; employeeId++) {
+			events.addAll(outbox.add(OutboxEvents.forChange("Employee Created", employeeId, employeeId)));
+		}
+		startRelay();
+
+		awaitEmpty(OutboxEvent.ACTIVITY);
+		awaitEmpty(OutboxEvent.NOTIFICATION);
+		assertThat(notified).containsExactlyElementsOf(events.stream()
+				.filter(event -> OutboxEvent.NOTIFICATION.equals(event.getDestination()))
+				.map(OutboxEvent::getEventId).toList());
+		assertThat(recorded).extracting(ActivityEvent::service).containsOnly("employee-management-service");
+		assertThat(recorded).extracting(event -> event.details().asLong()).containsExactly(1L, 2L, 3L);
+		assertThat(meterRegistry.get("outbox.delivered").tag("destination", OutboxEvent.NOTIFICATION).counter().count())
+				.isEqualTo(3);
+	}
+
+	@Test
+	void dropsOnlyTheEventsATargetRejects() throws Exception {
+		List<Long> notified = new CopyOnWriteArrayList<>();
+		doAnswer(invocation -> {
+			List<NotificationRequest> batch = invocation.getArgument(0);
+			if (batch.stream().anyMatch(request -> request.employeeId() == 2L)) {
+				throw HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null);
+			}
+			batch.forEach(request -> notified.add(request.employeeId()));
+			return null;
+		}).when(notificationClient).send(anyList());
+		for (long employeeId = 1; employeeId <= 3; employeeId++) {
+			outbox.add(OutboxEvents.forChange("Employee Updated", employeeId, employeeId));
+		}
+		startRelay();
+
+		awaitEmpty(OutboxEvent.NOTIFICATION);
+		assertThat(notified).containsExactly(1L, 3L);
+		assertThat(meterRegistry.get("outbox.rejected").tag("destination", OutboxEvent.NOTIFICATION).counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void dropsAnEventThatCannotBeEncodedWithoutRetryingOrHoldingUpTheRest() throws Exception {
+		List<Long> recorded = new CopyOnWriteArrayList<>();
+		AtomicInteger sends = new AtomicInteger();
+		doAnswer(invocation -> {
+			sends.incrementAndGet();
+			List<ActivityEvent> batch = invocation.getArgument(0);
+			batch.forEach(event -> recorded.add(event.details().asLong()));
+			return null;
+		}).when(activityClient).send(anyList());
+		for (long employeeId = 1; employeeId <= 3; employeeId++) {
+			for (OutboxEvent event : OutboxEvents.forChange("Employee Updated", employeeId, employeeId)) {
+				if (employeeId == 2 && OutboxEvent.ACTIVITY.equals(event.getDestination())) {
+					event.setDetails("{\"firstName\":");
+				}
+				outbox.add(List.of(event));
+			}
+		}
+		startRelay();
+
+		awaitEmpty(OutboxEvent.ACTIVITY);
+		assertThat(recorded).containsExactly(1L, 3L);
+		assertThat(sends).as("the rest of the batch goes out at once").hasValue(1);
+		assertThat(meterRegistry.get("outbox.rejected").tag("destination", OutboxEvent.ACTIVITY).counter().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.get("outbox.delivered").tag("destination", OutboxEvent.ACTIVITY).counter().count())
+				.isEqualTo(2);
+	}
+
+	private void startRelay() {
+		relay = new OutboxRelay(outbox, notificationClient, activityClient, meterRegistry, Tracer.NOOP);
+		ReflectionTestUtils.setField(relay, "batchSize", 10);
+		ReflectionTestUtils.setField(relay, "pollIntervalMs", 10L);
+		ReflectionTestUtils.setField(relay, "retryBackoffMs", 10L);
+		ReflectionTestUtils.setField(relay, "maxBackoffMs", 40L);
+		ReflectionTestUtils.setField(relay, "enabled", true);
+		relay.start();
+	}
+
+	private void awaitEmpty(String destination) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (outbox.backlog(destination) > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(outbox.backlog(destination)).isZero();
+	}
+
+	private static class InMemoryOutbox implements Outbox {
+		private final ConcurrentSkipListMap<Long, OutboxEvent> events = new ConcurrentSkipListMap<>();
+		private long sequence;
+
+		synchronized List<OutboxEvent> add(List<OutboxEvent> batch) {
+			for (OutboxEvent event : batch) {
+				event.setId(++sequence);
+				events.put(event.getId(), event);
+			}
+			return batch;
+		}
+
+		@Override
+		public List<OutboxEvent> pending(String destination, int limit) {
+			return events.values().stream().filter(event -> destination.equals(event.getDestination())).limit(limit).toList();
+		}
+
+		@Override
+		public void markDelivered(List<OutboxEvent> delivered) {
+			delivered.forEach(event -> events.remove(event.getId()));
+		}
+
+		@Override
+		public long backlog(String destination) {
+			return events.values().stream().filter(event -> destination.equals(event.getDestination())).count();
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.example.employee_management_service.service;
+
+import com.example.employee_management_service.model.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingEmployeeServiceTests {
+
+	private final CountingBackend backend = new CountingBackend();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CachingEmployeeService service = new CachingEmployeeService(backend, meterRegistry, 100, 60000, 60000);
+
+	@Test
+	void servesRepeatedLookupsFromTheCache() {
+		Employee created = service.createEmployee(employee("Ada"));
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(service.getEmployeeById(created.getId()).getFirstName()).isEqualTo("Ada");
+		}
+
+		assertThat(backend.lookups.get()).isEqualTo(1);
+		assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", "employees").gauge().value()).isEqualTo(2.0 / 3);
+	}
+
+	@Test
+	void cachesMissingIdsUntilTheyAreCreated() {
+		assertThat(service.getEmployeeById(1L)).isNull();
+		assertThat(service.getEmployeeById(1L)).isNull();
+		assertThat(backend.lookups.get()).isEqualTo(1);
+
+		service.createEmployee(employee("Ada"));
+
+		assertThat(service.getEmployeeById(1L)).isNotNull();
+		assertThat(backend.lookups.get()).isEqualTo(2);
+	}
+
+	@Test
+	void writesInvalidateCachedEntries() {
+		Employee created = service.createEmployee(employee("Ada"));
+		service.getEmployeeById(created.getId());
+
+		service.updateEmployee(created.getId(), employee("Grace"));
+		assertThat(service.getEmployeeById(created.getId()).getFirstName()).isEqualTo("Grace");
+
+		service.deleteEmployee(created.getId());
+		assertThat(service.getEmployeeById(created.getId())).isNull();
+	}
+
+	@Test
+	void listSnapshotKeepsItsTagUntilTheNextWrite() {
+		service.createEmployee(employee("Ada"));
+		EmployeeListSnapshot first = service.getEmployeeListSnapshot();
+		EmployeeListSnapshot second = service.getEmployeeListSnapshot();
+
+		assertThat(second.etag()).isEqualTo(first.etag());
+		assertThat(backend.listLoads.get()).isEqualTo(1);
+
+		service.createEmployees(List.of(employee("Grace"), employee("Linus")));
+		EmployeeListSnapshot third = service.getEmployeeListSnapshot();
+
+		assertThat(third.etag()).isNotEqualTo(first.etag());
+		assertThat(third.employees()).extracting(Employee::getFirstName).containsExactly("Ada", "Grace", "Linus");
+	}
+
+	private static Employee employee(String firstName) {
+		Employee employee = new Employee();
+		employee.setFirstName(firstName);
+		employee.setLastName("Test");
+		employee.setEmail(firstName.toLowerCase() + "@example.com");
+		return employee;
+	}
+
+	/** In-memory backend that counts reads. */
+	private static class CountingBackend implements EmployeeService {
+		private final Map<Long, Employee> employees = new ConcurrentSkipListMap<>();
+		private final AtomicLong nextId = new AtomicLong(1);
+		private final AtomicInteger lookups = new AtomicInteger();
+		private final AtomicInteger listLoads = new AtomicInteger();
+
+		@Override
+		public Employee createEmployee(Employee employee) {
+			employee.setId(nextId.getAndIncrement());
+			employees.put(employee.getId(), employee);
+			return employee;
+		}
+
+		@Override
+		public List<Employee> createEmployees(List<Employee> batch) {
+			batch.forEach(this::createEmployee);
+			return batch;
+		}
+
+		@Override
+		public List<Employee> importEmployees(List<Employee> chunk) {
+			return createEmployees(chunk);
+		}
+
+		@Override
+		public List<Employee> getAllEmployees() {
+			listLoads.incrementAndGet();
+			return new ArrayList<>(employees.values());
+		}
+
+		@Override
+		public List<Employee> getEmployees(long afterId, int limit) {
+			return getAllEmployees().stream().filter(e -> e.getId() > afterId).limit(limit).toList();
+		}
+
+		@Override
+		public Employee getEmployeeById(Long id) {
+			lookups.incrementAndGet();
+			return employees.get(id);
+		}
+
+		@Override
+		public Employee findByEmail(String email) {
+			return employees.values().stream().filter(e -> email.equalsIgnoreCase(e.getEmail())).findFirst().orElse(null);
+		}
+
+		@Override
+		public List<Employee> searchByName(String prefix, int limit) {
+			return List.of();
+		}
+
+		@Override
+		public Employee updateEmployee(Long id, Employee employee) {
+			if (!employees.containsKey(id)) return null;
+			employee.setId(id);
+			employees.put(id, employee);
+			return employee;
+		}
+
+		@Override
+		public void deleteEmployee(Long id) {
+			employees.remove(id);
+		}
+	}
+}
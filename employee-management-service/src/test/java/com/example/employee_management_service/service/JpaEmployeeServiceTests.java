@@ -0,0 +1,162 @@
+package com.example.employee_management_service.service;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.repository.EmployeeRepository;
+import com.example.employee_management_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(properties = {"employee.storage=jpa", "outbox.relay.enabled=false"})
+class JpaEmployeeServiceTests {
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	@Qualifier("employeeBackend")
+	private EmployeeService employeeBackend;
+
+	@MockitoBean
+	private NotificationClient notificationClient;
+
+	@MockitoBean
+	private ActivityClient activityClient;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@MockitoSpyBean
+	private EmployeeRepository employeeRepository;
+
+	@Test
+	void usesJpaImplementation() {
+		assertThat(employeeBackend).isInstanceOf(JpaEmployeeService.class);
+	}
+
+	@Test
+	void createUpdateAndDelete() {
+		Employee created = employeeService.createEmployee(employee("Ada", "ada@example.com"));
+		assertThat(created.getId()).isNotNull();
+		assertThat(eventsFor(created.getId())).extracting(OutboxEvent::getDestination, OutboxEvent::getType)
+				.containsExactly(tuple(OutboxEvent.NOTIFICATION, "Employee Created"), tuple(OutboxEvent.ACTIVITY, "Employee Created"));
+
+		Employee updated = employeeService.updateEmployee(created.getId(), employee("Grace", "grace@example.com"));
+		assertThat(updated.getFirstName()).isEqualTo("Grace");
+		assertThat(employeeService.getEmployeeById(created.getId()).getEmail()).isEqualTo("grace@example.com");
+
+		employeeService.deleteEmployee(created.getId());
+		assertThat(employeeService.getEmployeeById(created.getId())).isNull();
+		assertThat(eventsFor(created.getId())).extracting(OutboxEvent::getType)
+				.containsExactly("Employee Created", "Employee Created", "Employee Updated", "Employee Updated",
+						"Employee Deleted", "Employee Deleted");
+	}
+
+	@Test
+	void updateOfMissingEmployeeReturnsNull() {
+		assertThat(employeeService.updateEmployee(-1L, employee("Nobody", "nobody@example.com"))).isNull();
+	}
+
+	@Test
+	void bulkCreateAssignsDistinctIds() {
+		List<Employee> batch = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			batch.add(employee("Bulk" + i, "bulk" + i + "@example.com"));
+		}
+		List<Employee> created = employeeService.createEmployees(batch);
+
+		assertThat(created).extracting(Employee::getId).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(employeeService.getAllEmployees()).extracting(Employee::getEmail).contains("bulk0@example.com", "bulk119@example.com");
+		assertThat(created).allSatisfy(employee -> assertThat(eventsFor(employee.getId())).hasSize(2));
+	}
+
+	@Test
+	void searchesByEmailAndNamePrefixAndRejectsDuplicateEmails() {
+		Employee quinn = employeeService.createEmployee(employee("Quinn", "quinn@search.io"));
+		Employee quentin = employeeService.createEmployee(employee("Quentin", "quentin@search.io"));
+
+		assertThat(employeeService.findByEmail("QUINN@search.io").getId()).isEqualTo(quinn.getId());
+		assertThat(employeeService.searchByName("qu", 10)).extracting(Employee::getId)
+				.containsExactly(quentin.getId(), quinn.getId());
+		assertThat(employeeService.searchByName("QUI", 10)).extracting(Employee::getId).containsExactly(quinn.getId());
+
+		assertThatThrownBy(() -> employeeService.createEmployee(employee("Other", "Quinn@Search.io")))
+				.isInstanceOf(DuplicateEmailException.class);
+		assertThatThrownBy(() -> employeeService.updateEmployee(quentin.getId(), employee("Quentin", "quinn@search.io")))
+				.isInstanceOf(DuplicateEmailException.class);
+		assertThat(employeeService.updateEmployee(quinn.getId(), employee("Quincy", "quinn@search.io")).getFirstName())
+				.isEqualTo("Quincy");
+		assertThat(employeeService.searchByName("quin", 10)).extracting(Employee::getFirstName).containsExactly("Quincy");
+	}
+
+	@Test
+	void emailTakenAfterTheCheckIsStillRejectedAsADuplicate() {
+		Employee rae = employeeService.createEmployee(employee("Rae", "rae@race.io"));
+		long events = outboxEventRepository.count();
+
+		missNextEmailCheck();
+		assertThatThrownBy(() -> employeeService.createEmployee(employee("Ray", "RAE@race.io")))
+				.isInstanceOf(DuplicateEmailException.class);
+
+		missNextEmailCheck();
+		List<Employee> batch = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			batch.add(employee("Racer" + i, i == 10 ? "rae@race.io" : "racer" + i + "@race.io"));
+		}
+		assertThatThrownBy(() -> employeeService.createEmployees(batch)).isInstanceOf(DuplicateEmailException.class);
+
+		missNextEmailCheck();
+		Employee other = employeeService.createEmployee(employee("Other", "other@race.io"));
+		missNextEmailCheck();
+		assertThatThrownBy(() -> employeeService.updateEmployee(other.getId(), employee("Other", "rae@race.io")))
+				.isInstanceOf(DuplicateEmailException.class);
+
+		assertThat(employeeService.findByEmail("racer0@race.io")).isNull();
+		assertThat(employeeService.findByEmail("rae@race.io").getId()).isEqualTo(rae.getId());
+		assertThat(outboxEventRepository.count()).isEqualTo(events + 2);
+	}
+
+	@Test
+	void updateOfMissingEmployeeWritesNoEvents() {
+		long before = outboxEventRepository.count();
+		employeeService.updateEmployee(-1L, employee("Nobody", "nobody@example.com"));
+		employeeService.deleteEmployee(-1L);
+		assertThat(outboxEventRepository.count()).isEqualTo(before);
+	}
+
+	/** Makes the next email check find no owner, as if the owner had been committed just after it ran. */
+	private void missNextEmailCheck() {
+		Answer<?> real = mockingDetails(employeeRepository).getMockCreationSettings().getDefaultAnswer();
+		doReturn(List.of()).doAnswer(real).when(employeeRepository).findByEmailKeyIn(any());
+	}
+
+	private List<OutboxEvent> eventsFor(Long employeeId) {
+		return outboxEventRepository.findAll(Sort.by("id")).stream()
+				.filter(event -> employeeId.equals(event.getEmployeeId()))
+				.toList();
+	}
+
+	private static Employee employee(String firstName, String email) {
+		Employee employee = new Employee();
+		employee.setFirstName(firstName);
+		employee.setLastName("Test");
+		employee.setEmail(email);
+		return employee;
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.employee_management_service.store;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.service_commons.testing.ConcurrentAppends;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeStoreConcurrencyTests {
+	private static final int THREADS = 16;
+	private static final int INSERTS_PER_THREAD = 500;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void concurrentWritesGetDenseIdsAndKeepEachWritersOrderAfterAReload() throws Exception {
+		// A low snapshot threshold makes background snapshots run while other threads are writing.
+		EmployeeStore store = newStore(250);
+		Set<Long> ids = ConcurrentAppends.run(THREADS, INSERTS_PER_THREAD, (thread, i) -> {
+			Employee created = store.insert(employee("t" + thread + "-" + i));
+			// Every thread also rewrites employee 1, so updates to one key race each other.
+			store.update(1L, employee("hot-" + thread));
+			return created.getId();
+		});
+
+		int total = THREADS * INSERTS_PER_THREAD;
+		assertThat(ids).as("ids are handed out without gaps")
+				.containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, total).boxed().toList());
+		assertThat(store.count()).isEqualTo(total);
+		String hotName = store.findById(1L).getFirstName();
+		store.close();
+
+		EmployeeStore reloaded = newStore(250);
+		assertThat(reloaded.count()).isEqualTo(total);
+		List<Employee> all = reloaded.findAll();
+		assertThat(all).extracting(Employee::getId).containsExactlyElementsOf(LongStream.rangeClosed(1, total).boxed().toList());
+		assertThat(reloaded.findById(1L).getFirstName()).isEqualTo(hotName);
+		// Apart from the hot key, each writer's inserts still hold their own names, in the order it made them.
+		List<Employee> inserted = all.stream().filter(employee -> employee.getId() != 1L).toList();
+		for (int t = 0; t < THREADS; t++) {
+			String prefix = "t" + t + "-";
+			assertThat(inserted).filteredOn(employee -> employee.getFirstName().startsWith(prefix))
+					.as("writer %d's inserts by id", t)
+					.extracting(employee -> Integer.parseInt(employee.getFirstName().substring(prefix.length())))
+					.isSorted().doesNotHaveDuplicates();
+		}
+		assertThat(inserted).allSatisfy(employee -> assertThat(employee.getFirstName()).startsWith("t"));
+		assertThat(reloaded.insert(employee("next")).getId()).isEqualTo(total + 1L);
+		reloaded.close();
+	}
+
+	private EmployeeStore newStore(int snapshotThreshold) throws Exception {
+		EmployeeStore store = new EmployeeStore(dir.resolve("data").toString(),
+				dir.resolve("employees.json").toString(), snapshotThreshold, 0);
+		store.load();
+		return store;
+	}
+
+	private static Employee employee(String firstName) {
+		Employee employee = new Employee();
+		employee.setFirstName(firstName);
+		employee.setLastName("Stress");
+		employee.setEmail(firstName + "@example.com");
+		return employee;
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.employee_management_service.store;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.service.DuplicateEmailException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmployeeStoreIndexTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void findsByEmailAndNamePrefixIgnoringCase() throws Exception {
+		EmployeeStore store = newStore(10000);
+		store.insertAll(List.of(
+				employee("Ada", "Lovelace", "ada@example.com"),
+				employee("Alan", "Turing", "alan@example.com"),
+				employee("Grace", "Hopper", "grace@example.com"),
+				employee("Lavinia", "Adams", "lavinia@example.com")));
+
+		assertThat(store.findByEmail("ADA@Example.com").getFirstName()).isEqualTo("Ada");
+		assertThat(store.findByEmail("nobody@example.com")).isNull();
+		// Ordered by the name that matched; Ada matches on both names but is listed once.
+		assertThat(store.searchByName("ad", 10)).extracting(Employee::getFirstName).containsExactly("Ada", "Lavinia");
+		assertThat(store.searchByName("L", 10)).extracting(Employee::getFirstName).containsExactly("Lavinia", "Ada");
+		assertThat(store.searchByName("a", 2)).extracting(Employee::getFirstName).containsExactly("Ada", "Lavinia");
+		assertThat(store.searchByName("x", 10)).isEmpty();
+		store.close();
+	}
+
+	@Test
+	void keepsIndexesInStepWithUpdatesDeletesAndRestarts() throws Exception {
+		EmployeeStore store = newStore(2);
+		Employee ada = store.insert(employee("Ada", "Lovelace", "ada@example.com"));
+		Employee alan = store.insert(employee("Alan", "Turing", "alan@example.com"));
+		store.update(ada.getId(), employee("Augusta", "King", "augusta@example.com"));
+		store.delete(alan.getId());
+
+		assertThat(store.findByEmail("ada@example.com")).isNull();
+		assertThat(store.findByEmail("alan@example.com")).isNull();
+		assertThat(store.searchByName("lovelace", 10)).isEmpty();
+		assertThat(store.searchByName("kin", 10)).extracting(Employee::getId).containsExactly(ada.getId());
+		// The email of a deleted or renamed employee can be used again.
+		store.insert(employee("Ada", "Byron", "ADA@example.com"));
+		store.close();
+
+		EmployeeStore reloaded = newStore(2);
+		assertThat(reloaded.findByEmail("augusta@example.com").getId()).isEqualTo(ada.getId());
+		assertThat(reloaded.findByEmail("ada@example.com").getLastName()).isEqualTo("Byron");
+		assertThat(reloaded.searchByName("a", 10)).extracting(Employee::getFirstName).containsExactly("Ada", "Augusta");
+		reloaded.close();
+	}
+
+	@Test
+	void rejectsDuplicateEmailsWithoutWritingAnything() throws Exception {
+		EmployeeStore store = newStore(10000);
+		Employee ada = store.insert(employee("Ada", "Lovelace", "ada@example.com"));
+		Employee grace = store.insert(employee("Grace", "Hopper", "grace@example.com"));
+
+		assertThatThrownBy(() -> store.insert(employee("Other", "Ada", "Ada@Example.com")))
+				.isInstanceOf(DuplicateEmailException.class);
+		assertThatThrownBy(() -> store.insertAll(List.of(employee("One", "Twin", "twin@example.com"),
+				employee("Two", "Twin", "TWIN@example.com"))))
+				.isInstanceOf(DuplicateEmailException.class);
+		assertThatThrownBy(() -> store.update(grace.getId(), employee("Grace", "Hopper", "ada@example.com")))
+				.isInstanceOf(DuplicateEmailException.class);
+		// Keeping one's own email is not a conflict.
+		assertThat(store.update(ada.getId(), employee("Ada", "King", "ADA@example.com")).getLastName()).isEqualTo("King");
+
+		assertThat(store.count()).isEqualTo(2);
+		assertThat(store.searchByName("twin", 10)).isEmpty();
+		assertThat(store.findByEmail("grace@example.com").getId()).isEqualTo(grace.getId());
+		store.close();
+	}
+
+	private EmployeeStore newStore(int snapshotThreshold) throws Exception {
+		EmployeeStore store = new EmployeeStore(dir.resolve("data").toString(),
+				dir.resolve("employees.json").toString(), snapshotThreshold, 0);
+		store.load();
+		return store;
+	}
+
+	private static Employee employee(String firstName, String lastName, String email) {
+		Employee employee = new Employee();
+		employee.setFirstName(firstName);
+		employee.setLastName(lastName);
+		employee.setEmail(email);
+		return employee;
+	}
+}
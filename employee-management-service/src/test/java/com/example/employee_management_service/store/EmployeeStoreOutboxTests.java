@@ -0,0 +1,82 @@
+package com.example.employee_management_service.store;
+
+import com.example.employee_management_service.model.Employee;
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.outbox.OutboxEvents;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeStoreOutboxTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void pendingEventsSurviveRestartUntilDelivered() throws Exception {
+		EmployeeStore store = newStore(10000);
+		Employee created = store.insertAll(List.of(employee("Ada")),
+				employee -> OutboxEvents.forChange("Employee Created", employee.getId(), employee)).get(0);
+		store.update(created.getId(), employee("Grace"),
+				employee -> OutboxEvents.forChange("Employee Updated", employee.getId(), employee));
+		store.delete(created.getId(), OutboxEvents.forChange("Employee Deleted", created.getId(), created.getId()));
+
+		List<OutboxEvent> notifications = store.pending(OutboxEvent.NOTIFICATION, 10);
+		assertThat(notifications).extracting(OutboxEvent::getType)
+				.containsExactly("Employee Created", "Employee Updated", "Employee Deleted");
+		assertThat(notifications).extracting(OutboxEvent::getEmployeeId).containsOnly(created.getId());
+		assertThat(store.pending(OutboxEvent.ACTIVITY, 10)).hasSize(3);
+		store.markDelivered(notifications.subList(0, 2));
+		store.close();
+
+		EmployeeStore reloaded = newStore(10000);
+		assertThat(reloaded.pending(OutboxEvent.NOTIFICATION, 10)).extracting(OutboxEvent::getEventId)
+				.containsExactly(notifications.get(2).getEventId());
+		assertThat(reloaded.backlog(OutboxEvent.ACTIVITY)).isEqualTo(3);
+		assertThat(reloaded.pending(OutboxEvent.ACTIVITY, 10).get(1).getDetails()).contains("\"firstName\":\"Grace\"");
+		reloaded.close();
+	}
+
+	@Test
+	void snapshotsCarryUndeliveredEventsAndKeepTheirOrder() throws Exception {
+		// A threshold of 2 seals and snapshots the WAL while events are still pending.
+		EmployeeStore store = newStore(2);
+		for (int i = 0; i < 5; i++) {
+			store.insertAll(List.of(employee("e" + i)),
+					employee -> OutboxEvents.forChange("Employee Created", employee.getId(), employee));
+		}
+		store.markDelivered(store.pending(OutboxEvent.ACTIVITY, 2));
+		store.close();
+
+		EmployeeStore reloaded = newStore(2);
+		assertThat(reloaded.pending(OutboxEvent.NOTIFICATION, 10)).extracting(OutboxEvent::getEmployeeId)
+				.containsExactly(1L, 2L, 3L, 4L, 5L);
+		assertThat(reloaded.pending(OutboxEvent.ACTIVITY, 10)).extracting(OutboxEvent::getEmployeeId)
+				.containsExactly(3L, 4L, 5L);
+		Employee next = reloaded.insertAll(List.of(employee("next")),
+				employee -> OutboxEvents.forChange("Employee Created", employee.getId(), employee)).get(0);
+		List<OutboxEvent> activities = reloaded.pending(OutboxEvent.ACTIVITY, 10);
+		assertThat(activities.get(activities.size() - 1).getEmployeeId()).isEqualTo(next.getId());
+		assertThat(activities).extracting(OutboxEvent::getId).isSorted();
+		reloaded.close();
+	}
+
+	private EmployeeStore newStore(int snapshotThreshold) throws Exception {
+		EmployeeStore store = new EmployeeStore(dir.resolve("data").toString(),
+				dir.resolve("employees.json").toString(), snapshotThreshold, 0);
+		store.load();
+		return store;
+	}
+
+	private static Employee employee(String firstName) {
+		Employee employee = new Employee();
+		employee.setFirstName(firstName);
+		employee.setLastName("Outbox");
+		employee.setEmail(firstName + "@example.com");
+		return employee;
+	}
+}
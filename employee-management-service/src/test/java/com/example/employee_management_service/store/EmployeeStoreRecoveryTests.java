@@ -0,0 +1,107 @@
+package com.example.employee_management_service.store;
+
+import com.example.employee_management_service.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeStoreRecoveryTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void snapshotRenameLostInACrashIsRecoveredFromThePreviousSnapshotAndTheWal() throws Exception {
+		EmployeeStore store = newStore();
+		Employee ada = store.insert(employee("Ada"));
+		store.insert(employee("Grace"));
+		store.close();
+		Path data = dir.resolve("data");
+		Path snapshot = data.resolve("employees.snapshot");
+		Path saved = Files.createDirectories(dir.resolve("saved"));
+		Files.copy(snapshot, saved.resolve("employees.snapshot"));
+
+		store = newStore();
+		store.insert(employee("Linus"));
+		store.update(ada.getId(), employee("Ada Augusta"));
+		for (Path wal : walFiles(data)) {
+			Files.copy(wal, saved.resolve(wal.getFileName()));
+		}
+		store.close();
+
+		// A power loss after close() that kept the deletes but not the rename of the
+		// new snapshot. Syncing the directory before deleting rules out losing the WAL
+		// too, so this is the worst case: the new snapshot is still a temp file.
+		Files.move(snapshot, data.resolve("employees.snapshot.tmp"));
+		try (Stream<Path> files = Files.list(saved)) {
+			for (Path file : files.toList()) {
+				Files.copy(file, data.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+
+		EmployeeStore recovered = newStore();
+		assertThat(recovered.findAll()).extracting(Employee::getFirstName)
+				.containsExactly("Ada Augusta", "Grace", "Linus");
+		recovered.insert(employee("Barbara"));
+		recovered.close();
+
+		EmployeeStore reopened = newStore();
+		assertThat(reopened.findAll()).extracting(Employee::getFirstName)
+				.containsExactly("Ada Augusta", "Grace", "Linus", "Barbara");
+		reopened.close();
+	}
+
+	@Test
+	void idOfTheDeletedNewestEmployeeIsNotReusedAfterARestart() throws Exception {
+		EmployeeStore store = newStore();
+		store.insert(employee("Ada"));
+		Employee grace = store.insert(employee("Grace"));
+		store.delete(grace.getId());
+		store.close();
+
+		EmployeeStore reopened = newStore();
+		assertThat(reopened.insert(employee("Linus")).getId()).isEqualTo(grace.getId() + 1);
+		reopened.close();
+	}
+
+	@Test
+	void idOfTheDeletedNewestEmployeeIsNotReusedAfterACrash() throws Exception {
+		EmployeeStore store = newStore();
+		store.insert(employee("Ada"));
+		Employee grace = store.insert(employee("Grace"));
+		store.delete(grace.getId());
+		// Not closed, so there is no snapshot and the restart replays the WAL.
+
+		EmployeeStore recovered = newStore();
+		assertThat(recovered.insert(employee("Linus")).getId()).isEqualTo(grace.getId() + 1);
+		recovered.close();
+	}
+
+	private EmployeeStore newStore() throws Exception {
+		EmployeeStore store = new EmployeeStore(dir.resolve("data").toString(),
+				dir.resolve("employees.json").toString(), 10000, 0);
+		store.load();
+		return store;
+	}
+
+	private static List<Path> walFiles(Path data) throws Exception {
+		try (Stream<Path> files = Files.list(data)) {
+			return files.filter(path -> path.toString().endsWith(".wal")).toList();
+		}
+	}
+
+	private static Employee employee(String firstName) {
+		Employee employee = new Employee();
+		employee.setFirstName(firstName);
+		employee.setLastName("Recovery");
+		employee.setEmail(firstName.replace(' ', '.') + "@example.com");
+		return employee;
+	}
+}
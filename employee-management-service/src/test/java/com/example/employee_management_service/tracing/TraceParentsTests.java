@@ -0,0 +1,67 @@
+package com.example.employee_management_service.tracing;
+
+import com.example.employee_management_service.model.OutboxEvent;
+import com.example.employee_management_service.outbox.OutboxEvents;
+import com.example.service_commons.tracing.TraceParents;
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceParentsTests {
+
+	private static final String TRACE_A = "0af7651916cd43dd8448eb211c80319c";
+	private static final String TRACE_B = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+	@Test
+	void outboxEventsRecordTheTraceOfTheRequestThatWroteThem() {
+		assertThat(OutboxEvents.forChange("Employee Created", 1L, 1L)).extracting(OutboxEvent::getTraceParent)
+				.containsOnlyNulls();
+
+		SpanContext request = SpanContext.create(TRACE_A, "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault());
+		try (Scope ignored = Span.wrap(request).makeCurrent()) {
+			assertThat(OutboxEvents.forChange("Employee Created", 1L, 1L)).extracting(OutboxEvent::getTraceParent)
+					.containsOnly("00-" + TRACE_A + "-b7ad6b7169203331-01");
+		}
+	}
+
+	@Test
+	void batchFromOneTraceContinuesIt() {
+		SimpleTracer tracer = new SimpleTracer();
+		String traceParent = "00-" + TRACE_A + "-b7ad6b7169203331-01";
+
+		TraceParents.startBatchSpan(tracer, "outbox relay", List.of(traceParent, traceParent)).end();
+
+		SimpleSpan span = tracer.onlySpan();
+		assertThat(span.getTraceId()).isEqualTo(TRACE_A);
+		assertThat(span.getParentId()).isEqualTo("b7ad6b7169203331");
+		assertThat(span.getLinks()).isEmpty();
+	}
+
+	@Test
+	void batchFromSeveralTracesLinksToEachOfThem() {
+		SimpleTracer tracer = new SimpleTracer();
+
+		TraceParents.startBatchSpan(tracer, "outbox relay", Arrays.asList(
+				"00-" + TRACE_A + "-b7ad6b7169203331-01",
+				null,
+				"00-" + TRACE_B + "-00f067aa0ba902b7-01",
+				"not-a-traceparent")).end();
+
+		SimpleSpan span = tracer.onlySpan();
+		assertThat(span.getTraceId()).isNotIn(TRACE_A, TRACE_B);
+		assertThat(span.getLinks()).extracting(Link::getTraceContext)
+				.extracting(context -> context.traceId() + "/" + context.spanId())
+				.containsExactly(TRACE_A + "/b7ad6b7169203331", TRACE_B + "/00f067aa0ba902b7");
+	}
+}
@@ -0,0 +1,155 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for finding a service's concurrency ceiling.
+ *
+ * <p>For each concurrency level it starts that many virtual-thread clients, each
+ * sending one request after the other for the given duration, then prints
+ * throughput and latency percentiles. Throughput that stops growing while latency
+ * climbs marks the ceiling. Run it without a build:
+ *
+ * <pre>
+ * java load-test/LoadTest.java --concurrency 50,200,800,2000 --duration 20
+ * </pre>
+ *
+ * Options (defaults in brackets):
+ * <ul>
+ *   <li>{@code --url} [http://localhost:8081/api/employees]</li>
+ *   <li>{@code --method} GET or POST [POST]</li>
+ *   <li>{@code --body} request body for POST; {@code {n}} is replaced with a unique number
+ *       [an employee with email load{n}@example.com]</li>
+ *   <li>{@code --concurrency} comma-separated levels [50,200,800]</li>
+ *   <li>{@code --duration} seconds measured per level [20]</li>
+ *   <li>{@code --warmup} seconds run before measuring each level [5]</li>
+ * </ul>
+ */
+public class LoadTest {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    record Result(int concurrency, long requests, long errors, double seconds, long[] latenciesNanos) {
+        double throughput() {
+            return requests / seconds;
+        }
+
+        double percentileMillis(double p) {
+            if (latenciesNanos.length == 0) return 0;
+            int index = (int) Math.ceil(p / 100.0 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, Math.min(index, latenciesNanos.length - 1))] / 1_000_000.0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        URI uri = URI.create(options.getOrDefault("url", "http://localhost:8081/api/employees"));
+        String method = options.getOrDefault("method", "POST").toUpperCase();
+        String body = options.getOrDefault("body",
+                "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"load{n}@example.com\"}");
+        int[] levels = Arrays.stream(options.getOrDefault("concurrency", "50,200,800").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "20")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+        System.out.printf("%s %s, %ds per level after %ds warmup%n", method, uri, duration.toSeconds(), warmup.toSeconds());
+        System.out.printf("%11s %10s %8s %10s %9s %9s %9s %9s%n",
+                "concurrency", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (int level : levels) {
+            Result result = run(client, uri, method, body, sequence, level, warmup, duration);
+            System.out.printf("%11d %10d %8d %10.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    result.concurrency(), result.requests(), result.errors(), result.throughput(),
+                    result.percentileMillis(50), result.percentileMillis(90), result.percentileMillis(99),
+                    result.percentileMillis(100));
+        }
+    }
+
+    private static Result run(HttpClient client, URI uri, String method, String body, AtomicLong sequence,
+                              int concurrency, Duration warmup, Duration duration) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        boolean ok = send(client, uri, method, body, sequence);
+                        long done = System.nanoTime();
+                        if (now < measureFrom) continue;
+                        if (!ok) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = done - now;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        long[] all = new long[0];
+        for (Future<long[]> worker : workers) {
+            long[] latencies = worker.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        Arrays.sort(all);
+        return new Result(concurrency, all.length, errors.get(), duration.toNanos() / 1e9, all);
+    }
+
+    private static boolean send(HttpClient client, URI uri, String method, String body, AtomicLong sequence) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT);
+        if ("POST".equals(method)) {
+            String payload = body.replace("{n}", Long.toString(sequence.incrementAndGet()));
+            request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(payload));
+        } else {
+            request.GET();
+        }
+        try {
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option but got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,144 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Measures how long a service takes from launch to answering its first request,
+ * and how much memory it holds at that point.
+ *
+ * <p>Each run starts the command in a fresh empty working directory (so every run
+ * starts without data), polls the URL until it answers 2xx, reads the process's
+ * resident set size from {@code /proc} (Linux only), then stops it. Prints every
+ * run and the median. Everything after {@code --} is the command:
+ *
+ * <pre>
+ * java load-test/StartupTime.java --url http://localhost:8083/api/health --runs 5 -- \
+ *     java -XX:SharedArchiveFile=application.jsa -jar application/app.jar
+ * </pre>
+ *
+ * Options (defaults in brackets):
+ * <ul>
+ *   <li>{@code --url} URL polled until it answers [http://localhost:8081/api/health]</li>
+ *   <li>{@code --runs} number of launches [5]</li>
+ *   <li>{@code --timeout} seconds to wait for one launch [120]</li>
+ * </ul>
+ */
+public class StartupTime {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    record Run(double millis, long rssKb) {}
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        if (separator < 0 || separator == args.length - 1) {
+            throw new IllegalArgumentException("Expected the command to launch after --");
+        }
+        Map<String, String> options = parse(Arrays.copyOf(args, separator));
+        List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+        URI uri = URI.create(options.getOrDefault("url", "http://localhost:8081/api/health"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120")));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        System.out.printf("%s until %s answers%n", String.join(" ", command), uri);
+        System.out.printf("%5s %14s %10s%n", "run", "first req ms", "RSS MB");
+        List<Run> results = new ArrayList<>();
+        for (int i = 1; i <= runs; i++) {
+            Run run = launch(client, uri, command, timeout);
+            results.add(run);
+            System.out.printf("%5d %14.0f %10.1f%n", i, run.millis(), run.rssKb() / 1024.0);
+        }
+        results.sort(Comparator.comparingDouble(Run::millis));
+        Run median = results.get(results.size() / 2);
+        long medianRss = results.stream().mapToLong(Run::rssKb).sorted().toArray()[results.size() / 2];
+        System.out.printf("%5s %14.0f %10.1f%n", "p50", median.millis(), medianRss / 1024.0);
+    }
+
+    private static Run launch(HttpClient client, URI uri, List<String> command, Duration timeout) throws Exception {
+        Path workDir = Files.createTempDirectory("startup-time");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (!answers(client, uri)) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Process exited with " + process.exitValue() + " before answering");
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("No answer from " + uri + " within " + timeout.toSeconds() + "s");
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            double millis = (System.nanoTime() - start) / 1e6;
+            return new Run(millis, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            process.waitFor();
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static boolean answers(HttpClient client, URI uri) {
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 300;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** VmRSS of the process, or -1 where {@code /proc} is not available. */
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) return -1;
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option but got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
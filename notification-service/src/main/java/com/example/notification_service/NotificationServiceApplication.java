@@ -1,9 +1,18 @@
 package com.example.notification_service;
 
+import com.example.service_commons.admission.IngestAdmission;
+import com.example.service_commons.admission.IngestAdmissionFilter;
+import com.example.service_commons.diagnostics.PinnedThreadMonitor;
+import com.example.service_commons.http.ServiceClientFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+// service-commons is outside the component scan, so its beans are imported one by one
+@Import({ServiceClientFactory.class, IngestAdmission.class, IngestAdmissionFilter.class, PinnedThreadMonitor.class})
+@ImportRuntimeHints(NotificationServiceRuntimeHints.class)
 public class NotificationServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,29 @@
+package com.example.notification_service;
+
+import com.example.notification_service.dispatch.Digest;
+import com.example.notification_service.model.ActivityEvent;
+import com.example.notification_service.model.NotificationRequest;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection hints for types bound by the service's own ObjectMappers and clients,
+ * which AOT processing cannot see.
+ */
+class NotificationServiceRuntimeHints implements RuntimeHintsRegistrar {
+    // Package-private in the store, so resolved by name.
+    static final String READ_MARK = "com.example.notification_service.store.NotificationInbox$ReadMark";
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindings.registerReflectionHints(hints.reflection(),
+                NotificationRequest.class,
+                ActivityEvent.class,
+                Digest.class,
+                ClassUtils.resolveClassName(READ_MARK, classLoader));
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.notification_service.controller;
 
+import com.example.notification_service.dispatch.NotificationDispatcher;
+import com.example.notification_service.model.Inbox;
 import com.example.notification_service.model.NotificationRequest;
+import com.example.notification_service.store.NotificationInbox;
+import com.example.notification_service.store.NotificationStore;
+import com.example.service_commons.admission.IngestAdmission;
+import com.example.service_commons.admission.RateLimitedException;
+import com.example.service_commons.persistence.RecentEventIds;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import com.fasterxml.jackson.core.type.TypeReference;
+import java.util.Objects;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.example.notification_service.service.ActivityClient;
@@ -18,47 +30,135 @@ import com.example.notification_service.service.ActivityClient;
 @RequestMapping("/api/notifications")
 public class NotificationController {
     private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
-    private static final String NOTIF_FILE = "notifications.json";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int STREAM_PAGE_SIZE = 500;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Autowired
+    private NotificationStore notificationStore;
+
     @Autowired
     private ActivityClient activityClient;
 
+    @Autowired
+    private RecentEventIds recentEventIds;
+
+    @Autowired
+    private NotificationInbox notificationInbox;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private IngestAdmission ingestAdmission;
+
     @PostMapping
-    public void receiveNotification(@RequestBody NotificationRequest notification) {
+    public void receiveNotification(@RequestBody NotificationRequest notification,
+                                    @RequestHeader(name = IngestAdmission.CALLER_HEADER, required = false) String caller) {
         logger.info("\uD83D\uDD14 Notification received: {} for Employee ID: {}", notification.getMessage(), notification.getEmployeeId());
-        List<NotificationRequest> notifications = readNotifications();
-        notifications.add(notification);
-        writeNotifications(notifications);
-        activityClient.sendActivity(notification.getMessage(), notification);
+        ingestAdmission.checkRate(IngestAdmission.caller(caller, null), 1);
+        store(List.of(notification));
     }
 
-    @GetMapping
-    public List<NotificationRequest> getAllNotifications() {
-        logger.info("Fetching all notifications");
-        return readNotifications();
+    @PostMapping("/batch")
+    public void receiveNotifications(@RequestBody List<NotificationRequest> notifications,
+                                     @RequestHeader(name = IngestAdmission.CALLER_HEADER, required = false) String caller) {
+        logger.info("\uD83D\uDD14 Batch of {} notifications received", notifications.size());
+        ingestAdmission.checkRate(IngestAdmission.caller(caller, null), notifications.size());
+        store(notifications);
+    }
+
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<ProblemDetail> rateLimited(RateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.retryAfterSeconds()))
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage()));
     }
 
-    private List<NotificationRequest> readNotifications() {
+    /**
+     * Stores the notifications whose event id has not been seen before, adds them to
+     * their employees' inboxes and hands them to the dispatcher; the rest were already stored.
+     */
+    private void store(List<NotificationRequest> notifications) {
+        List<NotificationRequest> fresh = new ArrayList<>(notifications.size());
+        for (NotificationRequest notification : notifications) {
+            if (notification.getEventId() == null || recentEventIds.add(notification.getEventId())) {
+                fresh.add(notification);
+            } else {
+                logger.info("Ignoring duplicate notification {}", notification.getEventId());
+            }
+        }
         try {
-            File file = new File(NOTIF_FILE);
-            if (!file.exists()) return new ArrayList<>();
-            List<NotificationRequest> notifications = objectMapper.readValue(file, new TypeReference<List<NotificationRequest>>() {});
-            logger.debug("Read {} notifications from file", notifications.size());
-            return notifications;
-        } catch (IOException e) {
-            logger.error("Failed to read notifications from file", e);
-            throw new RuntimeException(e);
+            notificationStore.appendAll(fresh);
+        } catch (RuntimeException e) {
+            fresh.stream().map(NotificationRequest::getEventId).filter(Objects::nonNull).forEach(recentEventIds::remove);
+            throw e;
+        }
+        notificationInbox.addAll(fresh);
+        notificationDispatcher.submit(fresh);
+        for (NotificationRequest notification : fresh) {
+            activityClient.sendActivity(notification.getMessage(), notification);
         }
     }
 
-    private void writeNotifications(List<NotificationRequest> notifications) {
-        try {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(NOTIF_FILE), notifications);
-            logger.debug("Wrote {} notifications to file", notifications.size());
-        } catch (IOException e) {
-            logger.error("Failed to write notifications to file", e);
-            throw new RuntimeException(e);
+    @GetMapping
+    public List<NotificationRequest> getNotifications(@RequestParam(required = false) Long employeeId,
+                                                      @RequestParam(required = false) Long afterId,
+                                                      @RequestParam(required = false) Integer limit) throws IOException {
+        logger.info("Fetching notifications after id {} (employee {}, limit {})", afterId, employeeId, limit);
+        int max = limit != null && limit > 0 ? limit : Integer.MAX_VALUE;
+        if (employeeId != null) {
+            return notificationInbox.page(employeeId, afterId != null ? afterId : 0, max);
+        }
+        List<NotificationRequest> page = new ArrayList<>();
+        notificationStore.scan(afterId != null ? afterId : 0, notification -> {
+            page.add(notification);
+            return page.size() < max;
+        });
+        return page;
+    }
+
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamNotifications(@RequestParam(required = false) Long employeeId,
+                                                                     @RequestParam(required = false) Long afterId) {
+        logger.info("Streaming notifications after id {} (employee {})", afterId, employeeId);
+        StreamingResponseBody body;
+        if (employeeId != null) {
+            body = out -> {
+                long cursor = afterId != null ? afterId : 0;
+                List<NotificationRequest> page;
+                do {
+                    page = notificationInbox.page(employeeId, cursor, STREAM_PAGE_SIZE);
+                    for (NotificationRequest notification : page) {
+                        out.write(objectMapper.writeValueAsBytes(notification));
+                        out.write('\n');
+                        cursor = notification.getId();
+                    }
+                    out.flush();
+                } while (page.size() == STREAM_PAGE_SIZE);
+            };
+        } else {
+            body = out -> notificationStore.scan(afterId != null ? afterId : 0, notification -> {
+                out.write(objectMapper.writeValueAsBytes(notification));
+                out.write('\n');
+                return true;
+            });
         }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /** The employee's unread count and newest notifications, newest first. */
+    @GetMapping("/inbox/{employeeId}")
+    public Inbox getInbox(@PathVariable Long employeeId, @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Fetching inbox of employee {}", employeeId);
+        return notificationInbox.inbox(employeeId, Math.max(0, limit));
+    }
+
+    /** Marks the employee's notifications up to {@code throughId} as read, or all of them without it. */
+    @PostMapping("/inbox/{employeeId}/read")
+    public Inbox markRead(@PathVariable Long employeeId, @RequestParam(required = false) Long throughId,
+                          @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Marking notifications of employee {} read through {}", employeeId, throughId != null ? throughId : "latest");
+        return notificationInbox.markRead(employeeId, throughId, Math.max(0, limit));
     }
 }
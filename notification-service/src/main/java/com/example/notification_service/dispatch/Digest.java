@@ -0,0 +1,17 @@
+package com.example.notification_service.dispatch;
+
+import com.example.notification_service.model.NotificationRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The notifications one employee received within a coalescing window, sent as a
+ * single message: how many there were and the most recent of them.
+ */
+public record Digest(Long employeeId, int count, List<NotificationRequest> latest, Instant firstAt, Instant lastAt) {
+
+    public String subject() {
+        return count == 1 ? latest.get(0).getMessage() : count + " new notifications";
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.notification_service.dispatch;
+
+import com.example.notification_service.model.NotificationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for an SMTP relay: renders the mail a digest would be sent as and
+ * logs it instead of sending it. Employees are addressed as
+ * {@code employee-<id>@<notification.channels.mail.domain>}.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channels.mail.enabled", havingValue = "true", matchIfMissing = true)
+public class MailChannel implements NotificationChannel {
+    private static final Logger logger = LoggerFactory.getLogger(MailChannel.class);
+
+    @Value("${notification.channels.mail.from:notifications@example.com}")
+    private String from;
+
+    @Value("${notification.channels.mail.domain:example.com}")
+    private String domain;
+
+    @Override
+    public String name() {
+        return "mail";
+    }
+
+    @Override
+    public void deliver(Digest digest) {
+        StringBuilder body = new StringBuilder();
+        for (NotificationRequest notification : digest.latest()) {
+            body.append("\n  - ").append(notification.getMessage());
+        }
+        if (digest.count() > digest.latest().size()) {
+            body.append("\n  ... and ").append(digest.count() - digest.latest().size()).append(" earlier");
+        }
+        logger.info("\uD83D\uDCE7 Mail from {} to employee-{}@{}: {}{}", from, digest.employeeId(), domain, digest.subject(), body);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.notification_service.dispatch;
+
+public interface NotificationChannel {
+    String name();
+
+    // An exception counts as a failed delivery and is not retried.
+    void deliver(Digest digest) throws Exception;
+}
@@ -0,0 +1,239 @@
+package com.example.notification_service.dispatch;
+
+import com.example.notification_service.model.NotificationRequest;
+import com.example.service_commons.tracing.TraceParents;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers stored notifications to every {@link NotificationChannel}, sending each
+ * employee at most one {@link Digest} per coalescing window. Best effort: bursts not
+ * yet sent are lost on a crash; the inbox remains the record.
+ */
+@Component
+public class NotificationDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+    // TraceParents links to no more than this anyway.
+    private static final int MAX_TRACE_PARENTS = 32;
+
+    @Value("${notification.dispatch.coalesce-window-ms:2000}")
+    private long coalesceWindowMs;
+
+    @Value("${notification.dispatch.workers:4}")
+    private int workerCount;
+
+    @Value("${notification.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${notification.dispatch.digest-size:10}")
+    private int digestSize;
+
+    @Value("${notification.dispatch.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final List<NotificationChannel> channels;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Map<Long, Burst> bursts = new ConcurrentHashMap<>();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter digests;
+    private final Counter dispatched;
+    private final Counter saturated;
+    private ThreadPoolExecutor workers;
+    private Thread scheduler;
+    private volatile boolean running;
+
+    public NotificationDispatcher(List<NotificationChannel> channels, MeterRegistry meterRegistry, Tracer tracer) {
+        this.channels = channels;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.digests = Counter.builder("notification.dispatch.digests").register(meterRegistry);
+        this.dispatched = Counter.builder("notification.dispatch.notifications").register(meterRegistry);
+        this.saturated = Counter.builder("notification.dispatch.saturated").register(meterRegistry);
+        Gauge.builder("notification.dispatch.pending", bursts, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threads.name("notification-dispatch-", 0).factory());
+        running = true;
+        scheduler = threads.name("notification-dispatch-scheduler").start(this::runScheduler);
+        logger.info("Dispatching notifications to {} in windows of {} ms on {} workers",
+                channels.stream().map(NotificationChannel::name).toList(), coalesceWindowMs, workerCount);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) return;
+        running = false;
+        scheduler.interrupt();
+        scheduler.join();
+        // Send what is still waiting, including bursts behind a digest that is in flight.
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        while (!bursts.isEmpty() && System.nanoTime() < deadline) {
+            dispatchDue(true);
+            Thread.sleep(10);
+        }
+        workers.shutdown();
+        boolean drained = workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        if (!drained || !bursts.isEmpty()) {
+            logger.warn("Shut down with notifications for {} employees not dispatched", bursts.size() + workers.getQueue().size());
+        }
+    }
+
+    public void submit(List<NotificationRequest> notifications) {
+        String traceParent = TraceParents.current();
+        for (NotificationRequest notification : notifications) {
+            if (notification.getEmployeeId() == null) continue;
+            bursts.compute(notification.getEmployeeId(), (employeeId, burst) -> {
+                Burst open = burst != null ? burst : new Burst(digestSize);
+                open.add(notification, traceParent);
+                return open;
+            });
+        }
+    }
+
+    private void runScheduler() {
+        long tickMs = Math.max(1, Math.min(coalesceWindowMs / 4, 100));
+        while (running) {
+            try {
+                Thread.sleep(tickMs);
+                dispatchDue(false);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Notification dispatch tick failed", e);
+            }
+        }
+    }
+
+    // Runs on one thread at a time.
+    private void dispatchDue(boolean all) {
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(coalesceWindowMs);
+        long now = System.nanoTime();
+        for (Long employeeId : bursts.keySet()) {
+            if (inFlight.contains(employeeId)) continue;
+            Burst[] due = new Burst[1];
+            bursts.computeIfPresent(employeeId, (id, burst) -> {
+                if (!all && now - burst.openedAt < windowNanos) return burst;
+                due[0] = burst;
+                return null;
+            });
+            if (due[0] == null) continue;
+            inFlight.add(employeeId);
+            try {
+                workers.execute(() -> deliver(employeeId, due[0]));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(employeeId);
+                bursts.merge(employeeId, due[0], Burst::absorb);
+                saturated.increment();
+                logger.debug("Dispatch workers are saturated; {} employees waiting", bursts.size());
+                return;
+            }
+        }
+    }
+
+    private void deliver(Long employeeId, Burst burst) {
+        Digest digest = burst.digest(employeeId);
+        Span span = TraceParents.startBatchSpan(tracer, "notification dispatch", burst.traceParents);
+        span.tag("notification.digest.size", digest.count());
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            for (NotificationChannel channel : channels) {
+                long start = System.nanoTime();
+                String outcome = "success";
+                try {
+                    channel.deliver(digest);
+                } catch (Exception e) {
+                    outcome = "error";
+                    span.error(e);
+                    logger.warn("Failed to deliver {} notifications for employee {} via {}: {}",
+                            digest.count(), employeeId, channel.name(), e.getMessage());
+                }
+                Timer.builder("notification.dispatch")
+                        .tag("channel", channel.name())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            digests.increment();
+            dispatched.increment(digest.count());
+        } finally {
+            span.end();
+            inFlight.remove(employeeId);
+        }
+    }
+
+    /** Changed only inside the map's compute functions. */
+    private static final class Burst {
+        final long openedAt = System.nanoTime();
+        final Instant firstAt = Instant.now();
+        final ArrayDeque<NotificationRequest> latest = new ArrayDeque<>();
+        final Set<String> traceParents = new LinkedHashSet<>();
+        final int digestSize;
+        Instant lastAt = firstAt;
+        int count;
+
+        Burst(int digestSize) {
+            this.digestSize = digestSize;
+        }
+
+        void add(NotificationRequest notification, String traceParent) {
+            count++;
+            lastAt = Instant.now();
+            keep(notification);
+            if (traceParent != null && traceParents.size() < MAX_TRACE_PARENTS) {
+                traceParents.add(traceParent);
+            }
+        }
+
+        Burst absorb(Burst newer) {
+            count += newer.count;
+            lastAt = newer.lastAt;
+            newer.latest.forEach(this::keep);
+            for (String traceParent : newer.traceParents) {
+                if (traceParents.size() >= MAX_TRACE_PARENTS) break;
+                traceParents.add(traceParent);
+            }
+            return this;
+        }
+
+        private void keep(NotificationRequest notification) {
+            latest.addLast(notification);
+            if (latest.size() > digestSize) {
+                latest.pollFirst();
+            }
+        }
+
+        Digest digest(Long employeeId) {
+            return new Digest(employeeId, count, new ArrayList<>(latest), firstAt, lastAt);
+        }
+    }
+}
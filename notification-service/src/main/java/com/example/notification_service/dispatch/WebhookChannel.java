@@ -0,0 +1,33 @@
+package com.example.notification_service.dispatch;
+
+import com.example.service_commons.http.ServiceClient;
+import com.example.service_commons.http.ServiceClientFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * POSTs each digest as JSON to {@code notification.channels.webhook.url}. Goes
+ * through a {@link ServiceClient} named {@code webhook}, so timeouts, retries and
+ * the circuit breaker are configured under {@code http.client.webhook.*}.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channels.webhook.url")
+public class WebhookChannel implements NotificationChannel {
+    private final ServiceClient client;
+
+    public WebhookChannel(ServiceClientFactory serviceClientFactory,
+                          @Value("${notification.channels.webhook.url}") String url) {
+        this.client = serviceClientFactory.create("webhook", url);
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(Digest digest) {
+        client.post("", digest, Void.class);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.notification_service.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Activity event as posted to activity-service's {@code /api/activities/batch}.
+ * {@code details} is a snapshot of the object the event is about.
+ */
+public record ActivityEvent(String timestamp, String service, String type, JsonNode details) {}
@@ -0,0 +1,9 @@
+package com.example.notification_service.model;
+
+import java.util.List;
+
+/**
+ * An employee's inbox: how many notifications they have, how many are unread, and
+ * the newest of them. Every notification with an id up to {@code readThrough} is read.
+ */
+public record Inbox(Long employeeId, long total, long unread, long readThrough, List<NotificationRequest> notifications) {}
@@ -1,10 +1,17 @@
 package com.example.notification_service.model;
 
 public class NotificationRequest {
+    private Long id;
+    // Idempotency key set by the sender; a notification whose key was already stored is dropped.
+    private String eventId;
     private String message;
     private Long employeeId;
 
     // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
     public Long getEmployeeId() { return employeeId; }
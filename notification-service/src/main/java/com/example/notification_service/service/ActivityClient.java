@@ -1,34 +1,216 @@
 package com.example.notification_service.service;
 
+import com.example.notification_service.model.ActivityEvent;
+import com.example.service_commons.http.CircuitOpenException;
+import com.example.service_commons.http.ServiceClient;
+import com.example.service_commons.http.ServiceClientFactory;
+import com.example.service_commons.tracing.TraceParents;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sends activity events to activity-service without blocking the caller: events are
+ * queued in memory and a background flusher posts them in batches. A 415 switches
+ * the client to JSON for good, for an activity-service without binary support.
+ */
 @Component
 public class ActivityClient {
     private static final Logger logger = LoggerFactory.getLogger(ActivityClient.class);
+    private static final String SERVICE_NAME = "notification-service";
+    private static final long IDLE_POLL_MS = 500;
+    private static final String BATCH_PATH = "/api/activities/batch";
+
+    public enum OverflowPolicy {
+        /** Waits up to {@code activity.client.wait-timeout-ms} for room, then drops the new event. */
+        WAIT_THEN_DROP,
+        DROP_NEWEST,
+        DROP_OLDEST
+    }
+
+    public enum WireFormat {
+        SMILE(new MediaType("application", "x-jackson-smile")),
+        CBOR(MediaType.APPLICATION_CBOR),
+        JSON(MediaType.APPLICATION_JSON);
+
+        private final MediaType mediaType;
+
+        WireFormat(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+    }
 
     @Value("${ACTIVITY_URL:http://localhost:8083}")
     private String activityUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${activity.client.batch-size:100}")
+    private int batchSize;
+
+    @Value("${activity.client.linger-ms:50}")
+    private long lingerMs;
+
+    @Value("${activity.client.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${activity.client.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${activity.client.wait-timeout-ms:100}")
+    private long waitTimeoutMs;
+
+    @Value("${activity.client.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${activity.client.wire-format:SMILE}")
+    private WireFormat wireFormat;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private ServiceClientFactory serviceClientFactory;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private record Queued(ActivityEvent event, String traceParent) {}
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong dropped = new AtomicLong();
+    private Counter droppedByPolicy;
+    private ServiceClient client;
+    private BlockingQueue<Queued> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        client = serviceClientFactory.create("activity-service", activityUrl);
+        droppedByPolicy = Counter.builder("activity.client.dropped").tag("policy", overflowPolicy.name())
+                .register(meterRegistry);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        flusher = threads.name("activity-client-flusher").start(this::runFlusher);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join(shutdownTimeoutMs);
+        if (!queue.isEmpty()) {
+            logger.warn("Shut down with {} activity events still queued", queue.size());
+        }
+    }
 
     public void sendActivity(String type, Object details) {
-        try {
-            String url = activityUrl + "/api/activities";
-            var payload = new HashMap<String, Object>();
-            payload.put("timestamp", Instant.now().toString());
-            payload.put("service", "notification-service");
-            payload.put("type", type);
-            payload.put("details", details);
-            logger.info("Sending activity: {} from {} to {}", type, "notification-service", url);
-            restTemplate.postForObject(url, payload, Void.class);
+        // Snapshot the details now; the caller may keep mutating the object.
+        var event = new ActivityEvent(Instant.now().toString(), SERVICE_NAME, type, objectMapper.valueToTree(details));
+        if (enqueue(new Queued(event, TraceParents.current()))) {
+            logger.debug("Queued activity: {} from {}", type, SERVICE_NAME);
+        } else {
+            droppedByPolicy.increment();
+            logger.warn("Activity queue full, dropped activity event: {} ({} dropped so far)", type, dropped.incrementAndGet());
+        }
+    }
+
+    private boolean enqueue(Queued event) {
+        switch (overflowPolicy) {
+            case DROP_NEWEST:
+                return queue.offer(event);
+            case DROP_OLDEST:
+                while (!queue.offer(event)) {
+                    Queued evicted = queue.poll();
+                    if (evicted != null) {
+                        droppedByPolicy.increment();
+                        logger.warn("Activity queue full, dropped oldest activity event: {} ({} dropped so far)",
+                                evicted.event().type(), dropped.incrementAndGet());
+                    }
+                }
+                return true;
+            default:
+                try {
+                    return queue.offer(event, waitTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+        }
+    }
+
+    private void runFlusher() {
+        List<Queued> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Queued first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) break;
+                    Queued next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<Queued> batch) {
+        Span span = TraceParents.startBatchSpan(tracer, "activity batch", batch.stream().map(Queued::traceParent).toList());
+        span.tag("activity.batch.size", batch.size());
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            logger.info("Sending {} activities from {} to {} as {}", batch.size(), SERVICE_NAME, activityUrl, wireFormat);
+            post(batch.stream().map(Queued::event).toList());
+        } catch (CircuitOpenException | HttpClientErrorException.TooManyRequests e) {
+            // activity-service is unreachable or still pushing back after the client's retries.
+            span.error(e);
+            logger.warn("Dropped batch of {} activity events: {}", batch.size(), e.getMessage());
         } catch (Exception e) {
-            logger.error("Failed to send activity event: {}", type, e);
+            span.error(e);
+            logger.error("Failed to send batch of {} activity events", batch.size(), e);
+        } finally {
+            span.end();
+        }
+    }
+
+    private void post(List<ActivityEvent> batch) {
+        try {
+            client.post(BATCH_PATH, batch, wireFormat.mediaType, Void.class);
+        } catch (HttpClientErrorException.UnsupportedMediaType e) {
+            if (wireFormat == WireFormat.JSON) throw e;
+            logger.warn("activity-service does not accept {}, falling back to JSON", wireFormat);
+            wireFormat = WireFormat.JSON;
+            client.post(BATCH_PATH, batch, wireFormat.mediaType, Void.class);
         }
     }
-} 
\ No newline at end of file
+}
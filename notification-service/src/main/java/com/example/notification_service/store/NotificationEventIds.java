@@ -0,0 +1,19 @@
+package com.example.notification_service.store;
+
+import com.example.service_commons.persistence.RecentEventIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Recent notification event ids, rebuilt on startup from the tail of the store. */
+@Component
+public class NotificationEventIds extends RecentEventIds {
+
+    public NotificationEventIds(NotificationStore notificationStore,
+                                @Value("${notification.dedup.capacity:100000}") int capacity) {
+        super("notification", capacity, ids -> notificationStore.scan(Math.max(0, notificationStore.lastId() - capacity),
+                notification -> {
+                    ids.accept(notification.getEventId());
+                    return true;
+                }));
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.notification_service.store;
+
+import com.example.notification_service.model.Inbox;
+import com.example.notification_service.model.NotificationRequest;
+import com.example.service_commons.persistence.SnapshotFile;
+import com.example.service_commons.persistence.WriteAheadLog;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-employee index over the {@link NotificationStore}: each employee's notification
+ * ids, the newest of them in full, and a read mark kept in a WAL of its own.
+ */
+@Component
+public class NotificationInbox {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationInbox.class);
+    private static final String NAME = "inbox-reads";
+
+    record ReadMark(Long employeeId, long readThrough) {}
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NotificationStore notificationStore;
+    private final Path dir;
+    private final Path snapshotFile;
+    private final int retained;
+    private final int snapshotThreshold;
+    private final Map<Long, EmployeeInbox> inboxes = new ConcurrentHashMap<>();
+    private final ReentrantLock markLock = new ReentrantLock();
+    private WriteAheadLog<ReadMark> wal;
+
+    public NotificationInbox(NotificationStore notificationStore,
+                             @Value("${notification.store.dir:notification-data}") String dir,
+                             @Value("${notification.inbox.retained:100}") int retained,
+                             @Value("${notification.inbox.snapshot-threshold:10000}") int snapshotThreshold) {
+        this.notificationStore = notificationStore;
+        this.dir = Paths.get(dir);
+        this.snapshotFile = this.dir.resolve(NAME + ".snapshot");
+        this.retained = retained;
+        this.snapshotThreshold = snapshotThreshold;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        long start = System.nanoTime();
+        notificationStore.scan(0, notification -> {
+            add(notification);
+            return true;
+        });
+        long generation = 0;
+        if (Files.exists(snapshotFile)) {
+            generation = SnapshotFile.verify(snapshotFile).generation();
+            try (InputStream in = SnapshotFile.openBody(snapshotFile)) {
+                objectMapper.readValue(in, new TypeReference<List<ReadMark>>() {}).forEach(this::apply);
+            }
+        }
+        wal = new WriteAheadLog<>(dir, NAME, objectMapper, ReadMark.class, 0);
+        long replayed = wal.recover(generation, mark -> {
+            apply(mark);
+            return true;
+        });
+        logger.info("Loaded inboxes of {} employees (+{} read marks) in {} ms", inboxes.size(), replayed,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        wal.close();
+    }
+
+    public void addAll(List<NotificationRequest> notifications) {
+        notifications.forEach(this::add);
+    }
+
+    public List<NotificationRequest> page(Long employeeId, long afterId, int limit) throws IOException {
+        EmployeeInbox inbox = inboxes.get(employeeId);
+        if (inbox == null) return List.of();
+        List<NotificationRequest> page = inbox.page(afterId, limit);
+        if (page != null) return page;
+        // Older than what is retained: scan the store, starting at the first id of the employee after the cursor.
+        List<NotificationRequest> scanned = new ArrayList<>();
+        notificationStore.scan(inbox.firstIdAfter(afterId) - 1, notification -> {
+            if (employeeId.equals(notification.getEmployeeId())) {
+                scanned.add(notification);
+            }
+            return scanned.size() < limit;
+        });
+        return scanned;
+    }
+
+    public Inbox inbox(Long employeeId, int limit) {
+        EmployeeInbox inbox = inboxes.get(employeeId);
+        return inbox != null ? inbox.summary(employeeId, limit) : new Inbox(employeeId, 0, 0, 0, List.of());
+    }
+
+    /** A null {@code throughId} marks everything read; marks only move forward. */
+    public Inbox markRead(Long employeeId, Long throughId, int limit) {
+        EmployeeInbox inbox = inboxes.get(employeeId);
+        if (inbox == null) return inbox(employeeId, limit);
+        markLock.lock();
+        try {
+            long readThrough = Math.min(throughId != null ? throughId : Long.MAX_VALUE, inbox.lastId());
+            if (readThrough > inbox.readThrough()) {
+                ReadMark mark = new ReadMark(employeeId, readThrough);
+                try {
+                    wal.append(mark);
+                } catch (IOException e) {
+                    logger.error("Failed to write read mark for employee {}", employeeId, e);
+                    throw new RuntimeException(e);
+                }
+                apply(mark);
+                maybeSnapshot();
+            }
+        } finally {
+            markLock.unlock();
+        }
+        return inbox.summary(employeeId, limit);
+    }
+
+    private void add(NotificationRequest notification) {
+        if (notification.getEmployeeId() == null) return;
+        inboxes.computeIfAbsent(notification.getEmployeeId(), id -> new EmployeeInbox()).add(notification, retained);
+    }
+
+    private void apply(ReadMark mark) {
+        inboxes.computeIfAbsent(mark.employeeId(), id -> new EmployeeInbox()).read(mark.readThrough());
+    }
+
+    private void maybeSnapshot() {
+        if (wal.entries() < snapshotThreshold) return;
+        try {
+            long generation = wal.roll();
+            List<ReadMark> marks = new ArrayList<>();
+            inboxes.forEach((employeeId, inbox) -> {
+                if (inbox.readThrough() > 0) {
+                    marks.add(new ReadMark(employeeId, inbox.readThrough()));
+                }
+            });
+            SnapshotFile.write(snapshotFile, generation, out -> {
+                objectMapper.writeValue(out, marks);
+                return marks.size();
+            });
+            wal.deleteThrough(generation);
+            logger.info("Wrote inbox read marks snapshot for WAL generation {} ({} employees)", generation, marks.size());
+        } catch (IOException e) {
+            // The marks are still in the WAL; the next mark tries again.
+            logger.error("Failed to snapshot inbox read marks", e);
+        }
+    }
+
+    private static final class EmployeeInbox {
+        private long[] ids = new long[4];
+        private int size;
+        private final TreeMap<Long, NotificationRequest> recent = new TreeMap<>();
+        private long readThrough;
+
+        synchronized void add(NotificationRequest notification, int retained) {
+            long id = notification.getId();
+            // Concurrent requests may hand over their notifications out of id order; usually this appends.
+            int at = size;
+            while (at > 0 && ids[at - 1] > id) at--;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+            recent.put(id, notification);
+            if (recent.size() > retained) {
+                recent.pollFirstEntry();
+            }
+        }
+
+        synchronized void read(long throughId) {
+            readThrough = Math.max(readThrough, throughId);
+        }
+
+        synchronized long readThrough() {
+            return readThrough;
+        }
+
+        synchronized long lastId() {
+            return size > 0 ? ids[size - 1] : 0;
+        }
+
+        /** Returns null if the page reaches back past the retained notifications. */
+        synchronized List<NotificationRequest> page(long afterId, int limit) {
+            int evicted = size - recent.size();
+            if (evicted > 0 && afterId < ids[evicted - 1]) return null;
+            List<NotificationRequest> page = new ArrayList<>(Math.min(limit, recent.size()));
+            for (NotificationRequest notification : recent.tailMap(afterId, false).values()) {
+                if (page.size() >= limit) break;
+                page.add(notification);
+            }
+            return page;
+        }
+
+        synchronized long firstIdAfter(long afterId) {
+            return ids[indexAfter(afterId)];
+        }
+
+        synchronized Inbox summary(Long employeeId, int limit) {
+            List<NotificationRequest> newest = recent.descendingMap().values().stream().limit(limit).toList();
+            return new Inbox(employeeId, size, size - indexAfter(readThrough), readThrough, newest);
+        }
+
+        private int indexAfter(long id) {
+            int found = Arrays.binarySearch(ids, 0, size, id);
+            return found >= 0 ? found + 1 : -found - 1;
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.example.notification_service.store;
+
+import com.example.notification_service.model.NotificationRequest;
+import com.example.service_commons.persistence.SnapshotFile;
+import com.example.service_commons.persistence.WriteAheadLog;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Stores notifications as a snapshot plus a write-ahead log. A single writer thread
+ * commits concurrent appends as one group with one fsync. A scan pins the snapshot
+ * it started on, whose files are only deleted once no scan reads them.
+ */
+@Component
+public class NotificationStore {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStore.class);
+    private static final String NAME = "notifications";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final int MAX_GROUP_SIZE = 1000;
+    private static final long IDLE_POLL_MS = 500;
+    private static final long INDEX_INTERVAL_BYTES = 16 * 1024;
+
+    private record PendingWrite(NotificationRequest notification, CompletableFuture<NotificationRequest> done) {}
+
+    /** The snapshot of {@code generation} and the WAL after it. Guarded by {@link #viewLock}. */
+    private static final class View {
+        final long generation;
+        final SnapshotIndex index;
+        int readers;
+        long replacedBy = -1;
+
+        View(long generation, SnapshotIndex index) {
+            this.generation = generation;
+            this.index = index;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path dir;
+    private final Path legacyFile;
+    private final int snapshotThreshold;
+    private WriteAheadLog<NotificationRequest> wal;
+    private final BlockingQueue<PendingWrite> pending = new LinkedBlockingQueue<>();
+    // Held only to pin or swap views, never while reading files.
+    private final ReentrantLock viewLock = new ReentrantLock();
+    private View current;
+    /** Oldest first; each one's files go once it and every older one are unread. */
+    private final Deque<View> retired = new ArrayDeque<>();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private ExecutorService compactor;
+    private volatile long snapshotGeneration = -1;
+    private volatile long lastId;
+    /** WAL positions every {@link #INDEX_INTERVAL_BYTES} or so, by the id of the record there. */
+    private final ConcurrentSkipListMap<Long, WriteAheadLog.Position> walIndex = new ConcurrentSkipListMap<>();
+    private WriteAheadLog.Position lastIndexed;
+    private Thread writer;
+    private volatile boolean running;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @FunctionalInterface
+    public interface Visitor {
+        boolean visit(NotificationRequest notification) throws IOException;
+    }
+
+    public NotificationStore(
+            @Value("${notification.store.dir:notification-data}") String dir,
+            @Value("${notification.store.legacy-file:notifications.json}") String legacyFile,
+            @Value("${notification.store.snapshot-threshold:10000}") int snapshotThreshold) {
+        this.dir = Paths.get(dir);
+        this.legacyFile = Paths.get(legacyFile);
+        this.snapshotThreshold = snapshotThreshold;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        // Each group is fsynced as it is committed, so the WAL needs no flusher of its own.
+        wal = new WriteAheadLog<>(dir, NAME, objectMapper, NotificationRequest.class, 0);
+        compactor = Executors.newSingleThreadExecutor(threads.name("notification-compactor").factory());
+        Files.createDirectories(dir);
+        Long latest = latestSnapshot();
+        SnapshotIndex index = null;
+        if (latest != null) {
+            SnapshotFile.Header header = SnapshotFile.verify(snapshotPath(latest));
+            index = SnapshotIndex.read(indexPath(latest), INDEX_INTERVAL_BYTES, header.crc());
+            if (index == null) {
+                index = rebuildIndex(latest, header);
+            }
+            snapshotGeneration = latest;
+            lastId = index.lastId();
+        } else if (Files.exists(legacyFile)) {
+            index = migrateLegacyFile();
+            lastId = index.lastId();
+            snapshotGeneration = 0;
+        }
+        long replayed = wal.recover(Math.max(snapshotGeneration, 0), notification -> {
+            lastId = notification.getId();
+            return true;
+        });
+        logger.info("Loaded notification store (snapshot generation {}, +{} WAL records), next id {}",
+                snapshotGeneration, replayed, lastId + 1);
+        current = new View(snapshotGeneration, index);
+        running = true;
+        writer = threads.name("notification-writer").start(this::runWriter);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        writer.join();
+        compactor.shutdown();
+        compactor.awaitTermination(30, TimeUnit.SECONDS);
+        wal.close();
+    }
+
+    public NotificationRequest append(NotificationRequest notification) {
+        PendingWrite write = new PendingWrite(notification, new CompletableFuture<>());
+        pending.add(write);
+        try {
+            return write.done().get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    public List<NotificationRequest> appendAll(List<NotificationRequest> notifications) {
+        List<PendingWrite> writes = new ArrayList<>(notifications.size());
+        for (NotificationRequest notification : notifications) {
+            writes.add(new PendingWrite(notification, new CompletableFuture<>()));
+        }
+        pending.addAll(writes);
+        try {
+            CompletableFuture.allOf(writes.stream().map(PendingWrite::done).toArray(CompletableFuture[]::new)).get();
+            return notifications;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    public long lastId() {
+        return lastId;
+    }
+
+    public void scan(long afterId, Visitor visitor) throws IOException {
+        View view = pin();
+        try {
+            long generation = view.generation;
+            if (generation >= 0 && afterId < view.index.lastId()
+                    && !scanSnapshot(generation, view.index.offsetAfter(afterId), afterId, visitor)) return;
+            WriteAheadLog.Position from = new WriteAheadLog.Position(Math.max(generation, 0) + 1, 0);
+            Map.Entry<Long, WriteAheadLog.Position> indexed = walIndex.floorEntry(afterId + 1);
+            // An entry for a generation this view's snapshot covers does not help; read the WAL after it from the start.
+            if (indexed != null && indexed.getValue().generation() > generation) {
+                from = indexed.getValue();
+            }
+            wal.readFrom(from, notification -> notification.getId() <= afterId || visitor.visit(notification));
+        } finally {
+            unpin(view);
+        }
+    }
+
+    private View pin() {
+        viewLock.lock();
+        try {
+            current.readers++;
+            return current;
+        } finally {
+            viewLock.unlock();
+        }
+    }
+
+    private void unpin(View view) {
+        List<View> unread;
+        viewLock.lock();
+        try {
+            view.readers--;
+            unread = takeUnreadRetired();
+        } finally {
+            viewLock.unlock();
+        }
+        deleteFiles(unread);
+    }
+
+    private List<View> takeUnreadRetired() {
+        List<View> unread = new ArrayList<>();
+        while (!retired.isEmpty() && retired.peekFirst().readers == 0) {
+            unread.add(retired.pollFirst());
+        }
+        return unread;
+    }
+
+    private void deleteFiles(List<View> views) {
+        for (View view : views) {
+            try {
+                wal.deleteThrough(view.replacedBy);
+                if (view.generation >= 0) {
+                    Files.deleteIfExists(snapshotPath(view.generation));
+                    Files.deleteIfExists(indexPath(view.generation));
+                }
+            } catch (IOException e) {
+                // Left for the next compaction, or for startup to clear away.
+                logger.warn("Failed to delete notification files replaced by snapshot generation {}", view.replacedBy, e);
+            }
+        }
+    }
+
+    private boolean scanSnapshot(long generation, long offset, long afterId, Visitor visitor) throws IOException {
+        try (InputStream body = SnapshotFile.openBody(snapshotPath(generation))) {
+            body.skipNBytes(offset);
+            // Only the array's separators lie between the offset and the record: skip to the record and reopen the array.
+            int b;
+            while ((b = body.read()) != '{') {
+                if (b == -1 || b == ']') return true;
+            }
+            InputStream records = new SequenceInputStream(new ByteArrayInputStream(new byte[] {'[', '{'}), body);
+            try (JsonParser parser = objectMapper.createParser(records)) {
+                parser.nextToken();
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    NotificationRequest notification = objectMapper.readValue(parser, NotificationRequest.class);
+                    if (notification.getId() > afterId && !visitor.visit(notification)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void runWriter() {
+        List<PendingWrite> group = new ArrayList<>();
+        while (running || !pending.isEmpty()) {
+            try {
+                PendingWrite first = pending.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                group.add(first);
+                pending.drainTo(group, MAX_GROUP_SIZE - 1);
+                commit(group);
+                for (PendingWrite write : group) {
+                    write.done().complete(write.notification());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                for (PendingWrite write : group) {
+                    write.done().completeExceptionally(e);
+                }
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite> group) {
+        List<NotificationRequest> notifications = new ArrayList<>(group.size());
+        long id = lastId;
+        for (PendingWrite write : group) {
+            write.notification().setId(++id);
+            notifications.add(write.notification());
+        }
+        try {
+            WriteAheadLog.Position position = wal.appendAll(notifications);
+            if (lastIndexed == null || lastIndexed.generation() != position.generation()
+                    || position.offset() - lastIndexed.offset() >= INDEX_INTERVAL_BYTES) {
+                walIndex.put(lastId + 1, position);
+                lastIndexed = position;
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write notifications to WAL", e);
+            throw new RuntimeException(e);
+        }
+        lastId = id;
+        logger.debug("Committed group of {} notifications", group.size());
+        maybeCompact();
+    }
+
+    // Writer thread only, so the sealed generation ends exactly at lastId.
+    private void maybeCompact() {
+        if (wal.entries() < snapshotThreshold || !compacting.compareAndSet(false, true)) return;
+        try {
+            long sealed = wal.roll();
+            compactor.execute(() -> {
+                try {
+                    compact(sealed);
+                } catch (IOException e) {
+                    logger.error("Failed to compact notifications through WAL generation {}", sealed, e);
+                } finally {
+                    compacting.set(false);
+                }
+            });
+        } catch (IOException e) {
+            compacting.set(false);
+            logger.error("Failed to roll notification WAL for compaction", e);
+        }
+    }
+
+    private void compact(long sealed) throws IOException {
+        long previous = snapshotGeneration;
+        SnapshotIndex index = new SnapshotIndex(INDEX_INTERVAL_BYTES);
+        SnapshotFile.Header header = SnapshotFile.write(snapshotPath(sealed), sealed, out ->
+                writeSnapshotBody(out, previous, sealed, index));
+        index.write(indexPath(sealed), header.crc());
+        List<View> unread;
+        viewLock.lock();
+        try {
+            snapshotGeneration = sealed;
+            current.replacedBy = sealed;
+            retired.addLast(current);
+            current = new View(sealed, index);
+            unread = takeUnreadRetired();
+        } finally {
+            viewLock.unlock();
+        }
+        walIndex.values().removeIf(position -> position.generation() <= sealed);
+        deleteFiles(unread);
+        logger.info("Wrote notification snapshot for WAL generation {} ({} notifications)", sealed, header.records());
+    }
+
+    private long writeSnapshotBody(OutputStream out, long previous, long sealed, SnapshotIndex index) throws IOException {
+        long[] count = new long[1];
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (JsonGenerator generator = objectMapper.createGenerator(counted)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartArray();
+            if (previous >= 0) {
+                try (InputStream in = SnapshotFile.openBody(snapshotPath(previous));
+                     JsonParser parser = objectMapper.createParser(in)) {
+                    parser.nextToken();
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        writeIndexed(generator, counted, objectMapper.readValue(parser, NotificationRequest.class), index);
+                        count[0]++;
+                    }
+                }
+            }
+            wal.replay(Math.max(previous, 0), sealed, notification -> {
+                writeIndexed(generator, counted, notification, index);
+                count[0]++;
+                return true;
+            });
+            generator.writeEndArray();
+        }
+        return count[0];
+    }
+
+    private void writeIndexed(JsonGenerator generator, CountingOutputStream counted, NotificationRequest notification,
+                              SnapshotIndex index) throws IOException {
+        // Nothing of the record is written yet, only possibly the separator before it.
+        index.add(notification.getId(), counted.count + generator.getOutputBuffered());
+        objectMapper.writeValue(generator, notification);
+    }
+
+    private SnapshotIndex rebuildIndex(long generation, SnapshotFile.Header header) throws IOException {
+        SnapshotIndex index = new SnapshotIndex(INDEX_INTERVAL_BYTES);
+        try (InputStream in = SnapshotFile.openBody(snapshotPath(generation)); JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array in " + snapshotPath(generation));
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                long offset = parser.currentTokenLocation().getByteOffset();
+                index.add(objectMapper.readValue(parser, NotificationRequest.class).getId(), offset);
+            }
+        }
+        index.write(indexPath(generation), header.crc());
+        logger.info("Rebuilt the index of notification snapshot generation {}", generation);
+        return index;
+    }
+
+    /** Notifications that predate ids are numbered by their position. */
+    private SnapshotIndex migrateLegacyFile() throws IOException {
+        SnapshotIndex index = new SnapshotIndex(INDEX_INTERVAL_BYTES);
+        SnapshotFile.Header header = SnapshotFile.write(snapshotPath(0), 0, out -> {
+            long count = 0;
+            CountingOutputStream counted = new CountingOutputStream(out);
+            try (JsonParser parser = objectMapper.createParser(legacyFile.toFile());
+                 JsonGenerator generator = objectMapper.createGenerator(counted)) {
+                generator.useDefaultPrettyPrinter();
+                generator.writeStartArray();
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        NotificationRequest notification = objectMapper.readValue(parser, NotificationRequest.class);
+                        notification.setId(++count);
+                        writeIndexed(generator, counted, notification, index);
+                    }
+                }
+                generator.writeEndArray();
+            }
+            return count;
+        });
+        index.write(indexPath(0), header.crc());
+        logger.info("Migrated {} notifications from {}", header.records(), legacyFile);
+        return index;
+    }
+
+    private Path snapshotPath(long generation) {
+        return dir.resolve(String.format("%s-%020d%s", NAME, generation, SNAPSHOT_SUFFIX));
+    }
+
+    private Path indexPath(long generation) {
+        return dir.resolve(String.format("%s-%020d%s%s", NAME, generation, SNAPSHOT_SUFFIX, SnapshotIndex.SUFFIX));
+    }
+
+    private Long latestSnapshot() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        String prefix = NAME + "-";
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : files.toList()) {
+                String file = path.getFileName().toString();
+                if (file.startsWith(prefix) && file.endsWith(SNAPSHOT_SUFFIX)) {
+                    try {
+                        generations.add(Long.parseLong(file.substring(prefix.length(), file.length() - SNAPSHOT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        logger.warn("Ignoring unexpected file {} in notification store directory", path);
+                    }
+                }
+            }
+        }
+        if (generations.isEmpty()) return null;
+        generations.sort(null);
+        for (long generation : generations.subList(0, generations.size() - 1)) {
+            Files.deleteIfExists(snapshotPath(generation));
+            Files.deleteIfExists(indexPath(generation));
+        }
+        return generations.get(generations.size() - 1);
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.notification_service.store;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Sparse index over one notification snapshot: the id and body offset of a record
+ * every {@code intervalBytes} or so. Carries the snapshot's checksum, so an index
+ * left over from another snapshot is not used.
+ */
+class SnapshotIndex {
+    static final String SUFFIX = ".index";
+    private static final String MAGIC = "SNAPSHOTINDEX";
+
+    private final long intervalBytes;
+    private long[] ids = new long[16];
+    private long[] offsets = new long[16];
+    private int count;
+    private long lastId;
+
+    SnapshotIndex(long intervalBytes) {
+        this.intervalBytes = Math.max(1, intervalBytes);
+    }
+
+    void add(long id, long offset) {
+        if (count == 0 || offset - offsets[count - 1] >= intervalBytes) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            ids[count] = id;
+            offsets[count] = offset;
+            count++;
+        }
+        lastId = id;
+    }
+
+    long lastId() {
+        return lastId;
+    }
+
+    long offsetAfter(long afterId) {
+        int i = Arrays.binarySearch(ids, 0, count, afterId + 1);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        return i < 0 ? 0 : offsets[i];
+    }
+
+    void write(Path file, long snapshotCrc) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedWriter out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.US_ASCII));
+            out.write(MAGIC + " " + intervalBytes + " " + Long.toHexString(snapshotCrc) + " " + lastId + " " + count + "\n");
+            for (int i = 0; i < count; i++) {
+                out.write(ids[i] + " " + offsets[i] + "\n");
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Returns null if the index is missing or unusable. */
+    static SnapshotIndex read(Path file, long intervalBytes, long snapshotCrc) {
+        if (!Files.exists(file)) return null;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String[] header = in.readLine().split(" ");
+            if (header.length != 5 || !MAGIC.equals(header[0]) || Long.parseLong(header[1]) != intervalBytes
+                    || Long.parseLong(header[2], 16) != snapshotCrc) return null;
+            int entries = Integer.parseInt(header[4]);
+            SnapshotIndex index = new SnapshotIndex(intervalBytes);
+            for (int i = 0; i < entries; i++) {
+                String[] fields = in.readLine().split(" ");
+                index.add(Long.parseLong(fields[0]), Long.parseLong(fields[1]));
+            }
+            index.lastId = Long.parseLong(header[3]);
+            return index.count == entries ? index : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
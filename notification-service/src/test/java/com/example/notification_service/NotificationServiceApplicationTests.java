@@ -3,7 +3,7 @@ package com.example.notification_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = { "notification.store.dir=target/test-notification-data", "notification.store.legacy-file=target/test-notifications.json" })
 class NotificationServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,23 @@
+package com.example.notification_service;
+
+import com.example.notification_service.dispatch.Digest;
+import com.example.notification_service.model.NotificationRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationServiceRuntimeHintsTests {
+
+	@Test
+	void registersBindingHintsForTypesTheServiceSerializesItself() {
+		RuntimeHints hints = new RuntimeHints();
+		new NotificationServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertThat(RuntimeHintsPredicates.reflection().onType(NotificationRequest.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(Digest.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(NotificationServiceRuntimeHints.READ_MARK))).accepts(hints);
+	}
+}
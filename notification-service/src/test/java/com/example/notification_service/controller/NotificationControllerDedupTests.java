@@ -0,0 +1,86 @@
+package com.example.notification_service.controller;
+
+import com.example.notification_service.dispatch.NotificationDispatcher;
+import com.example.notification_service.model.NotificationRequest;
+import com.example.notification_service.service.ActivityClient;
+import com.example.notification_service.store.NotificationInbox;
+import com.example.notification_service.store.NotificationStore;
+import com.example.notification_service.store.NotificationEventIds;
+import com.example.service_commons.admission.IngestAdmission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class NotificationControllerDedupTests {
+	private static final String CALLER = "employee-management-service";
+
+	@TempDir
+	Path dir;
+
+	private final ActivityClient activityClient = mock(ActivityClient.class);
+	private final NotificationDispatcher notificationDispatcher = mock(NotificationDispatcher.class);
+
+	@Test
+	void storesARetriedBatchOnlyOnceAcrossRestarts() throws Exception {
+		NotificationStore store = newStore();
+		NotificationController controller = newController(store);
+		controller.receiveNotifications(List.of(notification("a", 1L), notification("b", 2L), notification("a", 1L)), CALLER);
+		controller.receiveNotifications(List.of(notification("b", 2L), notification("c", 3L)), CALLER);
+		store.stop();
+
+		NotificationStore reopened = newStore();
+		NotificationController restarted = newController(reopened);
+		restarted.receiveNotifications(List.of(notification("a", 1L), notification("c", 3L), notification("d", 4L)), CALLER);
+		restarted.receiveNotification(notification(null, 5L), CALLER);
+		restarted.receiveNotification(notification(null, 5L), CALLER);
+
+		List<NotificationRequest> stored = new ArrayList<>();
+		reopened.scan(0, stored::add);
+		reopened.stop();
+		assertThat(stored).extracting(NotificationRequest::getEventId).containsExactly("a", "b", "c", "d", null, null);
+		verify(activityClient, times(6)).sendActivity(eq("Employee Created"), any());
+	}
+
+	private NotificationStore newStore() throws Exception {
+		NotificationStore store = new NotificationStore(dir.resolve("data").toString(),
+				dir.resolve("notifications.json").toString(), 10000);
+		store.start();
+		return store;
+	}
+
+	private NotificationController newController(NotificationStore store) throws Exception {
+		NotificationEventIds recentEventIds = new NotificationEventIds(store, 100);
+		recentEventIds.load();
+		NotificationController controller = new NotificationController();
+		ReflectionTestUtils.setField(controller, "notificationStore", store);
+		ReflectionTestUtils.setField(controller, "activityClient", activityClient);
+		ReflectionTestUtils.setField(controller, "recentEventIds", recentEventIds);
+		NotificationInbox inbox = new NotificationInbox(store, dir.resolve("data").toString(), 100, 10000);
+		inbox.load();
+		ReflectionTestUtils.setField(controller, "notificationInbox", inbox);
+		ReflectionTestUtils.setField(controller, "notificationDispatcher", notificationDispatcher);
+		ReflectionTestUtils.setField(controller, "ingestAdmission", new IngestAdmission(new MockEnvironment(), new SimpleMeterRegistry()));
+		return controller;
+	}
+
+	private static NotificationRequest notification(String eventId, Long employeeId) {
+		NotificationRequest notification = new NotificationRequest();
+		notification.setEventId(eventId);
+		notification.setMessage("Employee Created");
+		notification.setEmployeeId(employeeId);
+		return notification;
+	}
+}
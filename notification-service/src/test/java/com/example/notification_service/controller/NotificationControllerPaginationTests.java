@@ -0,0 +1,148 @@
+package com.example.notification_service.controller;
+
+import com.example.notification_service.dispatch.NotificationDispatcher;
+import com.example.notification_service.model.NotificationRequest;
+import com.example.notification_service.service.ActivityClient;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"notification.store.dir=target/test-notification-data-pagination",
+		"notification.store.legacy-file=target/test-notifications-pagination.json"
+})
+@AutoConfigureMockMvc
+class NotificationControllerPaginationTests {
+	private static final String NDJSON = "application/x-ndjson";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private ActivityClient activityClient;
+
+	@MockitoBean
+	private NotificationDispatcher notificationDispatcher;
+
+	@Test
+	void pagesAnEmployeesInboxUntilAnEmptyPage() throws Exception {
+		long ada = System.nanoTime();
+		long grace = ada + 1;
+		receive(ada, "a1", grace, "g1", ada, "a2", ada, "a3", grace, "g2", ada, "a4", ada, "a5");
+
+		List<Integer> pageSizes = new ArrayList<>();
+		List<NotificationRequest> seen = new ArrayList<>();
+		long afterId = 0;
+		List<NotificationRequest> page;
+		do {
+			page = list(get("/api/notifications").param("employeeId", Long.toString(ada))
+					.param("afterId", Long.toString(afterId)).param("limit", "2"));
+			pageSizes.add(page.size());
+			seen.addAll(page);
+			if (!page.isEmpty()) {
+				afterId = page.get(page.size() - 1).getId();
+			}
+		} while (!page.isEmpty() && pageSizes.size() < 10);
+
+		assertThat(pageSizes).containsExactly(2, 2, 1, 0);
+		assertThat(seen).extracting(NotificationRequest::getMessage).containsExactly("a1", "a2", "a3", "a4", "a5");
+		assertThat(seen).extracting(NotificationRequest::getId).isSorted().doesNotHaveDuplicates();
+	}
+
+	@Test
+	void pagesAllNotificationsByIdUntilAnEmptyPage() throws Exception {
+		long ada = System.nanoTime();
+		long grace = ada + 1;
+		receive(ada, "a1", grace, "g1", ada, "a2", grace, "g2", ada, "a3");
+		long first = list(get("/api/notifications").param("employeeId", Long.toString(ada)).param("limit", "1"))
+				.get(0).getId();
+
+		List<NotificationRequest> firstPage = list(get("/api/notifications")
+				.param("afterId", Long.toString(first - 1)).param("limit", "3"));
+		assertThat(firstPage).extracting(NotificationRequest::getMessage).containsExactly("a1", "g1", "a2");
+		List<NotificationRequest> lastPage = list(get("/api/notifications")
+				.param("afterId", firstPage.get(2).getId().toString()).param("limit", "3"));
+		assertThat(lastPage).as("a short last page").extracting(NotificationRequest::getMessage).containsExactly("g2", "a3");
+		assertThat(list(get("/api/notifications").param("afterId", lastPage.get(1).getId().toString()).param("limit", "3")))
+				.isEmpty();
+	}
+
+	@Test
+	void streamsOneNotificationPerLineAsNdjson() throws Exception {
+		long ada = System.nanoTime();
+		long grace = ada + 1;
+		receive(ada, "a1", grace, "g1", ada, "a2", grace, "g2");
+		long first = list(get("/api/notifications").param("employeeId", Long.toString(ada)).param("limit", "1"))
+				.get(0).getId();
+
+		assertThat(parse(stream(get("/api/notifications").param("employeeId", Long.toString(grace)))))
+				.extracting(NotificationRequest::getMessage).containsExactly("g1", "g2");
+		List<NotificationRequest> all = parse(stream(get("/api/notifications").param("afterId", Long.toString(first))));
+		assertThat(all).extracting(NotificationRequest::getMessage).containsExactly("g1", "a2", "g2");
+		assertThat(stream(get("/api/notifications").param("employeeId", Long.toString(ada))
+				.param("afterId", all.get(1).getId().toString()))).as("nothing after ada's newest").isEmpty();
+		assertThat(stream(get("/api/notifications").param("afterId", all.get(2).getId().toString()))).isEmpty();
+	}
+
+	/** Posts one notification per (employee id, message) pair, in order. */
+	private void receive(Object... pairs) throws Exception {
+		for (int i = 0; i < pairs.length; i += 2) {
+			NotificationRequest notification = new NotificationRequest();
+			notification.setEmployeeId((Long) pairs[i]);
+			notification.setMessage((String) pairs[i + 1]);
+			mockMvc.perform(post("/api/notifications").contentType(MediaType.APPLICATION_JSON)
+							.content(objectMapper.writeValueAsString(notification)))
+					.andExpect(status().isOk());
+		}
+	}
+
+	private List<NotificationRequest> list(MockHttpServletRequestBuilder request) throws Exception {
+		String json = mockMvc.perform(request.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readValue(json, new TypeReference<List<NotificationRequest>>() {});
+	}
+
+	/** The lines of an NDJSON response, after checking that every one of them ends in a newline. */
+	private List<String> stream(MockHttpServletRequestBuilder request) throws Exception {
+		MvcResult started = mockMvc.perform(request.accept(NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(NDJSON))
+				.andReturn().getResponse().getContentAsString();
+		if (body.isEmpty()) return List.of();
+		assertThat(body).endsWith("\n").doesNotContain("\n\n");
+		return List.of(body.split("\n"));
+	}
+
+	private List<NotificationRequest> parse(List<String> lines) throws Exception {
+		List<NotificationRequest> notifications = new ArrayList<>();
+		for (String line : lines) {
+			notifications.add(objectMapper.readValue(line, NotificationRequest.class));
+		}
+		return notifications;
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.notification_service.dispatch;
+
+import com.example.notification_service.model.NotificationRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationDispatcherTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private NotificationDispatcher dispatcher;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		dispatcher.stop();
+	}
+
+	@Test
+	void coalescesABurstPerEmployeeIntoOneDigest() throws Exception {
+		RecordingChannel channel = new RecordingChannel(0);
+		start(List.of(channel), 100, 2);
+
+		for (int i = 1; i <= 50; i++) {
+			dispatcher.submit(List.of(notification(1L, "update " + i)));
+		}
+		dispatcher.submit(List.of(notification(2L, "created"), notification(null, "nobody")));
+		awaitDigests(channel, 2);
+		Thread.sleep(300);
+
+		assertThat(channel.digests).hasSize(2);
+		Digest hot = channel.digests.stream().filter(digest -> digest.employeeId() == 1L).findFirst().orElseThrow();
+		assertThat(hot.count()).isEqualTo(50);
+		assertThat(hot.subject()).isEqualTo("50 new notifications");
+		assertThat(hot.latest()).extracting(NotificationRequest::getMessage).containsExactly("update 49", "update 50");
+		Digest single = channel.digests.stream().filter(digest -> digest.employeeId() == 2L).findFirst().orElseThrow();
+		assertThat(single.subject()).isEqualTo("created");
+		assertThat(meterRegistry.get("notification.dispatch.notifications").counter().count()).isEqualTo(51);
+	}
+
+	@Test
+	void sendsAHotEmployeeAtMostOneDigestAtATimeAndKeepsGoingWhenAChannelFails() throws Exception {
+		RecordingChannel slow = new RecordingChannel(150);
+		NotificationChannel failing = new NotificationChannel() {
+			@Override
+			public String name() {
+				return "failing";
+			}
+
+			@Override
+			public void deliver(Digest digest) {
+				throw new IllegalStateException("down");
+			}
+		};
+		start(List.of(failing, slow), 20, 10);
+
+		long deadline = System.currentTimeMillis() + 500;
+		int sent = 0;
+		while (System.currentTimeMillis() < deadline) {
+			dispatcher.submit(List.of(notification(7L, "tick")));
+			sent++;
+			Thread.sleep(1);
+		}
+		dispatcher.stop();
+
+		// Each delivery takes 150 ms and only one is in flight for the employee, however often it changes.
+		assertThat(slow.maxConcurrent.get()).isEqualTo(1);
+		assertThat(slow.digests).hasSizeLessThanOrEqualTo(6);
+		assertThat(slow.digests.stream().mapToInt(Digest::count).sum()).isEqualTo(sent);
+		assertThat(meterRegistry.get("notification.dispatch").tag("channel", "failing").tag("outcome", "error").timer().count())
+				.isEqualTo(slow.digests.size());
+	}
+
+	private void start(List<NotificationChannel> channels, long windowMs, int digestSize) {
+		dispatcher = new NotificationDispatcher(channels, meterRegistry, Tracer.NOOP);
+		ReflectionTestUtils.setField(dispatcher, "coalesceWindowMs", windowMs);
+		ReflectionTestUtils.setField(dispatcher, "workerCount", 2);
+		ReflectionTestUtils.setField(dispatcher, "queueCapacity", 10);
+		ReflectionTestUtils.setField(dispatcher, "digestSize", digestSize);
+		ReflectionTestUtils.setField(dispatcher, "shutdownTimeoutMs", 5000L);
+		dispatcher.start();
+	}
+
+	private static void awaitDigests(RecordingChannel channel, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (channel.digests.size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static NotificationRequest notification(Long employeeId, String message) {
+		NotificationRequest notification = new NotificationRequest();
+		notification.setEmployeeId(employeeId);
+		notification.setMessage(message);
+		return notification;
+	}
+
+	private static class RecordingChannel implements NotificationChannel {
+		final List<Digest> digests = new CopyOnWriteArrayList<>();
+		final AtomicInteger concurrent = new AtomicInteger();
+		final AtomicInteger maxConcurrent = new AtomicInteger();
+		private final long delayMs;
+
+		RecordingChannel(long delayMs) {
+			this.delayMs = delayMs;
+		}
+
+		@Override
+		public String name() {
+			return "recording";
+		}
+
+		@Override
+		public void deliver(Digest digest) throws InterruptedException {
+			maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+			Thread.sleep(delayMs);
+			concurrent.decrementAndGet();
+			digests.add(digest);
+		}
+	}
+}
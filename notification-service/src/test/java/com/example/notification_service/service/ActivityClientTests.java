@@ -0,0 +1,196 @@
+package com.example.notification_service.service;
+
+import com.example.notification_service.model.ActivityEvent;
+import com.example.service_commons.http.ServiceClient;
+import com.example.service_commons.http.ServiceClientFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityClientTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+	private final CountDownLatch sending = new CountDownLatch(1);
+	/** While set, the stubbed activity-service holds every POST until it is counted down. */
+	private volatile CountDownLatch stall;
+	private ActivityClient client;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		CountDownLatch latch = stall;
+		if (latch != null) {
+			latch.countDown();
+		}
+		client.stop();
+	}
+
+	@Test
+	void sendsABatchAsSoonAsItIsFull() throws Exception {
+		start(3, 5000, 100, ActivityClient.OverflowPolicy.DROP_OLDEST);
+		long start = System.nanoTime();
+		send("a1", "a2", "a3", "a4", "a5", "a6");
+
+		awaitBatches(2);
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).as("well within the linger").isLessThan(2500);
+		assertThat(batches).containsExactly(List.of("a1", "a2", "a3"), List.of("a4", "a5", "a6"));
+	}
+
+	@Test
+	void sendsAPartialBatchOnceItsFirstEventHasLingered() throws Exception {
+		start(100, 200, 100, ActivityClient.OverflowPolicy.DROP_OLDEST);
+		long start = System.nanoTime();
+		send("a1", "a2");
+
+		awaitBatches(1);
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(200);
+		assertThat(batches).containsExactly(List.of("a1", "a2"));
+	}
+
+	@Test
+	void dropNewestKeepsWhatIsQueued() throws Exception {
+		fillQueue(ActivityClient.OverflowPolicy.DROP_NEWEST, 100);
+		send("a4");
+
+		release();
+		awaitBatches(3);
+		assertThat(batches).containsExactly(List.of("a1"), List.of("a2"), List.of("a3"));
+		assertThat(dropped("DROP_NEWEST")).isEqualTo(1);
+	}
+
+	@Test
+	void dropOldestMakesRoomForTheNewEvent() throws Exception {
+		fillQueue(ActivityClient.OverflowPolicy.DROP_OLDEST, 100);
+		send("a4");
+
+		release();
+		awaitBatches(3);
+		assertThat(batches).containsExactly(List.of("a1"), List.of("a3"), List.of("a4"));
+		assertThat(dropped("DROP_OLDEST")).isEqualTo(1);
+	}
+
+	@Test
+	void waitThenDropDropsTheNewEventOnlyAfterWaiting() throws Exception {
+		fillQueue(ActivityClient.OverflowPolicy.WAIT_THEN_DROP, 200);
+		long start = System.nanoTime();
+		send("a4");
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(200);
+
+		release();
+		awaitBatches(3);
+		assertThat(batches).containsExactly(List.of("a1"), List.of("a2"), List.of("a3"));
+		assertThat(dropped("WAIT_THEN_DROP")).isEqualTo(1);
+	}
+
+	@Test
+	void waitThenDropQueuesTheEventIfRoomFreesUpInTime() throws Exception {
+		fillQueue(ActivityClient.OverflowPolicy.WAIT_THEN_DROP, 5000);
+		CountDownLatch latch = stall;
+		Thread.ofVirtual().start(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			stall = null;
+			latch.countDown();
+		});
+		send("a4");
+
+		awaitBatches(4);
+		assertThat(batches).containsExactly(List.of("a1"), List.of("a2"), List.of("a3"), List.of("a4"));
+		assertThat(dropped("WAIT_THEN_DROP")).isZero();
+	}
+
+	@Test
+	void drainsTheQueueOnShutdown() throws Exception {
+		fillQueue(ActivityClient.OverflowPolicy.DROP_OLDEST, 100);
+
+		release();
+		client.stop();
+		assertThat(batches).containsExactly(List.of("a1"), List.of("a2"), List.of("a3"));
+	}
+
+	/**
+	 * Starts a client with room for two events and batches of one, and leaves it with
+	 * a1 stuck in a stalled POST and a2 and a3 filling the queue.
+	 */
+	private void fillQueue(ActivityClient.OverflowPolicy policy, long waitTimeoutMs) throws Exception {
+		stall = new CountDownLatch(1);
+		start(1, 0, 2, policy);
+		ReflectionTestUtils.setField(client, "waitTimeoutMs", waitTimeoutMs);
+		send("a1");
+		assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+		send("a2", "a3");
+	}
+
+	private void start(int batchSize, long lingerMs, int queueCapacity, ActivityClient.OverflowPolicy policy) {
+		ServiceClient serviceClient = mock(ServiceClient.class);
+		doAnswer(invocation -> {
+			sending.countDown();
+			CountDownLatch latch = stall;
+			if (latch != null) {
+				latch.await(5, TimeUnit.SECONDS);
+			}
+			List<ActivityEvent> batch = invocation.getArgument(1);
+			batches.add(batch.stream().map(ActivityEvent::type).toList());
+			return null;
+		}).when(serviceClient).post(eq("/api/activities/batch"), any(), any(MediaType.class), eq(Void.class));
+		ServiceClientFactory factory = mock(ServiceClientFactory.class);
+		when(factory.create(anyString(), anyString())).thenReturn(serviceClient);
+
+		client = new ActivityClient();
+		ReflectionTestUtils.setField(client, "activityUrl", "http://localhost:8083");
+		ReflectionTestUtils.setField(client, "batchSize", batchSize);
+		ReflectionTestUtils.setField(client, "lingerMs", lingerMs);
+		ReflectionTestUtils.setField(client, "queueCapacity", queueCapacity);
+		ReflectionTestUtils.setField(client, "overflowPolicy", policy);
+		ReflectionTestUtils.setField(client, "shutdownTimeoutMs", 5000L);
+		ReflectionTestUtils.setField(client, "wireFormat", ActivityClient.WireFormat.JSON);
+		ReflectionTestUtils.setField(client, "serviceClientFactory", factory);
+		ReflectionTestUtils.setField(client, "tracer", Tracer.NOOP);
+		ReflectionTestUtils.setField(client, "meterRegistry", meterRegistry);
+		client.start();
+	}
+
+	private void send(String... types) {
+		for (String type : types) {
+			client.sendActivity(type, Map.of("type", type));
+		}
+	}
+
+	private void release() {
+		CountDownLatch latch = stall;
+		stall = null;
+		latch.countDown();
+	}
+
+	private void awaitBatches(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (batches.size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(batches).hasSizeGreaterThanOrEqualTo(count);
+	}
+
+	private double dropped(String policy) {
+		return meterRegistry.get("activity.client.dropped").tag("policy", policy).counter().count();
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.notification_service.store;
+
+import com.example.notification_service.model.Inbox;
+import com.example.notification_service.model.NotificationRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationInboxTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void pagesAnEmployeesNotificationsFromMemoryAndOlderOnesFromTheStore() throws Exception {
+		NotificationStore store = newStore();
+		NotificationInbox inbox = newInbox(store, 3);
+		List<NotificationRequest> batch = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			batch.add(notification(i % 2 == 0 ? 2L : 1L, "n" + i));
+		}
+		inbox.addAll(store.appendAll(batch));
+
+		// Employee 2 has ids 2, 4, 6, 8, 10; the inbox retains 6, 8 and 10.
+		assertThat(inbox.page(2L, 5, 10)).extracting(NotificationRequest::getId).containsExactly(6L, 8L, 10L);
+		assertThat(inbox.page(2L, 0, 2)).extracting(NotificationRequest::getId).containsExactly(2L, 4L);
+		assertThat(inbox.page(2L, 2, 10)).extracting(NotificationRequest::getId).containsExactly(4L, 6L, 8L, 10L);
+		assertThat(inbox.page(3L, 0, 10)).isEmpty();
+
+		Inbox summary = inbox.inbox(1L, 2);
+		assertThat(summary.total()).isEqualTo(5);
+		assertThat(summary.unread()).isEqualTo(5);
+		assertThat(summary.notifications()).extracting(NotificationRequest::getId).containsExactly(9L, 7L);
+		inbox.close();
+		store.stop();
+	}
+
+	@Test
+	void readMarksOnlyMoveForwardAndSurviveRestarts() throws Exception {
+		NotificationStore store = newStore();
+		// A snapshot threshold of 2 folds the read marks into a snapshot along the way.
+		NotificationInbox inbox = new NotificationInbox(store, dir.resolve("data").toString(), 100, 2);
+		inbox.load();
+		inbox.addAll(store.appendAll(List.of(notification(1L, "a"), notification(1L, "b"), notification(2L, "c"),
+				notification(1L, "d"))));
+
+		assertThat(inbox.markRead(1L, 2L, 10).unread()).isEqualTo(1);
+		assertThat(inbox.markRead(1L, 1L, 10).readThrough()).isEqualTo(2);
+		assertThat(inbox.markRead(2L, null, 10).unread()).isZero();
+		assertThat(inbox.markRead(9L, null, 10).total()).isZero();
+		inbox.addAll(store.appendAll(List.of(notification(2L, "e"))));
+		inbox.close();
+		store.stop();
+
+		NotificationStore reopened = newStore();
+		NotificationInbox reloaded = newInbox(reopened, 100);
+		assertThat(reloaded.inbox(1L, 10)).satisfies(inbox1 -> {
+			assertThat(inbox1.readThrough()).isEqualTo(2);
+			assertThat(inbox1.unread()).isEqualTo(1);
+		});
+		assertThat(reloaded.inbox(2L, 10).unread()).isEqualTo(1);
+		assertThat(reloaded.markRead(1L, null, 10).unread()).isZero();
+		reloaded.close();
+		reopened.stop();
+	}
+
+	private NotificationStore newStore() throws Exception {
+		NotificationStore store = new NotificationStore(dir.resolve("data").toString(),
+				dir.resolve("notifications.json").toString(), 10000);
+		store.start();
+		return store;
+	}
+
+	private NotificationInbox newInbox(NotificationStore store, int retained) throws Exception {
+		NotificationInbox inbox = new NotificationInbox(store, dir.resolve("data").toString(), retained, 10000);
+		inbox.load();
+		return inbox;
+	}
+
+	private static NotificationRequest notification(Long employeeId, String message) {
+		NotificationRequest notification = new NotificationRequest();
+		notification.setMessage(message);
+		notification.setEmployeeId(employeeId);
+		return notification;
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.notification_service.store;
+
+import com.example.notification_service.model.NotificationRequest;
+import com.example.service_commons.testing.ConcurrentAppends;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationStoreConcurrencyTests {
+	private static final int THREADS = 16;
+	private static final int APPENDS_PER_THREAD = 200;
+	// Small enough that the WAL is compacted into snapshots several times during the test.
+	private static final int SNAPSHOT_THRESHOLD = 500;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void concurrentAppendsGetDenseIdsAndKeepEachInboxInOrderAfterARestart() throws Exception {
+		NotificationStore store = newStore();
+		store.start();
+		Set<Long> ids = ConcurrentAppends.run(THREADS, APPENDS_PER_THREAD, (thread, i) -> {
+			NotificationRequest notification = new NotificationRequest();
+			notification.setMessage("Employee Updated " + i);
+			notification.setEmployeeId((long) thread);
+			return store.append(notification).getId();
+		});
+		store.stop();
+
+		int total = THREADS * APPENDS_PER_THREAD;
+		assertThat(ids).as("ids are handed out without gaps")
+				.containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, total).boxed().toList());
+		List<NotificationRequest> stored = new ArrayList<>();
+		NotificationStore reopened = newStore();
+		reopened.start();
+		reopened.scan(0, stored::add);
+		assertThat(reopened.lastId()).isEqualTo(total);
+		NotificationRequest next = new NotificationRequest();
+		next.setEmployeeId(0L);
+		next.setMessage("next");
+		assertThat(reopened.append(next).getId()).isEqualTo(total + 1L);
+		reopened.stop();
+
+		assertThat(stored).extracting(NotificationRequest::getId)
+				.containsExactlyElementsOf(LongStream.rangeClosed(1, total).boxed().toList());
+		List<String> inOrder = IntStream.range(0, APPENDS_PER_THREAD).mapToObj(i -> "Employee Updated " + i).toList();
+		for (long employeeId = 0; employeeId < THREADS; employeeId++) {
+			long id = employeeId;
+			assertThat(stored).filteredOn(n -> n.getEmployeeId() == id)
+					.as("employee %d's inbox in the order it was written", id)
+					.extracting(NotificationRequest::getMessage).containsExactlyElementsOf(inOrder);
+		}
+	}
+
+	private NotificationStore newStore() {
+		return new NotificationStore(dir.resolve("data").toString(), dir.resolve("notifications.json").toString(),
+				SNAPSHOT_THRESHOLD);
+	}
+}
@@ -0,0 +1,156 @@
+package com.example.notification_service.store;
+
+import com.example.notification_service.model.NotificationRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationStoreScanTests {
+	private static final int SNAPSHOT_THRESHOLD = 10;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void slowScanHoldsUpNeitherCompactionNorOtherScans() throws Exception {
+		NotificationStore store = new NotificationStore(dir.resolve("data").toString(),
+				dir.resolve("notifications.json").toString(), SNAPSHOT_THRESHOLD);
+		store.start();
+		appendNotifications(store, 15);
+		List<Path> pinned = awaitSnapshots(1);
+
+		CountDownLatch stalled = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Long> slowScan = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> scan = CompletableFuture.runAsync(() -> {
+			try {
+				store.scan(0, notification -> {
+					stalled.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					slowScan.add(notification.getId());
+					return true;
+				});
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+		appendNotifications(store, 30);
+		List<Path> snapshots = awaitSnapshots(2);
+		assertThat(snapshots).as("the stalled scan's snapshot is kept").containsAll(pinned);
+		List<Long> fastScan = new CopyOnWriteArrayList<>();
+		CompletableFuture.runAsync(() -> {
+			try {
+				store.scan(40, notification -> fastScan.add(notification.getId()));
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}).get(2, TimeUnit.SECONDS);
+		assertThat(fastScan).containsExactly(41L, 42L, 43L, 44L, 45L);
+
+		release.countDown();
+		scan.get(5, TimeUnit.SECONDS);
+		assertThat(slowScan).containsExactlyElementsOf(LongStream.rangeClosed(1, 45).boxed().toList());
+		assertThat(snapshots()).as("replaced files go once nobody reads them").doesNotContainAnyElementsOf(pinned);
+		store.stop();
+	}
+
+	@Test
+	void pagesFromEveryCursorAcrossSnapshotsAndTheWalBeforeAndAfterARestart() throws Exception {
+		NotificationStore store = new NotificationStore(dir.resolve("data").toString(),
+				dir.resolve("notifications.json").toString(), 50);
+		store.start();
+		// Big enough records that each snapshot's index has many entries.
+		appendNotifications(store, 160, "x".repeat(2000));
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!snapshots().toString().contains("00000000000000000003.snapshot") && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertPagesFromEveryCursor(store, 160);
+		store.stop();
+
+		NotificationStore reopened = new NotificationStore(dir.resolve("data").toString(),
+				dir.resolve("notifications.json").toString(), 50);
+		reopened.start();
+		assertThat(indexes()).as("one index per snapshot").hasSameSizeAs(snapshots());
+		assertPagesFromEveryCursor(reopened, 160);
+		reopened.stop();
+
+		for (Path index : indexes()) {
+			Files.delete(index);
+		}
+		NotificationStore rebuilt = new NotificationStore(dir.resolve("data").toString(),
+				dir.resolve("notifications.json").toString(), 50);
+		rebuilt.start();
+		assertThat(indexes()).as("rebuilt on startup").hasSameSizeAs(snapshots());
+		assertPagesFromEveryCursor(rebuilt, 160);
+		assertThat(rebuilt.lastId()).isEqualTo(160);
+		rebuilt.stop();
+	}
+
+	private static void assertPagesFromEveryCursor(NotificationStore store, long total) throws Exception {
+		for (long afterId = 0; afterId <= total; afterId++) {
+			List<Long> page = new ArrayList<>();
+			store.scan(afterId, notification -> {
+				page.add(notification.getId());
+				return page.size() < 3;
+			});
+			assertThat(page).as("page after %d", afterId)
+					.containsExactlyElementsOf(LongStream.rangeClosed(afterId + 1, Math.min(afterId + 3, total)).boxed().toList());
+		}
+	}
+
+	private static void appendNotifications(NotificationStore store, int count) {
+		appendNotifications(store, count, "Employee Updated");
+	}
+
+	private static void appendNotifications(NotificationStore store, int count, String message) {
+		for (int i = 0; i < count; i++) {
+			NotificationRequest notification = new NotificationRequest();
+			notification.setMessage(message);
+			notification.setEmployeeId(1L);
+			store.append(notification);
+		}
+	}
+
+	private List<Path> awaitSnapshots(int count) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (snapshots().size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		List<Path> snapshots = snapshots();
+		assertThat(snapshots).hasSizeGreaterThanOrEqualTo(count);
+		return snapshots;
+	}
+
+	private List<Path> snapshots() throws Exception {
+		return files(".snapshot");
+	}
+
+	private List<Path> indexes() throws Exception {
+		return files(".snapshot" + SnapshotIndex.SUFFIX);
+	}
+
+	private List<Path> files(String suffix) throws Exception {
+		try (Stream<Path> files = Files.list(dir.resolve("data"))) {
+			return files.filter(path -> path.toString().endsWith(suffix)).sorted().toList();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.service_commons.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limit on requests in progress that follows the latency the service can sustain
+ * (additive increase, multiplicative decrease). Only requests that started after
+ * the last cut can cut it again, so one slow burst counts once.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final double DECREASE_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimate;
+    private volatile int limit;
+    private long lastCutAt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.estimate = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+        this.limit = (int) estimate;
+        this.lastCutAt = Long.MIN_VALUE;
+    }
+
+    /** Every admitted request must be {@link #release released}. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    public void release(long startNanos, long endNanos, boolean failed) {
+        int active = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            if (failed || endNanos - startNanos > latencyThresholdNanos) {
+                if (startNanos > lastCutAt) {
+                    estimate = Math.max(minLimit, estimate * DECREASE_RATIO);
+                    lastCutAt = endNanos;
+                }
+            } else if (active * 2 >= limit) {
+                estimate = Math.min(maxLimit, estimate + 1 / estimate);
+            }
+            limit = (int) estimate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.service_commons.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for the ingest endpoints listed in {@code ingest.paths}: a
+ * {@link TokenBucket} per caller service (429 when over its rate) and an
+ * {@link AdaptiveConcurrencyLimit} on requests in progress (503, see {@link IngestAdmissionFilter}).
+ */
+@Component
+public class IngestAdmission {
+    public static final String CALLER_HEADER = "X-Caller-Service";
+    static final String UNKNOWN_CALLER = "unknown";
+    /** Callers past the first {@link #MAX_CALLERS} share one bucket, so a bad header cannot grow the map. */
+    static final String OTHER_CALLERS = "other";
+    private static final int MAX_CALLERS = 100;
+    private static final int DEFAULT_INITIAL_LIMIT = 64;
+    private static final int DEFAULT_MIN_LIMIT = 4;
+    private static final int DEFAULT_MAX_LIMIT = 512;
+    private static final long DEFAULT_LATENCY_THRESHOLD_MS = 500;
+    private static final long DEFAULT_RETRY_AFTER_S = 1;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final Set<String> ingestPaths;
+    private final Map<String, Optional<TokenBucket>> buckets = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final long shedRetryAfterSeconds;
+
+    @Autowired
+    public IngestAdmission(Environment environment, MeterRegistry meterRegistry) {
+        this(environment, meterRegistry, System::nanoTime);
+    }
+
+    IngestAdmission(Environment environment, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.ingestPaths = Set.copyOf(Arrays.asList(environment.getProperty("ingest.paths", String[].class, new String[0])));
+        this.shedRetryAfterSeconds = environment.getProperty("ingest.shed.retry-after-s", Long.class, DEFAULT_RETRY_AFTER_S);
+        if (environment.getProperty("ingest.shed.enabled", Boolean.class, true)) {
+            concurrencyLimit = new AdaptiveConcurrencyLimit(
+                    environment.getProperty("ingest.shed.initial-limit", Integer.class, DEFAULT_INITIAL_LIMIT),
+                    environment.getProperty("ingest.shed.min-limit", Integer.class, DEFAULT_MIN_LIMIT),
+                    environment.getProperty("ingest.shed.max-limit", Integer.class, DEFAULT_MAX_LIMIT),
+                    environment.getProperty("ingest.shed.latency-threshold-ms", Long.class, DEFAULT_LATENCY_THRESHOLD_MS));
+            Gauge.builder("ingest.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit).register(meterRegistry);
+            Gauge.builder("ingest.in_flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight).register(meterRegistry);
+        } else {
+            concurrencyLimit = null;
+        }
+    }
+
+    public static String caller(String header, String fallback) {
+        if (header != null && !header.isBlank()) return header.trim();
+        return fallback != null && !fallback.isBlank() ? fallback : UNKNOWN_CALLER;
+    }
+
+    /** Charges one token per item; nothing is charged when it throws. */
+    public void checkRate(String caller, int items) {
+        String key = key(caller);
+        long waitNanos = buckets.computeIfAbsent(key, this::newBucket)
+                .map(bucket -> bucket.tryAcquire(items))
+                .orElse(0L);
+        if (waitNanos > 0) {
+            count(key, "rate_limited");
+            throw new RateLimitedException(key, Math.ceilDiv(waitNanos, TimeUnit.SECONDS.toNanos(1)));
+        }
+        count(key, "admitted");
+    }
+
+    public boolean isIngestPath(String path) {
+        return ingestPaths.contains(path);
+    }
+
+    /** Each request that may start must {@link #exit}. */
+    public boolean tryEnter(String caller) {
+        if (concurrencyLimit == null || concurrencyLimit.tryAcquire()) return true;
+        count(key(caller), "shed");
+        return false;
+    }
+
+    public void exit(long startNanos, boolean failed) {
+        if (concurrencyLimit != null) {
+            concurrencyLimit.release(startNanos, nanoClock.getAsLong(), failed);
+        }
+    }
+
+    public long shedRetryAfterSeconds() {
+        return shedRetryAfterSeconds;
+    }
+
+    long nanoTime() {
+        return nanoClock.getAsLong();
+    }
+
+    private String key(String caller) {
+        String key = caller(caller, null);
+        return buckets.containsKey(key) || buckets.size() < MAX_CALLERS ? key : OTHER_CALLERS;
+    }
+
+    private Optional<TokenBucket> newBucket(String caller) {
+        double perSecond = environment.getProperty("ingest.rate-limit.callers." + caller + ".per-second", Double.class,
+                environment.getProperty("ingest.rate-limit.per-second", Double.class, 0.0));
+        if (perSecond <= 0) return Optional.empty();
+        long burst = environment.getProperty("ingest.rate-limit.callers." + caller + ".burst", Long.class,
+                environment.getProperty("ingest.rate-limit.burst", Long.class, (long) Math.ceil(perSecond)));
+        return Optional.of(new TokenBucket(perSecond, burst, nanoClock));
+    }
+
+    private void count(String caller, String outcome) {
+        Counter.builder("ingest.requests")
+                .tag("caller", caller)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.service_commons.admission;
+
+/** Thrown when a caller is over its ingest rate; answered with 429 and {@code Retry-After}. */
+public class RateLimitedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(String caller, long retryAfterSeconds) {
+        super(caller + " is over its ingest rate, retry after " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
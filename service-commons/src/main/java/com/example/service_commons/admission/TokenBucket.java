@@ -0,0 +1,47 @@
+package com.example.service_commons.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double perSecond, long burst) {
+        this(perSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double perSecond, long burst, LongSupplier nanoClock) {
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Returns 0 once the tokens are taken, else the nanoseconds until they will be there.
+     * More than a full bucket takes a full bucket, so an oversized batch is not refused forever.
+     */
+    public long tryAcquire(int permits) {
+        double wanted = Math.min(permits, capacity);
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= wanted) {
+                tokens -= wanted;
+                return 0;
+            }
+            return (long) Math.ceil((wanted - tokens) / tokensPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.service_commons.http;
+
+/** Thrown instead of calling a downstream service whose circuit breaker is open. */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String target) {
+        super("Circuit breaker for " + target + " is open");
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.service_commons.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound HTTP client for one downstream service, behind a circuit breaker. Only
+ * requests that cannot have been processed (connection failures, 503, 429) are
+ * retried, so a non-idempotent POST is never sent twice.
+ */
+public class ServiceClient {
+    private static final Logger logger = LoggerFactory.getLogger(ServiceClient.class);
+
+    private final String target;
+    private final String baseUrl;
+    private final RestTemplate restTemplate;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxRetryAfterMs;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
+
+    public ServiceClient(String target, String baseUrl, RestTemplate restTemplate, int maxAttempts, long backoffMs,
+                         long maxRetryAfterMs, CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.target = target;
+        this.baseUrl = baseUrl;
+        this.restTemplate = restTemplate;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+        this.maxRetryAfterMs = maxRetryAfterMs;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.retries = Counter.builder("outbound.retries").tag("target", target).register(meterRegistry);
+        Gauge.builder("outbound.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    public String target() {
+        return target;
+    }
+
+    public <T> T post(String path, Object body, Class<T> responseType) {
+        return post(path, body, MediaType.APPLICATION_JSON, responseType);
+    }
+
+    public <T> T post(String path, Object body, MediaType contentType, Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        HttpEntity<Object> request = new HttpEntity<>(body, headers);
+        if (!circuitBreaker.tryAcquire()) {
+            record("short_circuited", 0);
+            throw new CircuitOpenException(target);
+        }
+        String url = baseUrl + path;
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                T response = restTemplate.postForObject(url, request, responseType);
+                record("success", System.nanoTime() - start);
+                circuitBreaker.onSuccess();
+                return response;
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                record("rate_limited", System.nanoTime() - start);
+                if (attempt >= maxAttempts || !backOff(attempt, e)) {
+                    circuitBreaker.onSuccess();
+                    throw e;
+                }
+                retries.increment();
+                logger.debug("Retrying POST {} after attempt {} was rate limited", url, attempt);
+            } catch (HttpClientErrorException e) {
+                // The target answered; a 4xx is the caller's problem, not a sign the target is unhealthy.
+                record("client_error", System.nanoTime() - start);
+                circuitBreaker.onSuccess();
+                throw e;
+            } catch (RestClientException e) {
+                record(e instanceof HttpServerErrorException ? "server_error" : "io_error", System.nanoTime() - start);
+                if (attempt >= maxAttempts || !isRetryable(e) || !backOff(attempt, e)) {
+                    circuitBreaker.onFailure();
+                    throw e;
+                }
+                retries.increment();
+                logger.debug("Retrying POST {} after attempt {} failed: {}", url, attempt, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isRetryable(RestClientException e) {
+        if (e instanceof HttpServerErrorException.ServiceUnavailable) return true;
+        if (e instanceof ResourceAccessException) {
+            Throwable cause = e.getCause();
+            return cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException;
+        }
+        return false;
+    }
+
+    /** Returns false if interrupted or if {@code Retry-After} asks for more than {@code maxRetryAfterMs}. */
+    private boolean backOff(int attempt, RestClientException failure) {
+        long ceiling = backoffMs << Math.min(attempt - 1, 10);
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        long retryAfterMs = retryAfterMs(failure);
+        if (retryAfterMs > maxRetryAfterMs) return false;
+        delay = Math.max(delay, retryAfterMs);
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // HTTP dates are ignored.
+    private static long retryAfterMs(RestClientException e) {
+        if (!(e instanceof HttpStatusCodeException status) || status.getResponseHeaders() == null) return 0;
+        String retryAfter = status.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null) return 0;
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException ignored) {
+            return 0;
+        }
+    }
+
+    private void record(String outcome, long nanos) {
+        Timer.builder("outbound.requests")
+                .tag("target", target)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
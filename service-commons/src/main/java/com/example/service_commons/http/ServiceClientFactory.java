@@ -0,0 +1,89 @@
+package com.example.service_commons.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds a {@link ServiceClient} per downstream service, each with its own
+ * {@link HttpClient} so a slow service cannot use up another one's connections.
+ */
+@Component
+public class ServiceClientFactory {
+    public static final String CALLER_HEADER = "X-Caller-Service";
+    private static final long DEFAULT_CONNECT_TIMEOUT_MS = 1000;
+    private static final long DEFAULT_READ_TIMEOUT_MS = 2000;
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final long DEFAULT_BACKOFF_MS = 50;
+    private static final long DEFAULT_MAX_RETRY_AFTER_MS = 2000;
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_OPEN_MS = 10000;
+
+    private final Environment environment;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /** Null without virtual threads. */
+    private ExecutorService executor;
+
+    public ServiceClientFactory(Environment environment, RestTemplateBuilder restTemplateBuilder, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (virtualThreads) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public ServiceClient create(String target, String baseUrl) {
+        RestTemplate restTemplate = restTemplateBuilder
+                .requestFactoryBuilder(ClientHttpRequestFactoryBuilder.jdk().withHttpClientCustomizer(builder -> {
+                    builder.version(HttpClient.Version.HTTP_1_1);
+                    if (executor != null) {
+                        builder.executor(executor);
+                    }
+                }))
+                .defaultHeader(CALLER_HEADER, environment.getProperty("spring.application.name", "unknown"))
+                .connectTimeout(Duration.ofMillis(setting(target, "connect-timeout-ms", DEFAULT_CONNECT_TIMEOUT_MS)))
+                .readTimeout(Duration.ofMillis(setting(target, "read-timeout-ms", DEFAULT_READ_TIMEOUT_MS)))
+                .build();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                (int) setting(target, "failure-threshold", DEFAULT_FAILURE_THRESHOLD),
+                setting(target, "open-ms", DEFAULT_OPEN_MS));
+        return new ServiceClient(target, baseUrl, restTemplate,
+                (int) setting(target, "max-attempts", DEFAULT_MAX_ATTEMPTS),
+                setting(target, "backoff-ms", DEFAULT_BACKOFF_MS),
+                setting(target, "max-retry-after-ms", DEFAULT_MAX_RETRY_AFTER_MS),
+                circuitBreaker, meterRegistry);
+    }
+
+    private long setting(String target, String name, long defaultValue) {
+        Long value = environment.getProperty("http.client." + target + "." + name, Long.class);
+        return value != null ? value : environment.getProperty("http.client." + name, Long.class, defaultValue);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.service_commons.persistence;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/** Event ids of the last {@code capacity} records stored, rebuilt from the store on startup. */
+public class RecentEventIds {
+    private static final Logger logger = LoggerFactory.getLogger(RecentEventIds.class);
+
+    @FunctionalInterface
+    public interface Rebuild {
+        void rebuild(Consumer<String> ids) throws IOException;
+    }
+
+    private final String name;
+    private final int capacity;
+    private final Rebuild rebuild;
+    private final Map<String, Boolean> ids;
+
+    public RecentEventIds(String name, int capacity, Rebuild rebuild) {
+        this.name = name;
+        this.capacity = capacity;
+        this.rebuild = rebuild;
+        this.ids = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > RecentEventIds.this.capacity;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        rebuild.rebuild(eventId -> {
+            if (eventId != null) {
+                add(eventId);
+            }
+        });
+        logger.info("Loaded {} recent {} event ids", ids.size(), name);
+    }
+
+    public synchronized boolean add(String eventId) {
+        return ids.putIfAbsent(eventId, Boolean.TRUE) == null;
+    }
+
+    public synchronized void remove(String eventId) {
+        ids.remove(eventId);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.service_commons.persistence;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * A point-in-time copy of a store or of state derived from a log, behind a header
+ * with the generation it covers and the body's length and CRC32. Written to a temp
+ * file and renamed into place; {@link #write} returns once the rename is durable.
+ */
+public final class SnapshotFile {
+    private static final String MAGIC = "SNAPSHOT";
+    // "SNAPSHOT <generation:20> <records:20> <length:20> <crc:8>\n"
+    private static final int HEADER_LENGTH = MAGIC.length() + 1 + 20 + 1 + 20 + 1 + 20 + 1 + 8 + 1;
+
+    private static final Timer WRITE_TIMER = Timer.builder("persistence.snapshot.write").register(Metrics.globalRegistry);
+    private static final DistributionSummary WRITE_BYTES = DistributionSummary.builder("persistence.snapshot.bytes")
+            .baseUnit("bytes").register(Metrics.globalRegistry);
+    private static final Timer VERIFY_TIMER = Timer.builder("persistence.snapshot.verify").register(Metrics.globalRegistry);
+
+    public record Header(long generation, long records, long length, long crc) {}
+
+    @FunctionalInterface
+    public interface BodyWriter {
+        long write(OutputStream out) throws IOException;
+    }
+
+    private SnapshotFile() {
+    }
+
+    public static Header write(Path file, long generation, BodyWriter body) throws IOException {
+        long start = System.nanoTime();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        long records;
+        long length;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(header(new Header(generation, 0, 0, 0))));
+            CountingCrcOutputStream out = new CountingCrcOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), crc);
+            records = body.write(out);
+            out.flush();
+            length = out.count;
+            channel.write(ByteBuffer.wrap(header(new Header(generation, records, length, crc.getValue()))), 0);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(file.toAbsolutePath().getParent());
+        WRITE_BYTES.record(length);
+        WRITE_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Header(generation, records, length, crc.getValue());
+    }
+
+    public static void syncDirectory(Path dir) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    public static Header readHeader(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] bytes = in.readNBytes(HEADER_LENGTH);
+            String line = new String(bytes, StandardCharsets.US_ASCII);
+            String[] parts = line.trim().split(" ");
+            if (bytes.length != HEADER_LENGTH || parts.length != 5 || !MAGIC.equals(parts[0])) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            return new Header(Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                    Long.parseLong(parts[4], 16));
+        }
+    }
+
+    public static Header verify(Path file) throws IOException {
+        long start = System.nanoTime();
+        Header header = readHeader(file);
+        CRC32 crc = new CRC32();
+        long length;
+        try (InputStream in = new CheckedInputStream(openBody(file), crc)) {
+            length = in.transferTo(OutputStream.nullOutputStream());
+        }
+        if (length != header.length() || crc.getValue() != header.crc()) {
+            throw new IOException("Snapshot " + file + " is corrupt (checksum or length mismatch)");
+        }
+        VERIFY_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return header;
+    }
+
+    public static InputStream openBody(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+        in.skipNBytes(HEADER_LENGTH);
+        return in;
+    }
+
+    private static byte[] header(Header header) {
+        return String.format("%s %020d %020d %020d %08x\n", MAGIC, header.generation(), header.records(),
+                header.length(), header.crc()).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class CountingCrcOutputStream extends FilterOutputStream {
+        private final CRC32 crc;
+        private long count;
+
+        CountingCrcOutputStream(OutputStream out, CRC32 crc) {
+            super(out);
+            this.crc = crc;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            crc.update(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // The channel is closed by the writer; closing here would close it early.
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.service_commons.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of CRC32-prefixed JSON lines, split into numbered generations; a
+ * snapshot taken at generation {@code G} covers every generation up to {@code G}.
+ * With {@code fsyncIntervalMs} of zero every {@link #appendAll} is fsynced before it
+ * returns, otherwise a background flusher fsyncs on that interval.
+ */
+public class WriteAheadLog<R> implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+    private static final String SUFFIX = ".wal";
+
+    @FunctionalInterface
+    public interface RecordHandler<R> {
+        boolean handle(R record) throws IOException;
+    }
+
+    public record Position(long generation, long offset) {}
+
+    private final Path dir;
+    private final String name;
+    private final ObjectMapper objectMapper;
+    private final Class<R> recordType;
+    private final long fsyncIntervalMs;
+    private final ThreadFactory threadFactory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Timer appendTimer;
+    private final DistributionSummary appendBytes;
+    private final Timer fsyncTimer;
+    private final Timer recoverTimer;
+    private FileChannel channel;
+    private long generation;
+    private volatile long entries;
+    private volatile boolean dirty;
+    private ScheduledExecutorService flusher;
+
+    public WriteAheadLog(Path dir, String name, ObjectMapper objectMapper, Class<R> recordType, long fsyncIntervalMs) {
+        this(dir, name, objectMapper, recordType, fsyncIntervalMs, Thread.ofPlatform().daemon().factory());
+    }
+
+    public WriteAheadLog(Path dir, String name, ObjectMapper objectMapper, Class<R> recordType, long fsyncIntervalMs,
+                         ThreadFactory threadFactory) {
+        this.dir = dir;
+        this.name = name;
+        this.objectMapper = objectMapper;
+        this.recordType = recordType;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.threadFactory = threadFactory;
+        this.appendTimer = Timer.builder("persistence.append").tag("log", name).register(Metrics.globalRegistry);
+        this.appendBytes = DistributionSummary.builder("persistence.append.bytes").baseUnit("bytes").tag("log", name)
+                .register(Metrics.globalRegistry);
+        this.fsyncTimer = Timer.builder("persistence.fsync").tag("log", name).register(Metrics.globalRegistry);
+        this.recoverTimer = Timer.builder("persistence.recover").tag("log", name).register(Metrics.globalRegistry);
+    }
+
+    public long recover(long snapshotGeneration, RecordHandler<R> handler) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(dir);
+        List<Long> generations = generations();
+        long replayed = 0;
+        for (int i = 0; i < generations.size(); i++) {
+            long gen = generations.get(i);
+            if (gen <= snapshotGeneration) continue;
+            boolean newest = i == generations.size() - 1;
+            replayed += read(gen, 0, handler, newest ? TailPolicy.TRUNCATE : TailPolicy.FAIL);
+        }
+        long last = generations.isEmpty() ? 0 : generations.get(generations.size() - 1);
+        lock.lock();
+        try {
+            generation = Math.max(last, snapshotGeneration) + 1;
+            openGeneration();
+        } finally {
+            lock.unlock();
+        }
+        recoverTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (fsyncIntervalMs > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = threadFactory.newThread(r);
+                thread.setName(name + "-wal-flusher");
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Recovered {} WAL records for {} after snapshot generation {}, writing generation {}",
+                replayed, name, snapshotGeneration, generation);
+        return replayed;
+    }
+
+    public void append(R record) throws IOException {
+        appendAll(List.of(record));
+    }
+
+    public Position appendAll(List<? extends R> records) throws IOException {
+        long start = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(records.size() * 128);
+        for (R record : records) {
+            byte[] json = objectMapper.writeValueAsBytes(record);
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            buffer.write(String.format("%08x ", crc.getValue()).getBytes(StandardCharsets.US_ASCII));
+            buffer.write(json);
+            buffer.write('\n');
+        }
+        Position position;
+        lock.lock();
+        try {
+            position = new Position(generation, channel.position());
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            entries += records.size();
+            if (fsyncIntervalMs > 0) {
+                dirty = true;
+            } else {
+                force(channel);
+            }
+        } finally {
+            lock.unlock();
+        }
+        appendBytes.record(buffer.size());
+        appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return position;
+    }
+
+    public void sync() throws IOException {
+        FileChannel current;
+        lock.lock();
+        try {
+            current = channel;
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            force(current);
+        } catch (ClosedChannelException e) {
+            // Rolled concurrently; roll() forces the generation before closing it.
+        }
+    }
+
+    public long entries() {
+        return entries;
+    }
+
+    /** Returns the sealed generation: a snapshot of the state as of this call covers it. */
+    public long roll() throws IOException {
+        lock.lock();
+        try {
+            force(channel);
+            channel.close();
+            long sealed = generation++;
+            openGeneration();
+            return sealed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void replay(long afterGeneration, long throughGeneration, RecordHandler<R> handler) throws IOException {
+        for (long gen : generations()) {
+            if (gen > afterGeneration && gen <= throughGeneration) {
+                read(gen, 0, handler, TailPolicy.FAIL);
+            }
+        }
+    }
+
+    /** Includes the generation being written, but not a record still being appended. */
+    public boolean readFrom(long afterGeneration, RecordHandler<R> handler) throws IOException {
+        return readFrom(new Position(afterGeneration + 1, 0), handler);
+    }
+
+    public boolean readFrom(Position from, RecordHandler<R> handler) throws IOException {
+        for (long gen : generations()) {
+            if (gen >= from.generation()) {
+                try {
+                    if (read(gen, gen == from.generation() ? from.offset() : 0, handler, TailPolicy.STOP) < 0) return false;
+                } catch (NoSuchFileException e) {
+                    logger.debug("WAL generation {} of {} deleted while reading", gen, name);
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Only call once {@link SnapshotFile#write} of a snapshot covering {@code generation} has returned. */
+    public void deleteThrough(long generation) throws IOException {
+        for (long gen : generations()) {
+            if (gen <= generation) {
+                Files.deleteIfExists(path(gen));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        lock.lock();
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private enum TailPolicy { TRUNCATE, STOP, FAIL }
+
+    private long read(long gen, long offset, RecordHandler<R> handler, TailPolicy tailPolicy) throws IOException {
+        Path path = path(gen);
+        long count = 0;
+        long valid = offset;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            in.skipNBytes(offset);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            long position = offset;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                R record = decode(line.toByteArray());
+                if (record == null) {
+                    return badRecord(path, valid, tailPolicy, count);
+                }
+                if (!handler.handle(record)) return -1;
+                count++;
+                valid = position;
+                line.reset();
+            }
+            if (line.size() > 0 && tailPolicy != TailPolicy.STOP) {
+                return badRecord(path, valid, tailPolicy, count);
+            }
+        }
+        return count;
+    }
+
+    private long badRecord(Path path, long valid, TailPolicy tailPolicy, long count) throws IOException {
+        switch (tailPolicy) {
+            case TRUNCATE:
+                logger.warn("Truncating torn record at byte {} of {}", valid, path);
+                try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    ch.truncate(valid);
+                    ch.force(true);
+                }
+                return count;
+            case STOP:
+                return count;
+            default:
+                throw new IOException("Checksum mismatch in " + path + " at byte " + valid);
+        }
+    }
+
+    private R decode(byte[] line) {
+        if (line.length < 10 || line[8] != ' ') return null;
+        try {
+            long expected = Long.parseLong(new String(line, 0, 8, StandardCharsets.US_ASCII), 16);
+            CRC32 crc = new CRC32();
+            crc.update(line, 9, line.length - 9);
+            if (crc.getValue() != expected) return null;
+            return objectMapper.readValue(line, 9, line.length - 9, recordType);
+        } catch (NumberFormatException | IOException e) {
+            return null;
+        }
+    }
+
+    private void force(FileChannel target) throws IOException {
+        long start = System.nanoTime();
+        target.force(false);
+        fsyncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void flushQuietly() {
+        if (!dirty) return;
+        try {
+            sync();
+        } catch (IOException e) {
+            logger.error("Failed to fsync WAL for {}", name, e);
+            dirty = true;
+        }
+    }
+
+    private void openGeneration() throws IOException {
+        channel = FileChannel.open(path(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // Records fsynced into the new file are only found again if its name is durable too.
+        SnapshotFile.syncDirectory(dir);
+        entries = 0;
+    }
+
+    private Path path(long gen) {
+        return dir.resolve(String.format("%s-%020d%s", name, gen, SUFFIX));
+    }
+
+    private List<Long> generations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        String prefix = name + "-";
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : files.toList()) {
+                String file = path.getFileName().toString();
+                if (file.startsWith(prefix) && file.endsWith(SUFFIX)) {
+                    try {
+                        generations.add(Long.parseLong(file.substring(prefix.length(), file.length() - SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        logger.warn("Ignoring unexpected file {} in WAL directory", path);
+                    }
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.service_commons.tracing;
+
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.api.trace.SpanContext;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/** Carries trace context, as W3C {@code traceparent} values, across work handed off to a background thread. */
+public final class TraceParents {
+    private static final int MAX_LINKS = 32;
+
+    private TraceParents() {
+    }
+
+    public static String current() {
+        SpanContext context = io.opentelemetry.api.trace.Span.current().getSpanContext();
+        if (!context.isValid()) return null;
+        return "00-" + context.getTraceId() + "-" + context.getSpanId() + "-" + context.getTraceFlags().asHex();
+    }
+
+    /** Continues the batch's trace if it has only one, otherwise links to each of them. */
+    public static Span startBatchSpan(Tracer tracer, String name, Collection<String> traceParents) {
+        Set<String> distinct = new LinkedHashSet<>(traceParents);
+        distinct.remove(null);
+        Span.Builder builder = tracer.spanBuilder().name(name).kind(Span.Kind.PRODUCER);
+        if (distinct.size() == 1) {
+            TraceContext parent = parse(tracer, distinct.iterator().next());
+            if (parent != null) builder = builder.setParent(parent);
+        } else {
+            builder = builder.setNoParent();
+            int links = 0;
+            for (String traceParent : distinct) {
+                TraceContext context = parse(tracer, traceParent);
+                if (context == null) continue;
+                builder = builder.addLink(new Link(context));
+                if (++links == MAX_LINKS) break;
+            }
+        }
+        return builder.start();
+    }
+
+    static TraceContext parse(Tracer tracer, String traceParent) {
+        String[] parts = traceParent.split("-");
+        if (parts.length != 4 || parts[1].length() != 32 || parts[2].length() != 16 || parts[3].length() != 2) return null;
+        boolean sampled;
+        try {
+            sampled = (Integer.parseInt(parts[3], 16) & 1) == 1;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return tracer.traceContextBuilder().traceId(parts[1]).spanId(parts[2]).sampled(sampled).build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.service_commons.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IngestAdmissionTests {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void limitsEachCallerToItsOwnRate() {
+		IngestAdmission admission = new IngestAdmission(new MockEnvironment()
+				.withProperty("ingest.rate-limit.per-second", "10")
+				.withProperty("ingest.rate-limit.callers.notification-service.per-second", "100")
+				.withProperty("ingest.rate-limit.callers.notification-service.burst", "200"), meterRegistry, clock::get);
+
+		admission.checkRate("notification-service", 200);
+		admission.checkRate("employee-management-service", 10);
+		assertThatThrownBy(() -> admission.checkRate("employee-management-service", 5))
+				.isInstanceOfSatisfying(RateLimitedException.class, e -> assertThat(e.retryAfterSeconds()).isEqualTo(1));
+		assertThatThrownBy(() -> admission.checkRate("notification-service", 1)).isInstanceOf(RateLimitedException.class);
+
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+		admission.checkRate("employee-management-service", 5);
+		admission.checkRate("notification-service", 50);
+
+		assertThat(meterRegistry.counter("ingest.requests", "caller", "notification-service", "outcome", "admitted").count())
+				.isEqualTo(2);
+		assertThat(meterRegistry.counter("ingest.requests", "caller", "employee-management-service", "outcome", "rate_limited").count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void chargesABatchLargerThanTheBurstAFullBucket() {
+		IngestAdmission admission = new IngestAdmission(new MockEnvironment()
+				.withProperty("ingest.rate-limit.per-second", "10"), meterRegistry, clock::get);
+
+		admission.checkRate("notification-service", 500);
+		assertThatThrownBy(() -> admission.checkRate("notification-service", 500))
+				.isInstanceOfSatisfying(RateLimitedException.class, e -> assertThat(e.retryAfterSeconds()).isEqualTo(1));
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		admission.checkRate("notification-service", 500);
+	}
+
+	@Test
+	void concurrencyLimitShrinksOnSlowRequestsAndGrowsBackWhenFast() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 20, 100);
+		long slow = TimeUnit.MILLISECONDS.toNanos(500);
+		long fast = TimeUnit.MILLISECONDS.toNanos(10);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(limit.tryAcquire()).isTrue();
+		}
+		assertThat(limit.tryAcquire()).isFalse();
+		for (int i = 0; i < 10; i++) {
+			limit.release(0, slow, false);
+		}
+		assertThat(limit.limit()).as("one slow burst cuts the limit once").isEqualTo(9);
+
+		long now = slow;
+		for (int round = 0; round < 50; round++) {
+			int admitted = 0;
+			while (limit.tryAcquire()) admitted++;
+			for (int i = 0; i < admitted; i++) {
+				limit.release(now, now + fast, false);
+			}
+			now += fast;
+		}
+		assertThat(limit.limit()).isGreaterThan(10);
+		assertThat(limit.inFlight()).isZero();
+	}
+
+	@Test
+	void filterShedsIngestRequestsOverTheLimitWithRetryAfter() throws Exception {
+		IngestAdmission admission = new IngestAdmission(new MockEnvironment()
+				.withProperty("ingest.paths", "/api/activities,/api/activities/batch")
+				.withProperty("ingest.shed.initial-limit", "1")
+				.withProperty("ingest.shed.min-limit", "1"), meterRegistry, clock::get);
+		IngestAdmissionFilter filter = new IngestAdmissionFilter(admission);
+		assertThat(admission.tryEnter("notification-service")).isTrue();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/activities/batch");
+		request.addHeader(IngestAdmission.CALLER_HEADER, "notification-service");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, response, chain);
+
+		assertThat(response.getStatus()).isEqualTo(503);
+		assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		assertThat(chain.getRequest()).as("the body is never read").isNull();
+		assertThat(meterRegistry.counter("ingest.requests", "caller", "notification-service", "outcome", "shed").count())
+				.isEqualTo(1);
+
+		MockHttpServletResponse query = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/activities"), query, new MockFilterChain());
+		assertThat(query.getStatus()).as("only ingest requests are shed").isEqualTo(200);
+		MockHttpServletResponse other = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("POST", "/api/activities/replay"), other, new MockFilterChain());
+		assertThat(other.getStatus()).as("only the paths in ingest.paths are shed").isEqualTo(200);
+
+		admission.exit(clock.get(), false);
+		MockHttpServletResponse admitted = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("POST", "/api/activities"), admitted, new MockFilterChain());
+		assertThat(admitted.getStatus()).isEqualTo(200);
+	}
+}
@@ -0,0 +1,138 @@
+package com.example.service_commons.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ServiceClientTests {
+	private static final String URL = "http://downstream/api/things";
+
+	private final AtomicLong clock = new AtomicLong();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private RestTemplate restTemplate;
+	private MockRestServiceServer server;
+
+	@BeforeEach
+	void setUp() {
+		restTemplate = new RestTemplate();
+		server = MockRestServiceServer.bindTo(restTemplate).build();
+	}
+
+	@Test
+	void retriesServiceUnavailableAndThenSucceeds() {
+		ServiceClient client = newClient(3, new CircuitBreaker(5, 1000, clock::get));
+		server.expect(ExpectedCount.times(2), requestTo(URL)).andExpect(method(HttpMethod.POST))
+				.andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+		server.expect(requestTo(URL)).andRespond(withSuccess());
+
+		client.post("/api/things", Map.of("a", 1), Void.class);
+
+		server.verify();
+		assertThat(meterRegistry.counter("outbound.retries", "target", "downstream").count()).isEqualTo(2);
+		assertThat(meterRegistry.timer("outbound.requests", "target", "downstream", "outcome", "success").count()).isEqualTo(1);
+	}
+
+	@Test
+	void doesNotRetryErrorsThatMayHaveBeenProcessed() {
+		ServiceClient client = newClient(3, new CircuitBreaker(5, 1000, clock::get));
+		server.expect(ExpectedCount.once(), requestTo(URL)).andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+		assertThatThrownBy(() -> client.post("/api/things", Map.of("a", 1), Void.class))
+				.isInstanceOf(HttpServerErrorException.class);
+		server.verify();
+	}
+
+	@Test
+	void retriesTooManyRequestsAfterRetryAfterWithoutTrippingTheBreaker() {
+		CircuitBreaker breaker = new CircuitBreaker(1, 1000, clock::get);
+		ServiceClient client = newClient(2, breaker);
+		HttpHeaders retryAfter = new HttpHeaders();
+		retryAfter.set(HttpHeaders.RETRY_AFTER, "1");
+		server.expect(ExpectedCount.times(2), requestTo(URL))
+				.andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(retryAfter));
+
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> client.post("/api/things", Map.of(), Void.class))
+				.isInstanceOf(HttpClientErrorException.TooManyRequests.class);
+
+		server.verify();
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(meterRegistry.timer("outbound.requests", "target", "downstream", "outcome", "rate_limited").count())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void givesUpWhenRetryAfterIsLongerThanTheClientWaits() {
+		ServiceClient client = newClient(3, new CircuitBreaker(5, 1000, clock::get));
+		HttpHeaders retryAfter = new HttpHeaders();
+		retryAfter.set(HttpHeaders.RETRY_AFTER, "30");
+		server.expect(ExpectedCount.once(), requestTo(URL))
+				.andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE).headers(retryAfter));
+
+		assertThatThrownBy(() -> client.post("/api/things", Map.of(), Void.class))
+				.isInstanceOf(HttpServerErrorException.ServiceUnavailable.class);
+		server.verify();
+	}
+
+	@Test
+	void opensAfterConsecutiveFailuresAndFailsFast() {
+		CircuitBreaker breaker = new CircuitBreaker(2, 1000, clock::get);
+		ServiceClient client = newClient(1, breaker);
+		server.expect(ExpectedCount.times(2), requestTo(URL)).andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+		for (int i = 0; i < 2; i++) {
+			assertThatThrownBy(() -> client.post("/api/things", Map.of(), Void.class))
+					.isInstanceOf(HttpServerErrorException.class);
+		}
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThatThrownBy(() -> client.post("/api/things", Map.of(), Void.class))
+				.isInstanceOf(CircuitOpenException.class);
+		server.verify();
+		assertThat(meterRegistry.timer("outbound.requests", "target", "downstream", "outcome", "short_circuited").count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void halfOpenTrialDecidesWhetherTheCircuitCloses() {
+		CircuitBreaker breaker = new CircuitBreaker(1, 1000, clock::get);
+		breaker.onFailure();
+		assertThat(breaker.tryAcquire()).isFalse();
+
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+		assertThat(breaker.tryAcquire()).isTrue();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		assertThat(breaker.tryAcquire()).as("only one trial call at a time").isFalse();
+		breaker.onFailure();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+		assertThat(breaker.tryAcquire()).isTrue();
+		breaker.onSuccess();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(breaker.tryAcquire()).isTrue();
+	}
+
+	private ServiceClient newClient(int maxAttempts, CircuitBreaker breaker) {
+		return new ServiceClient("downstream", "http://downstream", restTemplate, maxAttempts, 1, 1000, breaker, meterRegistry);
+	}
+}
@@ -0,0 +1,64 @@
+package com.example.service_commons.testing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Starts writer and reader threads together and fails on the first id handed out twice. */
+public final class ConcurrentAppends {
+
+	@FunctionalInterface
+	public interface Append {
+		long append(int thread, int index) throws Exception;
+	}
+
+	@FunctionalInterface
+	public interface Reader {
+		void read() throws Exception;
+	}
+
+	private ConcurrentAppends() {
+	}
+
+	public static Set<Long> run(int threads, int appendsPerThread, Append append, Reader... readers) throws Exception {
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		CountDownLatch startGate = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads + readers.length);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures.add(pool.submit(() -> {
+					startGate.await();
+					for (int i = 0; i < appendsPerThread; i++) {
+						long id = append.append(thread, i);
+						assertThat(ids.add(id)).as("id %d handed out twice", id).isTrue();
+					}
+					return null;
+				}));
+			}
+			for (Reader reader : readers) {
+				futures.add(pool.submit(() -> {
+					startGate.await();
+					reader.read();
+					return null;
+				}));
+			}
+			startGate.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertThat(ids).hasSize(threads * appendsPerThread);
+		return ids;
+	}
+}